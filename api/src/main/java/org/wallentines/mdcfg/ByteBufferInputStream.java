@@ -4,12 +4,14 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
 public class ByteBufferInputStream extends InputStream {
 
     private final ByteBuffer internal;
-    private final int length;
+    private final ByteBuffer source;
+    private final int end;
 
     public ByteBufferInputStream(ByteBuffer internal) {
         this(internal, 0, internal.limit());
@@ -17,20 +19,59 @@ public class ByteBufferInputStream extends InputStream {
 
 
     public ByteBufferInputStream(ByteBuffer internal, int pos, int length) {
+        this.source = internal;
         this.internal = internal.asReadOnlyBuffer();
         this.internal.rewind();
-        this.length = length;
-        internal.position(pos);
+        this.internal.position(pos);
+        this.end = pos + length;
     }
 
     @Override
     public int read(byte @NotNull [] data, int off, int len) throws IOException {
 
+        if(len == 0) return 0;
+
         int remaining = available();
         if(remaining == 0) return -1;
 
         int length = Math.min(remaining, len);
-        internal.get(data, 0, length);
+        internal.get(data, off, length);
+        return length;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if(n <= 0) return 0;
+
+        int skipped = (int) Math.min(n, available());
+        internal.position(internal.position() + skipped);
+        return skipped;
+    }
+
+    /**
+     * Writes all remaining bytes in this stream to the given output stream. Bytes are written straight from the
+     * buffer's backing array if it has an accessible one
+     * @param out The stream to write to
+     * @return The number of bytes written
+     * @throws IOException If writing to the output stream fails
+     */
+    public long writeTo(OutputStream out) throws IOException {
+
+        int length = available();
+        if(source.hasArray()) {
+            out.write(source.array(), source.arrayOffset() + internal.position(), length);
+            internal.position(end);
+            return length;
+        }
+
+        int remaining = length;
+        byte[] copyBuffer = new byte[Math.min(remaining, 8192)];
+        while(remaining > 0) {
+            int read = Math.min(remaining, copyBuffer.length);
+            internal.get(copyBuffer, 0, read);
+            out.write(copyBuffer, 0, read);
+            remaining -= read;
+        }
         return length;
     }
 
@@ -41,6 +82,6 @@ public class ByteBufferInputStream extends InputStream {
 
     @Override
     public int available() throws IOException {
-        return length - internal.position();
+        return end - internal.position();
     }
 }
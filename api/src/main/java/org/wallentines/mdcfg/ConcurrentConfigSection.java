@@ -0,0 +1,321 @@
+package org.wallentines.mdcfg;
+
+import org.jetbrains.annotations.Nullable;
+import org.wallentines.mdcfg.serializer.SerializeContext;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A ConfigSection which can be safely read and written by multiple threads at once. The entries in the section are
+ * held in an immutable snapshot, so reads never block, and writes replace the snapshot using compare-and-set. Iterating
+ * the keys or entries of the section while other threads are writing to it sees a consistent snapshot, and never
+ * throws a ConcurrentModificationException. Insertion order is preserved.
+ * <br/>
+ * Only the section itself is thread-safe. Values inside the section, such as child sections or lists, are not
+ * synchronized unless they are also concurrent or frozen.
+ */
+@SuppressWarnings("unused")
+public class ConcurrentConfigSection extends ConfigSection {
+
+    private final AtomicReference<State> state;
+
+    private ConcurrentConfigSection(State state) {
+        super(Collections.emptyList(), Collections.emptyList(), Collections.emptyMap());
+        this.state = new AtomicReference<>(state);
+    }
+
+    /**
+     * Creates an empty ConcurrentConfigSection
+     */
+    public ConcurrentConfigSection() {
+        this(State.EMPTY);
+    }
+
+    /**
+     * Creates a ConcurrentConfigSection containing the entries of the given section. Values are not copied
+     * @param section The section to read entries from
+     */
+    public ConcurrentConfigSection(ConfigSection section) {
+        this(State.EMPTY);
+        State out = State.EMPTY;
+        for(String key : section.getKeys()) {
+            out = out.plus(key, section.get(key));
+        }
+        state.set(out);
+    }
+
+    @Override
+    public ConfigObject set(String key, @Nullable ConfigObject value) {
+
+        if(key == null) return ConfigPrimitive.NULL;
+        if(value == null) return remove(key);
+
+        while(true) {
+            State current = state.get();
+            Integer index = current.indices.get(key);
+
+            ConfigObject out;
+            State next;
+            if(index == null) {
+                out = ConfigPrimitive.NULL;
+                next = current.plus(key, value);
+            } else {
+                out = current.values.get(index);
+                next = current.with(index, value);
+            }
+
+            if(state.compareAndSet(current, next)) return out;
+        }
+    }
+
+    @Override
+    public ConfigObject get(String key) {
+
+        State current = state.get();
+        Integer index = current.indices.get(key);
+        if(index == null) return ConfigPrimitive.NULL;
+
+        return current.values.get(index);
+    }
+
+    @Override
+    public boolean has(String key) {
+        return state.get().indices.containsKey(key);
+    }
+
+    @Override
+    public ConfigObject remove(String key) {
+
+        if(key == null) return ConfigPrimitive.NULL;
+
+        while(true) {
+            State current = state.get();
+            Integer index = current.indices.get(key);
+            if(index == null) return ConfigPrimitive.NULL;
+
+            if(state.compareAndSet(current, current.minus(key, index))) {
+                return current.values.get(index);
+            }
+        }
+    }
+
+    /**
+     * Gets a reference to an existing ConfigSection associated with the given key, or atomically creates a new one,
+     * puts it in the section, and returns it. If multiple threads call this at once, they will all receive the same
+     * section
+     * @param key The key to lookup
+     * @return An existing or newly created ConfigSection associated with the given key
+     * @throws IllegalStateException If there is already a non-ConfigSection value at the given key
+     */
+    @Override
+    public ConfigSection getOrCreateSection(String key) {
+
+        ConfigSection created = null;
+        while(true) {
+            State current = state.get();
+            Integer index = current.indices.get(key);
+            if(index != null) {
+                ConfigObject obj = current.values.get(index);
+                if(obj.isSection()) return obj.asSection();
+                if(!obj.isNull()) {
+                    throw new IllegalStateException("There is already a value with key " + key + ", and it is not a ConfigSection!");
+                }
+            }
+
+            if(created == null) created = new ConcurrentConfigSection();
+            State next = index == null ? current.plus(key, created) : current.with(index, created);
+            if(state.compareAndSet(current, next)) return created;
+        }
+    }
+
+    @Override
+    public int size() {
+        return state.get().size();
+    }
+
+    @Override
+    public Collection<String> getKeys() {
+
+        State current = state.get();
+        if(current.tombstones == 0) return current.keys;
+
+        List<String> out = new ArrayList<>(current.size());
+        for(String key : current.keys) {
+            if(key != null) out.add(key);
+        }
+        return out;
+    }
+
+    @Override
+    public <E extends Exception> void forEachEntry(SerializeContext.EntryConsumer<ConfigObject, E> consumer) throws E {
+
+        State current = state.get();
+        for(int i = 0 ; i < current.keys.size() ; i++) {
+            String key = current.keys.get(i);
+            if(key != null) consumer.accept(key, current.values.get(i));
+        }
+    }
+
+    /**
+     * Gets the key at the given position in the current snapshot of the section. Positions may change between calls
+     * if other threads write to the section, so forEach() should be used to iterate consistently
+     * @param index The position of the entry, between 0 and size()
+     * @return The key of the entry at the given position
+     * @throws IndexOutOfBoundsException If there is no entry at the given position
+     */
+    @Override
+    public String keyAt(int index) {
+        State current = state.get();
+        return current.keys.get(current.position(index));
+    }
+
+    /**
+     * Gets the value at the given position in the current snapshot of the section. Positions may change between calls
+     * if other threads write to the section, so forEach() should be used to iterate consistently
+     * @param index The position of the entry, between 0 and size()
+     * @return The value of the entry at the given position
+     * @throws IndexOutOfBoundsException If there is no entry at the given position
+     */
+    @Override
+    public ConfigObject valueAt(int index) {
+        State current = state.get();
+        return current.values.get(current.position(index));
+    }
+
+    @Override
+    public Stream<Tuples.T2<String, ConfigObject>> stream() {
+
+        State current = state.get();
+        return IntStream.range(0, current.keys.size())
+                .filter(i -> current.keys.get(i) != null)
+                .mapToObj(i -> new Tuples.T2<>(current.keys.get(i), current.values.get(i)));
+    }
+
+    /**
+     * Creates a deep copy of this section. The copy is also a ConcurrentConfigSection
+     * @return A copy of this section
+     */
+    @Override
+    public ConcurrentConfigSection copy() {
+
+        State current = state.get();
+        State out = State.EMPTY;
+        for(int i = 0 ; i < current.keys.size() ; i++) {
+            String key = current.keys.get(i);
+            if(key != null) out = out.plus(key, current.values.get(i).copy());
+        }
+        return new ConcurrentConfigSection(out);
+    }
+
+    @Override
+    public ConfigSection freeze() {
+
+        State current = state.get();
+        ConfigSection out = new ConfigSection();
+        for(int i = 0 ; i < current.keys.size() ; i++) {
+            String key = current.keys.get(i);
+            if(key != null) out.set(key, current.values.get(i));
+        }
+        return out.freeze();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+
+        ConcurrentConfigSection otherSection = (ConcurrentConfigSection) other;
+        State current = state.get();
+
+        if(current.size() != otherSection.size()) return false;
+
+        for(int i = 0 ; i < current.keys.size() ; i++) {
+            String key = current.keys.get(i);
+            if(key == null) continue;
+            if(!Objects.equals(current.values.get(i), otherSection.get(key))) return false;
+        }
+
+        return true;
+    }
+
+    // Consistent with equals() on the current snapshot. Entry order does not affect the result, and sections and lists
+    // do not define hashCode(), so only their keys contribute to it
+    @Override
+    public int hashCode() {
+        State current = state.get();
+        int out = 0;
+        for(int i = 0 ; i < current.keys.size() ; i++) {
+            String key = current.keys.get(i);
+            if(key == null) continue;
+            ConfigObject value = current.values.get(i);
+            out += key.hashCode() ^ (value.isPrimitive() || value.isBlob() ? value.hashCode() : 0);
+        }
+        return out;
+    }
+
+    /**
+     * An immutable snapshot of the entries in the section. Like ConfigSection, removed entries leave a null tombstone,
+     * which is compacted away once tombstones make up a large enough portion of the snapshot.
+     */
+    private static final class State {
+
+        private static final int MIN_COMPACT_SIZE = 16;
+
+        static final State EMPTY = new State(PersistentVector.empty(), PersistentVector.empty(), PersistentMap.empty(), 0);
+
+        final PersistentVector<ConfigObject> values;
+        final PersistentVector<String> keys;
+        final PersistentMap<String, Integer> indices;
+        final int tombstones;
+
+        State(PersistentVector<ConfigObject> values, PersistentVector<String> keys, PersistentMap<String, Integer> indices, int tombstones) {
+            this.values = values;
+            this.keys = keys;
+            this.indices = indices;
+            this.tombstones = tombstones;
+        }
+
+        int size() {
+            return keys.size() - tombstones;
+        }
+
+        int position(int index) {
+            if(tombstones == 0) return index;
+            if(index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+
+            int remaining = index;
+            for(int i = 0 ; i < keys.size() ; i++) {
+                if(keys.get(i) != null && remaining-- == 0) return i;
+            }
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+
+        State plus(String key, ConfigObject value) {
+            return new State(values.plus(value), keys.plus(key), indices.plus(key, keys.size()), tombstones);
+        }
+
+        State with(int index, ConfigObject value) {
+            return new State(values.with(index, value), keys, indices, tombstones);
+        }
+
+        State minus(String key, int index) {
+
+            int newTombstones = tombstones + 1;
+            if(newTombstones >= MIN_COMPACT_SIZE && newTombstones * 2 >= keys.size()) {
+
+                State out = EMPTY;
+                for(int i = 0 ; i < keys.size() ; i++) {
+                    String k = keys.get(i);
+                    if(k != null && i != index) out = out.plus(k, values.get(i));
+                }
+                return out;
+            }
+
+            return new State(values.with(index, null), keys.with(index, null), indices.minus(key), newTombstones);
+        }
+    }
+
+}
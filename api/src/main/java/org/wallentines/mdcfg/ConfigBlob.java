@@ -7,16 +7,31 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Objects;
 
 public class ConfigBlob extends ConfigObject {
 
-    private final ByteBuffer data;
+    private ByteBuffer data;
 
+    // Set when another blob shares the same content after a call to copy(). The content is only actually copied if
+    // getData() is called, since the caller may then write to it.
+    private boolean shared;
+
+    // Set when code outside this blob may hold a writable reference to its content, either because it passed the
+    // buffer or array in, or because it was returned from getData(). Such content is copied eagerly by copy().
+    private boolean exposed;
+
+    /**
+     * Creates a blob backed by the given buffer. The buffer's content is not copied, so heap, direct, and
+     * memory-mapped buffers can all be used without copying them
+     * @param buffer The buffer to use
+     */
     public ConfigBlob(ByteBuffer buffer) {
-        super(SerializeContext.Type.BLOB);
-        this.data = buffer.duplicate();
-        data.rewind();
+        this(buffer, true);
     }
 
     public ConfigBlob(byte[] data) {
@@ -24,17 +39,44 @@ public class ConfigBlob extends ConfigObject {
     }
 
     public ConfigBlob(ByteArrayOutputStream stream) {
-        this(stream.toByteArray());
+        this(ByteBuffer.wrap(stream.toByteArray()), false);
+    }
+
+    private ConfigBlob(ByteBuffer buffer, boolean exposed) {
+        super(SerializeContext.Type.BLOB);
+        this.data = buffer.duplicate();
+        this.exposed = exposed;
+        data.rewind();
     }
 
     public int getSize() {
         return data.limit();
     }
 
+    /**
+     * Gets the buffer backing this blob. If the blob's content is shared with a copy, it is copied first, so writes to
+     * the returned buffer never affect other blobs. Use getReadOnlyData() to read the blob without copying
+     * @return The buffer backing this blob
+     */
     public ByteBuffer getData() {
+        if(shared) {
+            data = copyOf(data);
+            shared = false;
+        }
+        if(!data.isReadOnly()) exposed = true;
         return data;
     }
 
+    /**
+     * Gets a read-only view of the buffer backing this blob. The content is never copied
+     * @return A read-only view of this blob's data
+     */
+    public ByteBuffer getReadOnlyData() {
+        ByteBuffer out = data.asReadOnlyBuffer();
+        out.rewind();
+        return out;
+    }
+
     public ByteBufferInputStream asStream() {
         return new ByteBufferInputStream(data);
     }
@@ -85,13 +127,30 @@ public class ConfigBlob extends ConfigObject {
         return this;
     }
 
+    /**
+     * Creates a copy of this blob. If no other code can write to this blob's content, the copy shares it until either
+     * blob's getData() is called, so copying takes constant time and memory. Otherwise, the content is copied now
+     * @return A copy of this blob
+     */
     @Override
     public ConfigBlob copy() {
-        try {
-            return ConfigBlob.read(asStream(), getSize());
-        } catch (IOException ex) {
-            throw new IllegalStateException("Unable to copy blob!", ex);
+        if(exposed) {
+            return new ConfigBlob(copyOf(data), false);
         }
+        ConfigBlob out = new ConfigBlob(data, false);
+        out.shared = true;
+        shared = true;
+        return out;
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer data) {
+        ByteBuffer source = data.duplicate();
+        source.rewind();
+
+        ByteBuffer out = data.isDirect() ? ByteBuffer.allocateDirect(source.limit()) : ByteBuffer.allocate(source.limit());
+        out.put(source);
+        out.rewind();
+        return out;
     }
 
 
@@ -117,32 +176,46 @@ public class ConfigBlob extends ConfigObject {
 
     public static ConfigBlob read(InputStream stream) throws IOException {
 
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        byte[] copyBuffer = new byte[1024];
+        byte[] out = new byte[Math.max(stream.available(), 8192)];
+        int length = 0;
         int read;
-        while((read = stream.read(copyBuffer)) > 0) {
-            bos.write(copyBuffer, 0, read);
+        while((read = stream.read(out, length, out.length - length)) != -1) {
+            length += read;
+            if(length == out.length) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
         }
 
-        return new ConfigBlob(bos);
+        // Trim the buffer, so the backing array holds exactly the blob's content
+        return new ConfigBlob(ByteBuffer.wrap(length == out.length ? out : Arrays.copyOf(out, length)), false);
     }
 
     public static ConfigBlob read(InputStream stream, int length) throws IOException {
 
-        int remaining = length;
-        ByteBuffer temp = ByteBuffer.allocate(remaining);
-
-        byte[] copyBuffer = new byte[1024];
-        while(remaining > 0) {
-            int read = stream.read(copyBuffer);
+        byte[] out = new byte[length];
+        int offset = 0;
+        while(offset < length) {
+            int read = stream.read(out, offset, length - offset);
             if(read == -1) {
                 throw new EOFException("Found EOF while reading from a stream!");
             }
-            remaining -= read;
-            temp.put(copyBuffer, 0, read);
+            offset += read;
         }
 
-        return new ConfigBlob(temp);
+        return new ConfigBlob(ByteBuffer.wrap(out), false);
+    }
+
+    /**
+     * Creates a blob backed by a read-only memory mapping of the given file. The file's content is not read onto the
+     * heap
+     * @param file The file to map
+     * @return A new blob
+     * @throws IOException If the file could not be mapped
+     */
+    public static ConfigBlob map(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ConfigBlob(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), false);
+        }
     }
 
 }
@@ -10,7 +10,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
 @SuppressWarnings("unused")
@@ -18,9 +18,9 @@ public class ConfigList extends ConfigObject {
 
     private final List<ConfigObject> values;
 
-    private ConfigList(Collection<ConfigObject> values) {
+    private ConfigList(List<ConfigObject> values) {
         super(SerializeContext.Type.LIST);
-        this.values = List.copyOf(values);
+        this.values = values;
     }
 
     /**
@@ -68,7 +68,7 @@ public class ConfigList extends ConfigObject {
      * @return Whether the Number was successfully added
      */
     public boolean add(Number value) {
-        return values.add(new ConfigPrimitive(value));
+        return values.add(ConfigPrimitive.unshared(value));
     }
 
     /**
@@ -80,6 +80,18 @@ public class ConfigList extends ConfigObject {
         return values.add(new ConfigPrimitive(value));
     }
 
+    /**
+     * Replaces the value at the given index
+     * @param index The index of the value to replace
+     * @param value The new value
+     * @return The value previously at the given index
+     * @throws IndexOutOfBoundsException If there is no value at the given index
+     */
+    public ConfigObject set(int index, ConfigObject value) {
+        if(value == null) throw new IllegalArgumentException("Unable to put null into a list!");
+        return values.set(index, value);
+    }
+
     /**
      * Adds a value to the list, returning a reference to self
      * @param value The value to add
@@ -205,7 +217,7 @@ public class ConfigList extends ConfigObject {
      * @return Whether the list contains any values equivalent to the given String
      */
     public boolean contains(String object) {
-        return values.contains(new ConfigPrimitive(object));
+        return values.contains(ConfigPrimitive.of(object));
     }
 
     /**
@@ -214,7 +226,7 @@ public class ConfigList extends ConfigObject {
      * @return Whether the list contains any values equivalent to the given Number
      */
     public boolean contains(Number object) {
-        return values.contains(new ConfigPrimitive(object));
+        return values.contains(ConfigPrimitive.of(object));
     }
 
     /**
@@ -223,7 +235,7 @@ public class ConfigList extends ConfigObject {
      * @return Whether the list contains any values equivalent to the given Boolean
      */
     public boolean contains(Boolean object) {
-        return values.contains(new ConfigPrimitive(object));
+        return values.contains(ConfigPrimitive.of(object));
     }
 
     /**
@@ -303,9 +315,28 @@ public class ConfigList extends ConfigObject {
      */
     public static ConfigList create(Collection<ConfigObject> collection) {
 
-        ConfigList out = new ConfigList();
-        out.values.addAll(collection);
-        return out;
+        return new ConfigList(new ArrayList<>(collection));
+    }
+
+    /**
+     * Creates a builder for a ConfigList with storage sized for the given number of values
+     * @param expectedSize The number of values which will be added
+     * @return A new builder
+     */
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * Creates a ConfigList whose values are only loaded when they are first accessed. Each value is loaded at most
+     * once, then cached. Loading happens on read, so the list must not be read by multiple threads at once until it is
+     * frozen
+     * @param size The number of values in the list
+     * @param loader A function which loads the value at the given index. Must not return null
+     * @return A new ConfigList
+     */
+    public static ConfigList lazy(int size, IntFunction<ConfigObject> loader) {
+        return new ConfigList(new LazyValueList(size, loader));
     }
 
     @Override
@@ -362,9 +393,19 @@ public class ConfigList extends ConfigObject {
         return out;
     }
 
+    /**
+     * Gets an immutable snapshot of this list. Values are stored in a persistent structure, so modified versions of
+     * the returned list can be made using append() without copying the entire tree. Sections and lists which are
+     * already frozen are reused rather than copied.
+     * @return An immutable snapshot of this list
+     */
     @Override
     public ConfigList freeze() {
-        return new Frozen(this);
+        Frozen out = Frozen.empty();
+        for(ConfigObject obj : values) {
+            out = out.plus(obj);
+        }
+        return out;
     }
 
     @Override
@@ -391,14 +432,70 @@ public class ConfigList extends ConfigObject {
     }
 
     /**
-     * Frozen ConfigList
+     * Builds a ConfigList with storage sized for a known number of values. The built list adopts the builder's storage
+     * without copying it, so each builder can only build one list
+     */
+    public static class Builder {
+
+        private List<ConfigObject> values;
+
+        private Builder(int expectedSize) {
+            this.values = new ArrayList<>(expectedSize);
+        }
+
+        /**
+         * Adds a value to the end of the list
+         * @param value The value to add
+         * @return A reference to self
+         * @throws IllegalStateException If the list has already been built
+         */
+        public Builder add(ConfigObject value) {
+            if(values == null) throw new IllegalStateException("ConfigList has already been built!");
+            if(value == null) throw new IllegalArgumentException("Unable to add null to a list!");
+            values.add(value);
+            return this;
+        }
+
+        /**
+         * Builds the list
+         * @return A new ConfigList containing the added values
+         * @throws IllegalStateException If the list has already been built
+         */
+        public ConfigList build() {
+            if(values == null) throw new IllegalStateException("ConfigList has already been built!");
+            ConfigList out = new ConfigList(values);
+            values = null;
+            return out;
+        }
+    }
+
+    /**
+     * Frozen ConfigList. Calling append() on a frozen list returns a new frozen list which shares structure with the
+     * original, so appending takes O(log n) time and the original is left unchanged.
      */
     private static class Frozen extends ConfigList {
 
+        // Each empty frozen list is a new object, since meta properties can still be set on frozen lists
+        static Frozen empty() {
+            return new Frozen(PersistentVector.empty());
+        }
+
         static UnsupportedOperationException exception() { return new UnsupportedOperationException("ConfigList is frozen!"); }
 
-        private Frozen(ConfigList list) {
-            super(list.values.stream().map(ConfigObject::freeze).collect(Collectors.toList()));
+        private final PersistentVector<ConfigObject> entries;
+
+        private Frozen(PersistentVector<ConfigObject> entries) {
+            super(entries);
+            this.entries = entries;
+        }
+
+        private Frozen plus(ConfigObject value) {
+            return new Frozen(entries.plus(value.freeze()));
+        }
+
+        @Override
+        public ConfigList freeze() {
+            return this;
         }
 
         @Override
@@ -426,29 +523,37 @@ public class ConfigList extends ConfigObject {
             throw exception();
         }
 
+        @Override
+        public ConfigObject set(int index, ConfigObject value) {
+            throw exception();
+        }
+
         @Override
         public ConfigList append(ConfigObject value) {
-            return copy().append(value);
+            if(value == null) throw new IllegalArgumentException("Unable to add " + value + " to a list!");
+            return plus(value);
         }
 
         @Override
         public ConfigList append(String value) {
-            return copy().append(value);
+            return append(new ConfigPrimitive(value));
         }
 
         @Override
         public ConfigList append(Number value) {
-            return copy().append(value);
+            return append(ConfigPrimitive.unshared(value));
         }
 
         @Override
         public ConfigList append(Boolean value) {
-            return copy().append(value);
+            return append(new ConfigPrimitive(value));
         }
 
         @Override
         public <T> ConfigList append(T value, @NotNull Serializer<T> serializer) {
-            return copy().append(value, serializer);
+
+            Optional<ConfigObject> serialized = serializer.serialize(ConfigContext.INSTANCE, value).get();
+            return serialized.map(this::plus).orElse(this);
         }
 
         @Override
@@ -458,7 +563,11 @@ public class ConfigList extends ConfigObject {
 
         @Override
         public ConfigList appendAll(Collection<ConfigObject> objects) {
-            return copy().appendAll(objects);
+            ConfigList out = this;
+            for(ConfigObject obj : objects) {
+                out = out.append(obj);
+            }
+            return out;
         }
 
         @Override
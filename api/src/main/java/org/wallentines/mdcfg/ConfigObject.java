@@ -6,13 +6,21 @@ import org.wallentines.mdcfg.serializer.SerializeResult;
 import org.wallentines.mdcfg.serializer.Serializer;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 public abstract class ConfigObject {
 
-    protected Map<String, String> meta = new HashMap<>();
+    // Meta properties are rare, and there are usually only one or two of them, so they are stored as alternating keys
+    // and values in a flat array which is only allocated when the first property is set
+    private String[] meta;
+
+    // Marks objects which may be referenced from many places at once, and therefore cannot hold meta properties
+    private static final String[] SHARED = new String[0];
     protected final SerializeContext.Type type;
 
     protected ConfigObject(SerializeContext.Type type) {
@@ -138,9 +146,26 @@ public abstract class ConfigObject {
      * Adds a meta property to this config object, which cna be queried layer, and may or may not be serialized
      * @param key The key of the property to set
      * @param value The property value
+     * @throws UnsupportedOperationException If this object is shared, and does not support meta properties
      */
     public void setMetaProperty(String key, String value) {
-        meta.put(key, value);
+        if(meta == SHARED) {
+            throw new UnsupportedOperationException("Cannot set meta properties on a shared object! Copy it first");
+        }
+        if(meta == null) {
+            meta = new String[] { key, value };
+            return;
+        }
+        for(int i = 0 ; i < meta.length ; i += 2) {
+            if(Objects.equals(meta[i], key)) {
+                meta[i + 1] = value;
+                return;
+            }
+        }
+        int length = meta.length;
+        meta = Arrays.copyOf(meta, length + 2);
+        meta[length] = key;
+        meta[length + 1] = value;
     }
 
     /**
@@ -149,7 +174,44 @@ public abstract class ConfigObject {
      * @return The value of the property
      */
     public String getMetaProperty(String key) {
-        return meta.get(key);
+        if(meta == null) return null;
+        for(int i = 0 ; i < meta.length ; i += 2) {
+            if(Objects.equals(meta[i], key)) return meta[i + 1];
+        }
+        return null;
+    }
+
+    /**
+     * Gets all meta properties set on this object. Meta properties used to be stored in a protected {@code meta} map,
+     * which subclasses could access directly. Subclasses which did so should read properties through this method, and
+     * set them with {@link #setMetaProperty(String, String)}
+     * @return An unmodifiable copy of this object's meta properties
+     * @deprecated Use {@link #getMetaProperty(String)} and {@link #setMetaProperty(String, String)} instead
+     */
+    @Deprecated
+    protected Map<String, String> getMetaProperties() {
+        if(meta == null || meta.length == 0) return Collections.emptyMap();
+        Map<String, String> out = new HashMap<>();
+        for(int i = 0 ; i < meta.length ; i += 2) {
+            out.put(meta[i], meta[i + 1]);
+        }
+        return Collections.unmodifiableMap(out);
+    }
+
+    /**
+     * Whether meta properties can be set on this object. Shared instances, such as those returned by
+     * {@link ConfigPrimitive#of(int) ConfigPrimitive.of()}, do not support meta properties, but their copies do.
+     * @return Whether this object supports meta properties
+     */
+    public boolean supportsMeta() {
+        return meta != SHARED;
+    }
+
+    /**
+     * Marks this object as shared, so that setting meta properties on it will fail
+     */
+    void markShared() {
+        meta = SHARED;
     }
 
     /**
@@ -180,7 +242,7 @@ public abstract class ConfigObject {
 
         // Primitives
         if(obj instanceof Number) {
-            return new ConfigPrimitive((Number) obj);
+            return ConfigPrimitive.unshared((Number) obj);
         }
 
         if(obj instanceof String) {
@@ -0,0 +1,253 @@
+package org.wallentines.mdcfg;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A parsed path to a value nested inside sections and lists. Paths are made of keys separated by dots, and list indices
+ * in square brackets, such as {@code a.b.c[3].d}. Keys containing dots or square brackets cannot be represented by
+ * a path.
+ * <br/>
+ * Paths parsed with {@link #parse(String)} are kept in a bounded cache, so repeatedly reading the same path does not
+ * parse it again.
+ */
+@SuppressWarnings("unused")
+public final class ConfigPath {
+
+    private static final int CACHE_SIZE = 256;
+
+    // Paths are evicted using the CLOCK algorithm, like MemoCache, so that cache hits do not need a lock. Paths which
+    // were parsed again since they were last considered for eviction are given a second chance
+    private static final ConcurrentHashMap<String, CacheEntry> CACHE = new ConcurrentHashMap<>();
+    private static final Queue<CacheEntry> CLOCK = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger CACHED = new AtomicInteger();
+
+    private final String path;
+
+    // Each segment is either a key, or a list index if its key is null
+    private final String[] keys;
+    private final int[] indices;
+
+    private ConfigPath(String path, String[] keys, int[] indices) {
+        this.path = path;
+        this.keys = keys;
+        this.indices = indices;
+    }
+
+    /**
+     * Parses a path, or gets a previously parsed path from the cache
+     * @param path The path to parse
+     * @return A parsed path
+     * @throws IllegalArgumentException If the path is empty or malformed
+     */
+    public static ConfigPath parse(String path) {
+
+        CacheEntry entry = CACHE.get(path);
+        if(entry != null) {
+            if(!entry.referenced) entry.referenced = true;
+            return entry.value;
+        }
+
+        ConfigPath out = compile(path);
+        CacheEntry created = new CacheEntry(out);
+        if(CACHE.putIfAbsent(path, created) == null) {
+            CLOCK.add(created);
+            if(CACHED.incrementAndGet() > CACHE_SIZE) {
+                evict();
+            }
+        }
+        return out;
+    }
+
+    private static void evict() {
+        CacheEntry entry;
+        while((entry = CLOCK.poll()) != null) {
+            if(entry.referenced) {
+                entry.referenced = false;
+                CLOCK.add(entry);
+            } else {
+                CACHE.remove(entry.value.path, entry);
+                if(CACHED.decrementAndGet() <= CACHE_SIZE) return;
+            }
+        }
+    }
+
+    /**
+     * Determines the number of segments in the path
+     * @return The number of segments in the path
+     */
+    public int length() {
+        return keys.length;
+    }
+
+    /**
+     * Gets a reference to the value at this path, starting at the given object
+     * @param root The object to start at
+     * @return The value at this path, or ConfigPrimitive.NULL if there is no such value
+     */
+    public ConfigObject get(ConfigObject root) {
+
+        ConfigObject current = root;
+        for(int i = 0 ; i < keys.length ; i++) {
+            current = child(current, i);
+            if(current == null) return ConfigPrimitive.NULL;
+        }
+        return current;
+    }
+
+    /**
+     * Associates the given value with this path, starting at the given section. Missing sections and lists along the
+     * path are created. A list index equal to the size of the list appends to it
+     * @param root The section to start at
+     * @param value The value to put at the path. If null, the value at the path will be removed instead
+     * @return A reference to the previous value at the path
+     * @throws IllegalStateException If a value along the path is not a section or list as required by the path
+     * @throws IndexOutOfBoundsException If a list index along the path is greater than the size of the list
+     */
+    public ConfigObject set(ConfigSection root, @Nullable ConfigObject value) {
+
+        ConfigObject current = root;
+        int last = keys.length - 1;
+        for(int i = 0 ; i < last ; i++) {
+
+            ConfigObject next = child(current, i);
+            if(next == null || next.isNull()) {
+                if(value == null) return ConfigPrimitive.NULL;
+                next = keys[i + 1] == null ? new ConfigList() : new ConfigSection();
+                put(current, i, next);
+            }
+            current = next;
+        }
+
+        return put(current, last, value);
+    }
+
+    @Nullable
+    private ConfigObject child(ConfigObject parent, int segment) {
+
+        String key = keys[segment];
+        if(key != null) {
+            return parent.isSection() ? parent.asSection().get(key) : null;
+        }
+
+        if(!parent.isList()) return null;
+        ConfigList list = parent.asList();
+        int index = indices[segment];
+        return index < list.size() ? list.get(index) : null;
+    }
+
+    private ConfigObject put(ConfigObject parent, int segment, @Nullable ConfigObject value) {
+
+        String key = keys[segment];
+        if(key != null) {
+            if(!parent.isSection()) throw new IllegalStateException("Expected a section before key " + key + " in path " + path + "!");
+            return parent.asSection().set(key, value);
+        }
+
+        int index = indices[segment];
+        if(!parent.isList()) throw new IllegalStateException("Expected a list before index " + index + " in path " + path + "!");
+        ConfigList list = parent.asList();
+
+        if(value == null) {
+            if(index >= list.size()) return ConfigPrimitive.NULL;
+            ConfigObject out = list.get(index);
+            list.remove(index);
+            return out;
+        }
+        if(index == list.size()) {
+            list.add(value);
+            return ConfigPrimitive.NULL;
+        }
+        return list.set(index, value);
+    }
+
+    private static ConfigPath compile(String path) {
+
+        if(path == null || path.isEmpty()) throw new IllegalArgumentException("Cannot parse an empty path!");
+
+        List<String> keys = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+
+        int i = 0;
+        while(i < path.length()) {
+
+            if(path.charAt(i) == '[') {
+
+                int end = path.indexOf(']', i);
+                if(end == -1) throw new IllegalArgumentException("Unterminated index in path " + path + "!");
+
+                int index;
+                try {
+                    index = Integer.parseInt(path.substring(i + 1, end));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid index in path " + path + "!", ex);
+                }
+                if(index < 0) throw new IllegalArgumentException("Negative index in path " + path + "!");
+
+                keys.add(null);
+                indices.add(index);
+                i = end + 1;
+
+                if(i < path.length() && path.charAt(i) != '.' && path.charAt(i) != '[') {
+                    throw new IllegalArgumentException("Unexpected character after index in path " + path + "!");
+                }
+
+            } else {
+
+                int end = i;
+                while(end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                if(end == i) throw new IllegalArgumentException("Empty key in path " + path + "!");
+
+                keys.add(path.substring(i, end));
+                indices.add(-1);
+                i = end;
+            }
+
+            if(i < path.length() && path.charAt(i) == '.') {
+                i++;
+                if(i == path.length()) throw new IllegalArgumentException("Empty key in path " + path + "!");
+            }
+        }
+
+        int[] indexArray = new int[indices.size()];
+        for(int j = 0 ; j < indexArray.length ; j++) {
+            indexArray[j] = indices.get(j);
+        }
+
+        return new ConfigPath(path, keys.toArray(new String[0]), indexArray);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return path.equals(((ConfigPath) o).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static final class CacheEntry {
+
+        private final ConfigPath value;
+        private volatile boolean referenced;
+
+        CacheEntry(ConfigPath value) {
+            this.value = value;
+        }
+    }
+
+}
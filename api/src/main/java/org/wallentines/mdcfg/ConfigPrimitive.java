@@ -44,6 +44,14 @@ public class ConfigPrimitive extends ConfigObject {
         this.value = value;
     }
 
+    /**
+     * Creates a number primitive which stores its value in an unboxed field, instead of in a Number object
+     */
+    private ConfigPrimitive() {
+        super(SerializeContext.Type.NUMBER);
+        this.value = null;
+    }
+
 
     /**
      * Retrieves the value of this primitive as a byte
@@ -173,24 +181,24 @@ public class ConfigPrimitive extends ConfigObject {
 
     @Override
     public boolean isNull() {
-        return value == null;
+        return type == SerializeContext.Type.NULL;
     }
 
     @Override
     public String asString() {
-        if(!isString()) throw new IllegalStateException("Cannot convert " + value + " to a String!");
+        if(!isString()) throw new IllegalStateException("Cannot convert " + getValue() + " to a String!");
         return (String) value;
     }
 
     @Override
     public Number asNumber() {
-        if(!isNumber()) throw new IllegalStateException("Cannot convert " + value + " to a Number!");
+        if(!isNumber()) throw new IllegalStateException("Cannot convert " + getValue() + " to a Number!");
         return (Number) value;
     }
 
     @Override
     public Boolean asBoolean() {
-        if(!isBoolean()) throw new IllegalStateException("Cannot convert " + value + " to a Boolean!");
+        if(!isBoolean()) throw new IllegalStateException("Cannot convert " + getValue() + " to a Boolean!");
         return (Boolean) value;
     }
 
@@ -205,32 +213,29 @@ public class ConfigPrimitive extends ConfigObject {
     @Override
     public String toString() {
         return "ConfigPrimitive{" +
-                "value=" + value +
+                "value=" + getValue() +
                 '}';
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof ConfigPrimitive)) return false;
 
         ConfigPrimitive that = (ConfigPrimitive) o;
         if(isNumber()) {
             if(!that.isNumber()) return false;
 
-            Number self = asNumber();
-            Number other = that.asNumber();
-
-            if(isInteger(self) && isInteger(other)) {
-                return self.longValue() == other.longValue();
+            if(isIntegral() && that.isIntegral()) {
+                return asLong() == that.asLong();
             }
 
-            double selfD = self.doubleValue();
-            double otherD = other.doubleValue();
-            return asNumber().doubleValue() == that.asNumber().doubleValue() || Double.isNaN(selfD) && Double.isNaN(otherD);
+            double selfD = asDouble();
+            double otherD = that.asDouble();
+            return selfD == otherD || Double.isNaN(selfD) && Double.isNaN(otherD);
         }
 
-        return Objects.equals(value, that.value);
+        return Objects.equals(getValue(), that.getValue());
     }
 
     @Override
@@ -238,6 +243,14 @@ public class ConfigPrimitive extends ConfigObject {
         return Objects.hash(value);
     }
 
+    /**
+     * Determines if this primitive holds a type of integer (long, int, short, etc.)
+     * @return Whether this primitive holds an integer
+     */
+    boolean isIntegral() {
+        return value instanceof Number && isInteger((Number) value);
+    }
+
     /**
      * Determines if a Number object is a type of integer (long, int, short, etc.)
      * @param number The number to check
@@ -275,6 +288,361 @@ public class ConfigPrimitive extends ConfigObject {
         return value == null ? NULL : new ConfigPrimitive(value);
     }
 
-    public static final ConfigPrimitive NULL = new ConfigPrimitive(SerializeContext.Type.NULL, null);
+    /**
+     * Gets a config primitive with the given value. The returned object may be a shared instance, which does not
+     * support meta properties
+     * @param value The String value
+     * @return A config primitive
+     * @throws IllegalArgumentException If the value is null
+     */
+    public static ConfigPrimitive of(String value) {
+        if(value != null && value.isEmpty()) return EMPTY_STRING;
+        return new ConfigPrimitive(value);
+    }
+
+    /**
+     * Gets a config primitive with the given value, stored without boxing. The returned object may be a shared
+     * instance, which does not support meta properties. Note that byte and short values passed here are widened, and
+     * will be read back as Integers
+     * @param value The int value
+     * @return A config primitive
+     */
+    public static ConfigPrimitive of(int value) {
+        if(value >= CACHE_LOW && value <= CACHE_HIGH) return INT_CACHE[value - CACHE_LOW];
+        return new IntValue(value);
+    }
+
+    /**
+     * Gets a config primitive with the given value, stored without boxing
+     * @param value The long value
+     * @return A config primitive
+     */
+    public static ConfigPrimitive of(long value) {
+        return new LongValue(value);
+    }
+
+    /**
+     * Gets a config primitive with the given value, stored without boxing
+     * @param value The double value
+     * @return A config primitive
+     */
+    public static ConfigPrimitive of(double value) {
+        return new DoubleValue(value);
+    }
+
+    /**
+     * Gets a config primitive with the given value. The returned object may be a shared instance, which does not
+     * support meta properties. Integers, Longs and Doubles are stored without boxing, and the returned primitive will
+     * always hold a Number of the same type as the given value
+     * @param value The Number value
+     * @return A config primitive
+     * @throws IllegalArgumentException If the value is null
+     */
+    public static ConfigPrimitive of(Number value) {
+        if(value instanceof Integer) return of(value.intValue());
+        if(value instanceof Long) return of(value.longValue());
+        if(value instanceof Double) return of(value.doubleValue());
+        return new ConfigPrimitive(value);
+    }
+
+    /**
+     * Gets a config primitive with the given value. The returned object is a shared instance, which does not
+     * support meta properties
+     * @param value The boolean value
+     * @return A config primitive
+     */
+    public static ConfigPrimitive of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    /**
+     * Gets a config primitive with the given value. The returned object is a shared instance, which does not
+     * support meta properties
+     * @param value The Boolean value
+     * @return A config primitive
+     * @throws IllegalArgumentException If the value is null
+     */
+    public static ConfigPrimitive of(Boolean value) {
+        if(value == null) throw new IllegalArgumentException("Cannot construct Config Primitive from null input!");
+        return of(value.booleanValue());
+    }
+
+    /**
+     * Creates a new config primitive with the given value. Unlike {@link #of(Number)}, the returned object is never a
+     * shared instance, so meta properties can be set on it. Integers, Longs and Doubles are stored without boxing
+     * @param value The Number value
+     * @return A new config primitive
+     * @throws IllegalArgumentException If the value is null
+     */
+    public static ConfigPrimitive unshared(Number value) {
+        if(value instanceof Integer) return unshared(value.intValue());
+        if(value instanceof Long) return new LongValue(value.longValue());
+        if(value instanceof Double) return new DoubleValue(value.doubleValue());
+        return new ConfigPrimitive(value);
+    }
+
+    /**
+     * Creates a new config primitive with the given value, stored without boxing. The returned object is never a
+     * shared instance
+     * @param value The int value
+     * @return A new config primitive
+     */
+    public static ConfigPrimitive unshared(int value) {
+        return new IntValue(value);
+    }
+
+    private static ConfigPrimitive shared(SerializeContext.Type type, Object value) {
+        ConfigPrimitive out = new ConfigPrimitive(type, value);
+        out.markShared();
+        return out;
+    }
+
+    public static final ConfigPrimitive NULL = shared(SerializeContext.Type.NULL, null);
+    public static final ConfigPrimitive TRUE = shared(SerializeContext.Type.BOOLEAN, true);
+    public static final ConfigPrimitive FALSE = shared(SerializeContext.Type.BOOLEAN, false);
+    public static final ConfigPrimitive EMPTY_STRING = shared(SerializeContext.Type.STRING, "");
+
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final ConfigPrimitive[] INT_CACHE = new ConfigPrimitive[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for(int i = 0 ; i < INT_CACHE.length ; i++) {
+            INT_CACHE[i] = new IntValue(i + CACHE_LOW);
+            INT_CACHE[i].markShared();
+        }
+    }
+
+
+    /**
+     * A number primitive backed by an unboxed int
+     */
+    private static final class IntValue extends ConfigPrimitive {
+
+        private final int value;
+
+        IntValue(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean isNumber() {
+            return true;
+        }
+
+        @Override
+        public Number asNumber() {
+            return value;
+        }
+
+        @Override
+        public byte asByte() {
+            return (byte) value;
+        }
+
+        @Override
+        public char asChar() {
+            return (char) value;
+        }
+
+        @Override
+        public short asShort() {
+            return (short) value;
+        }
+
+        @Override
+        public int asInt() {
+            return value;
+        }
+
+        @Override
+        public long asLong() {
+            return value;
+        }
+
+        @Override
+        public float asFloat() {
+            return value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Override
+        boolean isIntegral() {
+            return true;
+        }
+
+        @Override
+        public ConfigPrimitive copy() {
+            return new IntValue(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 + Integer.hashCode(value);
+        }
+    }
+
+    /**
+     * A number primitive backed by an unboxed long
+     */
+    private static final class LongValue extends ConfigPrimitive {
+
+        private final long value;
+
+        LongValue(long value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean isNumber() {
+            return true;
+        }
+
+        @Override
+        public Number asNumber() {
+            return value;
+        }
+
+        @Override
+        public byte asByte() {
+            return (byte) value;
+        }
+
+        @Override
+        public char asChar() {
+            return (char) value;
+        }
+
+        @Override
+        public short asShort() {
+            return (short) value;
+        }
+
+        @Override
+        public int asInt() {
+            return (int) value;
+        }
+
+        @Override
+        public long asLong() {
+            return value;
+        }
+
+        @Override
+        public float asFloat() {
+            return value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Override
+        boolean isIntegral() {
+            return true;
+        }
+
+        @Override
+        public ConfigPrimitive copy() {
+            return new LongValue(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 + Long.hashCode(value);
+        }
+    }
+
+    /**
+     * A number primitive backed by an unboxed double
+     */
+    private static final class DoubleValue extends ConfigPrimitive {
+
+        private final double value;
+
+        DoubleValue(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean isNumber() {
+            return true;
+        }
+
+        @Override
+        public Number asNumber() {
+            return value;
+        }
+
+        @Override
+        public byte asByte() {
+            return (byte) (int) value;
+        }
+
+        @Override
+        public char asChar() {
+            return (char) (int) value;
+        }
+
+        @Override
+        public short asShort() {
+            return (short) (int) value;
+        }
+
+        @Override
+        public int asInt() {
+            return (int) value;
+        }
+
+        @Override
+        public long asLong() {
+            return (long) value;
+        }
+
+        @Override
+        public float asFloat() {
+            return (float) value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Override
+        boolean isIntegral() {
+            return false;
+        }
+
+        @Override
+        public ConfigPrimitive copy() {
+            return new DoubleValue(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 + Double.hashCode(value);
+        }
+    }
 
 }
@@ -5,23 +5,29 @@ import org.jetbrains.annotations.Nullable;
 import org.wallentines.mdcfg.serializer.*;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
 @SuppressWarnings("unused")
 public class ConfigSection extends ConfigObject {
 
+    // Removed entries leave a null tombstone in values and orderedKeys, so removal does not need to shift and reindex
+    // every later key. Tombstones are compacted away once they make up a large enough portion of the section.
+    private static final int MIN_COMPACT_SIZE = 16;
+
     private final List<ConfigObject> values;
     private final List<String> orderedKeys;
     private final Map<String, Integer> indicesByKey;
+    private int tombstones;
 
 
-    private ConfigSection(Collection<ConfigObject> objects, Collection<String> orderedKeys, Map<String, Integer> indicesByKey) {
+    ConfigSection(List<ConfigObject> values, List<String> orderedKeys, Map<String, Integer> indicesByKey) {
         super(SerializeContext.Type.MAP);
-        this.values = List.copyOf(objects);
-        this.orderedKeys = List.copyOf(orderedKeys);
-        this.indicesByKey = Map.copyOf(indicesByKey);
+        this.values = values;
+        this.orderedKeys = orderedKeys;
+        this.indicesByKey = indicesByKey;
     }
 
     /**
@@ -123,7 +129,37 @@ public class ConfigSection extends ConfigObject {
      */
     public ConfigObject set(String key, Number value) {
         if(value == null) return remove(key);
-        return set(key, new ConfigPrimitive(value));
+        return set(key, ConfigPrimitive.unshared(value));
+    }
+
+    /**
+     * Associates a given int with the given key. The value is stored without boxing it into a Number
+     * @param key The key to associate the given int with
+     * @param value The int to put into the section.
+     * @return A reference to the previous object associated with the given key
+     */
+    public ConfigObject setInt(String key, int value) {
+        return set(key, ConfigPrimitive.unshared(value));
+    }
+
+    /**
+     * Associates a given long with the given key. The value is stored without boxing it into a Number
+     * @param key The key to associate the given long with
+     * @param value The long to put into the section.
+     * @return A reference to the previous object associated with the given key
+     */
+    public ConfigObject setLong(String key, long value) {
+        return set(key, ConfigPrimitive.of(value));
+    }
+
+    /**
+     * Associates a given double with the given key. The value is stored without boxing it into a Number
+     * @param key The key to associate the given double with
+     * @param value The double to put into the section.
+     * @return A reference to the previous object associated with the given key
+     */
+    public ConfigObject setDouble(String key, double value) {
+        return set(key, ConfigPrimitive.of(value));
     }
 
     /**
@@ -149,6 +185,50 @@ public class ConfigSection extends ConfigObject {
 
         return values.get(index);
     }
+    /**
+     * Gets a reference to the value at the given path, or ConfigPrimitive.NULL if not present. Paths are made of keys
+     * separated by dots, and list indices in square brackets, such as {@code a.b.c[3].d}
+     * @param path The path to lookup
+     * @return The value at the given path, or ConfigPrimitive.NULL
+     * @throws IllegalArgumentException If the path is malformed
+     */
+    public ConfigObject getPath(String path) {
+        return ConfigPath.parse(path).get(this);
+    }
+
+    /**
+     * Gets a reference to the value at the given path, or ConfigPrimitive.NULL if not present
+     * @param path The path to lookup
+     * @return The value at the given path, or ConfigPrimitive.NULL
+     */
+    public ConfigObject getPath(ConfigPath path) {
+        return path.get(this);
+    }
+
+    /**
+     * Associates the given value with the given path, creating any missing sections or lists along the way. Paths are
+     * made of keys separated by dots, and list indices in square brackets, such as {@code a.b.c[3].d}
+     * @param path The path to associate the given value with
+     * @param value The value to put at the path. If null, the value at the path will be removed instead
+     * @return A reference to the previous value at the path
+     * @throws IllegalArgumentException If the path is malformed
+     * @throws IllegalStateException If a value along the path is not a section or list as required by the path
+     */
+    public ConfigObject setPath(String path, @Nullable ConfigObject value) {
+        return ConfigPath.parse(path).set(this, value);
+    }
+
+    /**
+     * Associates the given value with the given path, creating any missing sections or lists along the way
+     * @param path The path to associate the given value with
+     * @param value The value to put at the path. If null, the value at the path will be removed instead
+     * @return A reference to the previous value at the path
+     * @throws IllegalStateException If a value along the path is not a section or list as required by the path
+     */
+    public ConfigObject setPath(ConfigPath path, @Nullable ConfigObject value) {
+        return path.set(this, value);
+    }
+
     /**
      * Gets a reference to the value associated with the given key
      * @param key The key to lookup
@@ -263,7 +343,7 @@ public class ConfigSection extends ConfigObject {
      * @throws IllegalStateException If the value associated with the key is not a Number
      */
     public byte getByte(String key) {
-        return getNumber(key).byteValue();
+        return get(key).asPrimitive().asByte();
     }
 
     /**
@@ -274,7 +354,7 @@ public class ConfigSection extends ConfigObject {
      * @throws IllegalStateException If the value associated with the key is not a Number
      */
     public short getShort(String key) {
-        return getNumber(key).shortValue();
+        return get(key).asPrimitive().asShort();
     }
 
     /**
@@ -285,7 +365,7 @@ public class ConfigSection extends ConfigObject {
      * @throws IllegalStateException If the value associated with the key is not a Number
      */
     public int getInt(String key) {
-        return getNumber(key).intValue();
+        return get(key).asPrimitive().asInt();
     }
 
     /**
@@ -296,7 +376,7 @@ public class ConfigSection extends ConfigObject {
      * @throws IllegalStateException If the value associated with the key is not a Number
      */
     public long getLong(String key) {
-        return getNumber(key).longValue();
+        return get(key).asPrimitive().asLong();
     }
 
     /**
@@ -307,7 +387,7 @@ public class ConfigSection extends ConfigObject {
      * @throws IllegalStateException If the value associated with the key is not a Number
      */
     public float getFloat(String key) {
-        return getNumber(key).floatValue();
+        return get(key).asPrimitive().asFloat();
     }
 
     /**
@@ -318,7 +398,7 @@ public class ConfigSection extends ConfigObject {
      * @throws IllegalStateException If the value associated with the key is not a Number
      */
     public double getDouble(String key) {
-        return getNumber(key).doubleValue();
+        return get(key).asPrimitive().asDouble();
     }
 
     /**
@@ -545,29 +625,66 @@ public class ConfigSection extends ConfigObject {
         Integer index = indicesByKey.get(key);
         if(index == null) return ConfigPrimitive.NULL;
 
-        // Remove object
-        ConfigObject out = values.remove(index.intValue()); // Explicitly cast to a primitive int so remove-by-index is used
-        orderedKeys.remove(index.intValue());
-
         indicesByKey.remove(key);
 
-        // Fix other keys
-        for(String otherKey : indicesByKey.keySet()) {
-            int otherIndex = indicesByKey.get(otherKey);
-            if(otherIndex > index) {
-                indicesByKey.put(otherKey, otherIndex - 1);
+        ConfigObject out;
+        if(index == values.size() - 1) {
+
+            // Removing the last entry does not require shifting anything
+            out = values.remove(index.intValue()); // Explicitly cast to a primitive int so remove-by-index is used
+            orderedKeys.remove(index.intValue());
+
+            // Drop any tombstones which are now at the end
+            while(!orderedKeys.isEmpty() && orderedKeys.get(orderedKeys.size() - 1) == null) {
+                orderedKeys.remove(orderedKeys.size() - 1);
+                values.remove(values.size() - 1);
+                tombstones--;
+            }
+
+        } else {
+
+            // Leave a tombstone, and compact later
+            out = values.set(index, null);
+            orderedKeys.set(index, null);
+            tombstones++;
+
+            if(tombstones >= MIN_COMPACT_SIZE && tombstones * 2 >= values.size()) {
+                compact();
             }
         }
 
         return out;
     }
 
+    /**
+     * Removes all tombstones left by removed entries, and updates the indices of the entries after them
+     */
+    private void compact() {
+
+        int next = 0;
+        for(int i = 0 ; i < values.size() ; i++) {
+            String key = orderedKeys.get(i);
+            if(key == null) continue;
+
+            if(i != next) {
+                orderedKeys.set(next, key);
+                values.set(next, values.get(i));
+                indicesByKey.put(key, next);
+            }
+            next++;
+        }
+
+        orderedKeys.subList(next, orderedKeys.size()).clear();
+        values.subList(next, values.size()).clear();
+        tombstones = 0;
+    }
+
     /**
      * Copies all values from the other section if they do not exist in this section
      * @param other The section to copy from
      */
     public void fill(ConfigSection other) {
-        for(String key : other.orderedKeys) {
+        for(String key : other.getKeys()) {
             if(!has(key)) {
                 set(key, other.getOrThrow(key).copy());
             } else if(hasSection(key) && other.hasSection(key)) {
@@ -581,7 +698,7 @@ public class ConfigSection extends ConfigObject {
      * @param other The section to copy from
      */
     public void fillOverwrite(ConfigSection other) {
-        for(String key : other.orderedKeys) {
+        for(String key : other.getKeys()) {
             set(key, other.getOrThrow(key).copy());
         }
     }
@@ -592,7 +709,7 @@ public class ConfigSection extends ConfigObject {
      */
     public int size() {
 
-        return values.size();
+        return values.size() - tombstones;
     }
 
     /**
@@ -600,7 +717,69 @@ public class ConfigSection extends ConfigObject {
      * @return The keys in the section
      */
     public Collection<String> getKeys() {
-        return List.copyOf(orderedKeys);
+        if(tombstones == 0) return List.copyOf(orderedKeys);
+
+        List<String> out = new ArrayList<>(size());
+        for(String key : orderedKeys) {
+            if(key != null) out.add(key);
+        }
+        return out;
+    }
+
+    /**
+     * Calls the given consumer for each key-value pair in the section, in order. Unlike stream(), this does not
+     * allocate anything per entry
+     * @param consumer The consumer to call for each entry
+     */
+    public void forEach(BiConsumer<String, ConfigObject> consumer) {
+        forEachEntry(consumer::accept);
+    }
+
+    /**
+     * Calls the given consumer for each key-value pair in the section, in order. The consumer may throw a checked
+     * exception, which will be passed on to the caller
+     * @param consumer The consumer to call for each entry
+     * @param <E> The type of exception the consumer may throw
+     * @throws E If the consumer throws an exception
+     */
+    public <E extends Exception> void forEachEntry(SerializeContext.EntryConsumer<ConfigObject, E> consumer) throws E {
+        for(int i = 0 ; i < values.size() ; i++) {
+            String key = orderedKeys.get(i);
+            if(key != null) consumer.accept(key, values.get(i));
+        }
+    }
+
+    /**
+     * Gets the key at the given position in the section
+     * @param index The position of the entry, between 0 and size()
+     * @return The key of the entry at the given position
+     * @throws IndexOutOfBoundsException If there is no entry at the given position
+     */
+    public String keyAt(int index) {
+        return orderedKeys.get(position(index));
+    }
+
+    /**
+     * Gets the value at the given position in the section
+     * @param index The position of the entry, between 0 and size()
+     * @return The value of the entry at the given position
+     * @throws IndexOutOfBoundsException If there is no entry at the given position
+     */
+    public ConfigObject valueAt(int index) {
+        return values.get(position(index));
+    }
+
+    // Finds the slot of the entry at the given position by skipping tombstones. This does not compact the section, so
+    // reading entries by position never modifies it
+    private int position(int index) {
+        if(tombstones == 0) return index;
+        if(index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+
+        int remaining = index;
+        for(int i = 0 ; i < orderedKeys.size() ; i++) {
+            if(orderedKeys.get(i) != null && remaining-- == 0) return i;
+        }
+        throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
     }
 
     /**
@@ -680,7 +859,7 @@ public class ConfigSection extends ConfigObject {
      */
     public Stream<Tuples.T2<String, ConfigObject>> stream() {
 
-        return orderedKeys.stream().map(key -> new Tuples.T2<>(key, get(key)));
+        return orderedKeys.stream().filter(Objects::nonNull).map(key -> new Tuples.T2<>(key, get(key)));
     }
 
     @Override
@@ -688,6 +867,7 @@ public class ConfigSection extends ConfigObject {
 
         ConfigSection out = new ConfigSection();
         for(String key : orderedKeys) {
+            if(key == null) continue;
             out.set(key, getOrThrow(key).copy());
         }
         return out;
@@ -738,8 +918,15 @@ public class ConfigSection extends ConfigObject {
         throw new IllegalStateException("Cannot convert a section to a blob!");
     }
 
+    /**
+     * Gets an immutable snapshot of this section. Values are stored in persistent structures, so modified versions of
+     * the returned section can be made using with() without copying the entire tree. Sections and lists which are
+     * already frozen are reused rather than copied.
+     * @return An immutable snapshot of this section
+     */
+    @Override
     public ConfigSection freeze() {
-        return new Frozen(this);
+        return Frozen.of(this);
     }
 
     @Override
@@ -756,10 +943,10 @@ public class ConfigSection extends ConfigObject {
 
         ConfigSection otherSection = (ConfigSection) other;
 
-        if(values.size() != otherSection.values.size()) return false;
-        if(orderedKeys.size() != otherSection.orderedKeys.size()) return false;
+        if(size() != otherSection.size()) return false;
 
         for(String key : orderedKeys) {
+            if(key == null) continue;
             ConfigObject obj = get(key);
             ConfigObject otherObj = otherSection.get(key);
 
@@ -787,6 +974,37 @@ public class ConfigSection extends ConfigObject {
         return sec;
     }
 
+    /**
+     * Creates a builder for a ConfigSection with storage sized for the given number of entries
+     * @param expectedSize The number of entries which will be added
+     * @return A new builder
+     */
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * Creates a ConfigSection with the given keys, whose values are only loaded when they are first accessed. Each
+     * value is loaded at most once, then cached. Loading happens on read, so the section must not be read by multiple
+     * threads at once until it is frozen
+     * @param keys The keys of the section, in order
+     * @param loader A function which loads the value for the key at the given index. Must not return null
+     * @return A new ConfigSection
+     * @throws IllegalArgumentException If any of the keys are null or repeated
+     */
+    public static ConfigSection lazy(List<String> keys, IntFunction<ConfigObject> loader) {
+
+        List<String> orderedKeys = new ArrayList<>(keys);
+        Map<String, Integer> indicesByKey = new HashMap<>();
+        for(int i = 0 ; i < orderedKeys.size() ; i++) {
+            String key = orderedKeys.get(i);
+            if(key == null) throw new IllegalArgumentException("Unable to add null key to a section!");
+            if(indicesByKey.put(key, i) != null) throw new IllegalArgumentException("Found repeated key " + key + "!");
+        }
+
+        return new ConfigSection(new LazyValueList(orderedKeys.size(), loader), orderedKeys, indicesByKey);
+    }
+
     public static final Serializer<ConfigSection> SERIALIZER = new Serializer<>() {
         @Override
         public <O> SerializeResult<O> serialize(SerializeContext<O> context, ConfigSection value) {
@@ -803,14 +1021,114 @@ public class ConfigSection extends ConfigObject {
 
 
     /**
-     * An immutable ConfigSection
+     * Builds a ConfigSection with storage sized for a known number of entries. The built section adopts the builder's
+     * storage without copying it, so each builder can only build one section
+     */
+    public static class Builder {
+
+        private List<ConfigObject> values;
+        private List<String> orderedKeys;
+        private Map<String, Integer> indicesByKey;
+
+        private Builder(int expectedSize) {
+            this.values = new ArrayList<>(expectedSize);
+            this.orderedKeys = new ArrayList<>(expectedSize);
+            this.indicesByKey = new HashMap<>((int) (expectedSize / 0.75f) + 1);
+        }
+
+        /**
+         * Associates the given value with the given key, overwriting any existing value if necessary
+         * @param key The key to associate the given value with
+         * @param value The value to put into the section. If null, nothing will be added
+         * @return A reference to self
+         * @throws IllegalStateException If the section has already been built
+         */
+        public Builder add(String key, @Nullable ConfigObject value) {
+            if(values == null) throw new IllegalStateException("ConfigSection has already been built!");
+            if(key == null || value == null) return this;
+
+            Integer index = indicesByKey.get(key);
+            if(index == null) {
+                indicesByKey.put(key, values.size());
+                orderedKeys.add(key);
+                values.add(value);
+            } else {
+                values.set(index, value);
+            }
+            return this;
+        }
+
+        /**
+         * Builds the section
+         * @return A new ConfigSection containing the added entries
+         * @throws IllegalStateException If the section has already been built
+         */
+        public ConfigSection build() {
+            if(values == null) throw new IllegalStateException("ConfigSection has already been built!");
+            ConfigSection out = new ConfigSection(values, orderedKeys, indicesByKey);
+            values = null;
+            orderedKeys = null;
+            indicesByKey = null;
+            return out;
+        }
+    }
+
+    /**
+     * An immutable ConfigSection. Calling with() on a frozen section returns a new frozen section which shares
+     * structure with the original, so updates take O(log n) time and the original is left unchanged.
      */
     private static class Frozen extends ConfigSection {
 
         static UnsupportedOperationException exception() { return new UnsupportedOperationException("ConfigSection is frozen!"); }
 
-        private Frozen(ConfigSection section) {
-            super(section.values.stream().map(ConfigObject::freeze).collect(Collectors.toList()), section.orderedKeys, section.indicesByKey);
+        private final PersistentVector<ConfigObject> entries;
+        private final PersistentVector<String> keys;
+        private final PersistentMap<String, Integer> indices;
+
+        private Frozen(PersistentVector<ConfigObject> entries, PersistentVector<String> keys, PersistentMap<String, Integer> indices) {
+            super(entries, keys, indices);
+            this.entries = entries;
+            this.keys = keys;
+            this.indices = indices;
+        }
+
+        // Each empty frozen section is a new object, since meta properties can still be set on frozen sections
+        static Frozen empty() {
+            return new Frozen(PersistentVector.empty(), PersistentVector.empty(), PersistentMap.empty());
+        }
+
+        static Frozen of(ConfigSection section) {
+            Frozen out = empty();
+            for(String key : section.orderedKeys) {
+                if(key == null) continue;
+                out = out.append(key, section.get(key).freeze());
+            }
+            return out;
+        }
+
+        private Frozen append(String key, ConfigObject value) {
+            return new Frozen(entries.plus(value), keys.plus(key), indices.plus(key, keys.size()));
+        }
+
+        private Frozen without(String key) {
+            Integer index = indices.get(key);
+            if(index == null) return this;
+
+            Frozen out = empty();
+            for(int i = 0 ; i < keys.size() ; i++) {
+                if(i != index) out = out.append(keys.get(i), entries.get(i));
+            }
+            return out;
+        }
+
+        @Override
+        public ConfigSection freeze() {
+            return this;
+        }
+
+        @Override
+        public Collection<String> getKeys() {
+            return keys;
         }
 
         @Override
@@ -823,6 +1141,11 @@ public class ConfigSection extends ConfigObject {
             throw exception();
         }
 
+        @Override
+        public <T, O> ConfigObject set(String key, T value, ForwardSerializer<T> serializer, SerializeContext<O> context) {
+            throw exception();
+        }
+
         @Override
         public ConfigObject set(String key, String value) {
             throw exception();
@@ -833,6 +1156,21 @@ public class ConfigSection extends ConfigObject {
             throw exception();
         }
 
+        @Override
+        public ConfigObject setInt(String key, int value) {
+            throw exception();
+        }
+
+        @Override
+        public ConfigObject setLong(String key, long value) {
+            throw exception();
+        }
+
+        @Override
+        public ConfigObject setDouble(String key, double value) {
+            throw exception();
+        }
+
         @Override
         public ConfigObject set(String key, Boolean value) {
             throw exception();
@@ -855,27 +1193,41 @@ public class ConfigSection extends ConfigObject {
 
         @Override
         public ConfigSection with(String key, ConfigObject value) {
-            return copy().with(key, value);
+
+            if(key == null) return this;
+            if(value == null) return without(key);
+
+            Integer index = indices.get(key);
+            if(index == null) return append(key, value.freeze());
+
+            return new Frozen(entries.with(index, value.freeze()), keys, indices);
         }
 
         @Override
         public <T> ConfigSection with(String key, T value, Serializer<T> serializer) {
-            return copy().with(key, value, serializer);
+            if(value == null) return without(key);
+            return with(key, serializer.serialize(ConfigContext.INSTANCE, value).getOrThrow());
+        }
+
+        @Override
+        public <T, O> ConfigSection with(String key, T value, Serializer<T> serializer, SerializeContext<O> context) {
+            if(value == null) return without(key);
+            return with(key, context.convert(ConfigContext.INSTANCE, serializer.serialize(context, value).getOrThrow()));
         }
 
         @Override
         public ConfigSection with(String key, String value) {
-            return copy().with(key, value);
+            return with(key, value == null ? null : new ConfigPrimitive(value));
         }
 
         @Override
         public ConfigSection with(String key, Number value) {
-            return copy().with(key, value);
+            return with(key, value == null ? null : ConfigPrimitive.unshared(value));
         }
 
         @Override
         public ConfigSection with(String key, Boolean value) {
-            return copy().with(key, value);
+            return with(key, value == null ? null : new ConfigPrimitive(value));
         }
     }
 
@@ -0,0 +1,114 @@
+package org.wallentines.mdcfg;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * A list of ConfigObjects which loads each of its initial values the first time it is accessed, then caches it. Values
+ * which are added or replaced later are stored directly. Like the lists backing other sections and lists, it may be
+ * read from multiple threads at once, as long as no thread is modifying it. If two threads load the same value at
+ * once, both see the value which was stored first
+ */
+class LazyValueList extends AbstractList<ConfigObject> implements RandomAccess {
+
+    private final IntFunction<ConfigObject> loader;
+
+    // The index to pass to the loader for each value which has not been loaded yet, or -1 if the value was stored
+    // directly. Only changed when the list is modified, so it does not need to be read atomically
+    private int[] sources;
+
+    // Loaded or stored values. A null value has not been loaded yet, unless its source is -1
+    private AtomicReferenceArray<ConfigObject> values;
+    private int size;
+
+    LazyValueList(int size, IntFunction<ConfigObject> loader) {
+        this.loader = loader;
+        this.sources = new int[Math.max(size, 4)];
+        this.values = new AtomicReferenceArray<>(sources.length);
+        this.size = size;
+        for(int i = 0 ; i < size ; i++) {
+            sources[i] = i;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+    @Override
+    public ConfigObject get(int index) {
+        checkIndex(index);
+        ConfigObject value = values.get(index);
+        if(value != null) {
+            return value;
+        }
+
+        int source = sources[index];
+        if(source == -1) {
+            return null;
+        }
+
+        ConfigObject out = loader.apply(source);
+        if(out == null) {
+            throw new IllegalStateException("Unable to load value at index " + source + "!");
+        }
+        if(values.compareAndSet(index, null, out)) {
+            return out;
+        }
+        return values.get(index);
+    }
+
+    @Override
+    public ConfigObject set(int index, ConfigObject element) {
+        ConfigObject out = get(index);
+        values.set(index, element);
+        sources[index] = -1;
+        return out;
+    }
+
+    @Override
+    public void add(int index, ConfigObject element) {
+        if(index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        if(size == sources.length) {
+            AtomicReferenceArray<ConfigObject> grown = new AtomicReferenceArray<>(size * 2);
+            for(int i = 0 ; i < size ; i++) {
+                grown.lazySet(i, values.get(i));
+            }
+            values = grown;
+            sources = Arrays.copyOf(sources, size * 2);
+        }
+        for(int i = size ; i > index ; i--) {
+            values.lazySet(i, values.get(i - 1));
+        }
+        System.arraycopy(sources, index, sources, index + 1, size - index);
+        values.set(index, element);
+        sources[index] = -1;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public ConfigObject remove(int index) {
+        ConfigObject out = get(index);
+        for(int i = index ; i < size - 1 ; i++) {
+            values.lazySet(i, values.get(i + 1));
+        }
+        System.arraycopy(sources, index + 1, sources, index, size - index - 1);
+        size--;
+        values.set(size, null);
+        modCount++;
+        return out;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,293 @@
+package org.wallentines.mdcfg;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * An immutable hash map which shares structure with the maps it was derived from. Entries are stored in a hash array
+ * mapped trie, so adding or replacing an entry only copies the nodes along the path to it, taking O(log n) time.
+ * Keys must not be null.
+ * @param <K> The type of keys in the map
+ * @param <V> The type of values in the map
+ */
+final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(new Node(0, new Object[0]), 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && root.find(key, key.hashCode(), 0) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if(key == null) return null;
+        Object[] entry = root.find(key, key.hashCode(), 0);
+        return entry == null ? null : (V) entry[1];
+    }
+
+    /**
+     * Creates a new map with the given key associated with the given value
+     * @param key The key
+     * @param value The value
+     * @return A new map
+     */
+    PersistentMap<K, V> plus(K key, V value) {
+        Objects.requireNonNull(key);
+        boolean[] added = new boolean[1];
+        Node newRoot = root.plus(key, key.hashCode(), value, 0, added);
+        if(newRoot == root) return this;
+        return new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Creates a new map without the given key
+     * @param key The key to remove
+     * @return A new map
+     */
+    PersistentMap<K, V> minus(Object key) {
+        if(key == null) return this;
+        Node newRoot = root.minus(key, key.hashCode(), 0);
+        if(newRoot == root) return this;
+        if(newRoot == null) return empty();
+        return new PersistentMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    public @NotNull Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public @NotNull Iterator<Entry<K, V>> iterator() {
+                List<Entry<K, V>> out = new ArrayList<>(size);
+                root.collect(out);
+                return Collections.unmodifiableList(out).iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * A trie node. Each slot in a node holds either a [key, value] entry or a child node, and a bitmap records which of
+     * the 32 possible hash fragments are present. Keys whose hashes fully collide share an entry slot holding a
+     * collision list.
+     */
+    private static final class Node {
+
+        private final int bitmap;
+        private final Object[] slots;
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        Object[] find(Object key, int hash, int shift) {
+
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if((bitmap & bit) == 0) return null;
+
+            Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            if(slot instanceof Node) {
+                return ((Node) slot).find(key, hash, shift + BITS);
+            }
+            if(slot instanceof Collision) {
+                return ((Collision) slot).find(key);
+            }
+
+            Object[] entry = (Object[]) slot;
+            return key.equals(entry[0]) ? entry : null;
+        }
+
+        Node plus(Object key, int hash, Object value, int shift, boolean[] added) {
+
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+
+            if((bitmap & bit) == 0) {
+
+                // Empty slot
+                Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                newSlots[index] = new Object[] { key, value };
+                System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+                added[0] = true;
+                return new Node(bitmap | bit, newSlots);
+            }
+
+            Object slot = slots[index];
+            Object newSlot;
+            if(slot instanceof Node) {
+                Node child = (Node) slot;
+                Node newChild = child.plus(key, hash, value, shift + BITS, added);
+                if(newChild == child) return this;
+                newSlot = newChild;
+
+            } else if(slot instanceof Collision) {
+                newSlot = ((Collision) slot).plus(key, value, added);
+
+            } else {
+                Object[] entry = (Object[]) slot;
+                if(key.equals(entry[0])) {
+                    if(entry[1] == value) return this;
+                    newSlot = new Object[] { key, value };
+                } else {
+                    added[0] = true;
+                    newSlot = split(entry, key, hash, value, shift + BITS);
+                }
+            }
+
+            Object[] newSlots = slots.clone();
+            newSlots[index] = newSlot;
+            return new Node(bitmap, newSlots);
+        }
+
+        /**
+         * Removes the given key from this node
+         * @return This node if the key was not found, a new node without the key, or null if the new node is empty
+         */
+        Node minus(Object key, int hash, int shift) {
+
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if((bitmap & bit) == 0) return this;
+
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object slot = slots[index];
+            Object newSlot;
+            if(slot instanceof Node) {
+                Node child = (Node) slot;
+                Node newChild = child.minus(key, hash, shift + BITS);
+                if(newChild == child) return this;
+                newSlot = newChild;
+
+            } else if(slot instanceof Collision) {
+                newSlot = ((Collision) slot).minus(key);
+                if(newSlot == slot) return this;
+
+            } else {
+                if(!key.equals(((Object[]) slot)[0])) return this;
+                newSlot = null;
+            }
+
+            if(newSlot != null) {
+                Object[] newSlots = slots.clone();
+                newSlots[index] = newSlot;
+                return new Node(bitmap, newSlots);
+            }
+
+            if(slots.length == 1) return null;
+
+            Object[] newSlots = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            System.arraycopy(slots, index + 1, newSlots, index, newSlots.length - index);
+            return new Node(bitmap & ~bit, newSlots);
+        }
+
+        private static Object split(Object[] entry, Object key, int hash, Object value, int shift) {
+
+            int otherHash = entry[0].hashCode();
+            if(otherHash == hash) {
+                return new Collision(new Object[][] { entry, { key, value } });
+            }
+
+            // Push both entries down until their hash fragments differ
+            Node out = new Node(0, new Object[0]);
+            out = out.plus(entry[0], otherHash, entry[1], shift, new boolean[1]);
+            return out.plus(key, hash, value, shift, new boolean[1]);
+        }
+
+        @SuppressWarnings("unchecked")
+        <K, V> void collect(List<Entry<K, V>> out) {
+            for(Object slot : slots) {
+                if(slot instanceof Node) {
+                    ((Node) slot).collect(out);
+                } else if(slot instanceof Collision) {
+                    for(Object[] entry : ((Collision) slot).entries) {
+                        out.add(new SimpleImmutableEntry<>((K) entry[0], (V) entry[1]));
+                    }
+                } else {
+                    Object[] entry = (Object[]) slot;
+                    out.add(new SimpleImmutableEntry<>((K) entry[0], (V) entry[1]));
+                }
+            }
+        }
+    }
+
+    /**
+     * A list of entries whose keys have identical hashes
+     */
+    private static final class Collision {
+
+        private final Object[][] entries;
+
+        Collision(Object[][] entries) {
+            this.entries = entries;
+        }
+
+        Object[] find(Object key) {
+            for(Object[] entry : entries) {
+                if(key.equals(entry[0])) return entry;
+            }
+            return null;
+        }
+
+        Collision plus(Object key, Object value, boolean[] added) {
+            for(int i = 0 ; i < entries.length ; i++) {
+                if(key.equals(entries[i][0])) {
+                    Object[][] newEntries = entries.clone();
+                    newEntries[i] = new Object[] { key, value };
+                    return new Collision(newEntries);
+                }
+            }
+            Object[][] newEntries = Arrays.copyOf(entries, entries.length + 1);
+            newEntries[entries.length] = new Object[] { key, value };
+            added[0] = true;
+            return new Collision(newEntries);
+        }
+
+        /**
+         * Removes the given key from this collision list
+         * @return This list if the key was not found, the remaining entry if only one is left, or a new list
+         */
+        Object minus(Object key) {
+            for(int i = 0 ; i < entries.length ; i++) {
+                if(key.equals(entries[i][0])) {
+                    if(entries.length == 2) return entries[1 - i];
+
+                    Object[][] newEntries = new Object[entries.length - 1][];
+                    System.arraycopy(entries, 0, newEntries, 0, i);
+                    System.arraycopy(entries, i + 1, newEntries, i, newEntries.length - i);
+                    return new Collision(newEntries);
+                }
+            }
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package org.wallentines.mdcfg;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list which shares structure with the lists it was derived from. Values are stored in a 32-way trie,
+ * with the last (up to) 32 values kept in a separate tail array, so appending and replacing values only copies the
+ * path to the changed value, taking O(log n) time.
+ * @param <T> The type of values in the list
+ */
+final class PersistentVector<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Object[] EMPTY_NODE = new Object[0];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, EMPTY_NODE);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    static <T> PersistentVector<T> of(Collection<? extends T> values) {
+        PersistentVector<T> out = empty();
+        for(T value : values) {
+            out = out.plus(value);
+        }
+        return out;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) leaf(index)[index & MASK];
+    }
+
+    /**
+     * Creates a new list with the given value added to the end
+     * @param value The value to add
+     * @return A new list
+     */
+    PersistentVector<T> plus(T value) {
+
+        int tailSize = size - tailOffset();
+        if(tailSize < WIDTH) {
+            Object[] newTail = new Object[tailSize + 1];
+            System.arraycopy(tail, 0, newTail, 0, tailSize);
+            newTail[tailSize] = value;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+
+        // The tail is full, so push it into the trie
+        Object[] newRoot;
+        int newShift = shift;
+        if((size >>> BITS) > (1 << shift)) {
+
+            // The trie is full, so add a level
+            newRoot = new Object[] { root, newPath(shift, tail) };
+            newShift += BITS;
+
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] { value });
+    }
+
+    /**
+     * Creates a new list with the value at the given index replaced
+     * @param index The index of the value to replace
+     * @param value The new value
+     * @return A new list
+     * @throws IndexOutOfBoundsException If the index is out of bounds
+     */
+    PersistentVector<T> with(int index, T value) {
+
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+
+        if(index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = value;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, assoc(shift, root, index, value), tail);
+    }
+
+    private int tailOffset() {
+        if(size < WIDTH) return 0;
+        return ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] leaf(int index) {
+
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        if(index >= tailOffset()) return tail;
+
+        Object[] node = root;
+        for(int level = shift ; level > 0 ; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+
+        int subIndex = ((size - 1) >>> level) & MASK;
+        Object[] out = new Object[subIndex + 1];
+        System.arraycopy(parent, 0, out, 0, Math.min(parent.length, subIndex + 1));
+
+        Object[] insert;
+        if(level == BITS) {
+            insert = tailNode;
+        } else if(subIndex < parent.length && parent[subIndex] != null) {
+            insert = pushTail(level - BITS, (Object[]) parent[subIndex], tailNode);
+        } else {
+            insert = newPath(level - BITS, tailNode);
+        }
+
+        out[subIndex] = insert;
+        return out;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if(level == 0) return node;
+        return new Object[] { newPath(level - BITS, node) };
+    }
+
+    private static Object[] assoc(int level, Object[] node, int index, Object value) {
+
+        Object[] out = node.clone();
+        if(level == 0) {
+            out[index & MASK] = value;
+        } else {
+            int subIndex = (index >>> level) & MASK;
+            out[subIndex] = assoc(level - BITS, (Object[]) node[subIndex], index, value);
+        }
+        return out;
+    }
+
+}
@@ -1,9 +1,11 @@
 package org.wallentines.mdcfg.codec;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.wallentines.mdcfg.serializer.SerializeContext;
 import org.wallentines.mdcfg.serializer.SerializeResult;
 import org.wallentines.mdcfg.serializer.Serializer;
+import org.wallentines.mdcfg.serializer.ValueReader;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -64,7 +66,7 @@ public interface Decoder {
     default <T, O> SerializeResult<O> decode(@NotNull SerializeContext<T> context, @NotNull Serializer<O> serializer, @NotNull String string) throws DecodeException {
 
         try {
-            return serializer.deserialize(context, decode(context, new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8))));
+            return decode(context, serializer, new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8)));
         } catch (IOException ex) {
             throw new DecodeException("An IOException occurred while decoding a String! " + ex.getMessage());
         }
@@ -82,7 +84,46 @@ public interface Decoder {
      */
     default <T, O> SerializeResult<O> decode(SerializeContext<T> context, Serializer<O> serializer, InputStream stream) throws DecodeException, IOException {
 
-        return serializer.deserialize(context, decode(context, stream));
+        return decode(context, serializer, stream, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a value from the given stream using the given charset and context, then deserializes it with the given
+     * serializer. If this decoder supports streaming, the serializer reads values straight from the stream as they are
+     * decoded, so values which it does not need are skipped rather than decoded
+     * @param context The context by which to decode
+     * @param serializer The serializer by which to deserialize the decoded data
+     * @param stream The encoded, serialized data to decode
+     * @param charset The charset to decode data from
+     * @return The result of deserialization
+     * @param <T> The type of values to decode
+     * @param <O> The type of data to deserialize to
+     * @throws DecodeException if decoding fails
+     * @throws IOException If reading from the stream fails
+     */
+    default <T, O> SerializeResult<O> decode(@NotNull SerializeContext<T> context, @NotNull Serializer<O> serializer, @NotNull InputStream stream, @NotNull Charset charset) throws DecodeException, IOException {
+
+        ValueReader reader = createReader(stream, charset);
+        if(reader == null) {
+            return serializer.deserialize(context, decode(context, stream, charset));
+        }
+
+        try(ValueReader r = reader) {
+            return serializer.read(context, r);
+        }
+    }
+
+    /**
+     * Creates a reader which decodes values from the given stream only as they are read. Closing the reader closes the
+     * stream
+     * @param stream The stream to read input from
+     * @param charset The charset to decode data from
+     * @return A new reader, or null if this decoder does not support streaming
+     * @throws IOException If reading from the stream fails
+     */
+    @Nullable
+    default ValueReader createReader(@NotNull InputStream stream, Charset charset) throws IOException {
+        return null;
     }
 
 }
@@ -1,8 +1,10 @@
 package org.wallentines.mdcfg.codec;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.wallentines.mdcfg.serializer.SerializeContext;
 import org.wallentines.mdcfg.serializer.Serializer;
+import org.wallentines.mdcfg.serializer.ValueWriter;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -49,11 +51,14 @@ public interface Encoder {
      */
     default <T, O> void encode(@NotNull SerializeContext<T> context, @NotNull Serializer<O> serializer, O data, @NotNull OutputStream stream) throws EncodeException, IOException {
 
-        encode(context, serializer.serialize(context, data).getOrThrow(), stream, StandardCharsets.UTF_8);
+        encode(context, serializer, data, stream, StandardCharsets.UTF_8);
     }
 
     /**
-     * Serializes a value, then encodes the given value to the given output stream using the given charset and context
+     * Serializes a value, then encodes the given value to the given output stream using the given charset and context.
+     * If this encoder supports streaming, the value is serialized straight to an encoded buffer, without creating an
+     * intermediate encode-able object. The buffer is only written to the stream once serialization succeeds, so
+     * nothing is written if it fails
      * @param context The context by which to encode
      * @param serializer The serializer by which to serialize the value
      * @param data The value to encode
@@ -66,7 +71,31 @@ public interface Encoder {
      */
     default <T, O> void encode(@NotNull SerializeContext<T> context, @NotNull Serializer<O> serializer, O data, @NotNull OutputStream stream, @NotNull Charset charset) throws EncodeException, IOException {
 
-        encode(context, serializer.serialize(context, data).getOrThrow(), stream, charset);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ValueWriter writer = createWriter(buffer, charset);
+        if(writer == null) {
+            encode(context, serializer.serialize(context, data).getOrThrow(), stream, charset);
+            return;
+        }
+
+        try(ValueWriter w = writer) {
+            serializer.write(context, data, w).getOrThrow();
+        }
+        buffer.writeTo(stream);
+        stream.flush();
+    }
+
+    /**
+     * Creates a writer which encodes values to the given stream as soon as they are written. Closing the writer closes
+     * the stream
+     * @param stream The stream to write output to
+     * @param charset The charset to encode data with
+     * @return A new writer, or null if this encoder does not support streaming
+     * @throws IOException If writing to the stream fails
+     */
+    @Nullable
+    default ValueWriter createWriter(@NotNull OutputStream stream, Charset charset) throws IOException {
+        return null;
     }
 
     /**
@@ -88,5 +117,26 @@ public interface Encoder {
         }
     }
 
+    /**
+     * Serializes a value, then encodes it to a string according to the given context
+     * @param context The context by which to encode data
+     * @param serializer The serializer by which to serialize the value
+     * @param data The value to encode
+     * @return The value encoded as a String
+     * @param <T> The type of values to encode
+     * @param <O> The type of data to serialize from
+     * @throws EncodeException If encoding fails
+     */
+    default <T, O> String encodeToString(SerializeContext<T> context, Serializer<O> serializer, O data) throws EncodeException {
+
+        try(ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            encode(context, serializer, data, os, StandardCharsets.UTF_8);
+
+            return os.toString(StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new EncodeException("An IOException occurred while encoding data to a String! " + ex.getMessage());
+        }
+    }
+
 
 }
@@ -1,5 +1,6 @@
 package org.wallentines.mdcfg.serializer;
 
+import java.io.IOException;
 import java.util.function.Function;
 
 public interface BackSerializer<T> {
@@ -13,6 +14,21 @@ public interface BackSerializer<T> {
      */
     <O> SerializeResult<T> deserialize(SerializeContext<O> context, O value);
 
+    /**
+     * Deserializes an object with type T straight from the given reader. By default, the next value is read as an
+     * entire object using the given context, then deserialized. Serializers for lists, maps, and objects override this
+     * to read their contents one at a time, so values which are not needed are skipped rather than decoded. If
+     * deserialization fails part way through, the reader is left wherever the failure occurred
+     * @param context The context to use for context values, and for serializers which do not support streaming
+     * @param reader The reader to read the serialized value from
+     * @return A SerializeResult containing the deserialized object, or an error String if deserialization failed
+     * @param <O> The type of encode-able objects in the context
+     * @throws IOException If reading fails
+     */
+    default <O> SerializeResult<T> read(SerializeContext<O> context, ValueReader reader) throws IOException {
+        return deserialize(context, reader.read(context));
+    }
+
 
     /**
      * Maps this forward serializer to another type
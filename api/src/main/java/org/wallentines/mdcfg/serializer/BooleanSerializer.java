@@ -1,5 +1,7 @@
 package org.wallentines.mdcfg.serializer;
 
+import java.io.IOException;
+
 @SuppressWarnings("unused")
 public class BooleanSerializer implements Serializer<Boolean> {
 
@@ -27,6 +29,24 @@ public class BooleanSerializer implements Serializer<Boolean> {
         return SerializeResult.failure(error);
     }
 
+    @Override
+    public <O> SerializeResult<Void> write(SerializeContext<O> context, Boolean value, ValueWriter writer) throws IOException {
+
+        if(value == null) return SerializeResult.failure("Unable to save null as a boolean!");
+        switch(type) {
+            case BOOLEAN:
+                writer.writeBoolean(value);
+                break;
+            case STRING:
+                writer.writeString(value ? "true" : "false");
+                break;
+            case NUMBER:
+                writer.writeNumber(value ? 1 : 0);
+                break;
+        }
+        return SerializeResult.success(null);
+    }
+
     @Override
     public <O> SerializeResult<Boolean> deserialize(SerializeContext<O> context, O value) {
         return context.asBoolean(value)
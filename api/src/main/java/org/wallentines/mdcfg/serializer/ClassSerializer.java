@@ -0,0 +1,370 @@
+package org.wallentines.mdcfg.serializer;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A serializer generated for a record, or for a class with a constructor annotated with
+ * {@link SerializedConstructor SerializedConstructor}. The getters and constructor of the class are resolved once, when
+ * the serializer is built, and are called directly through method handles, rather than through a chain of lambdas like
+ * serializers built with {@link ObjectSerializer ObjectSerializer}.
+ * <br/>
+ * Every field is required. Serializers for Strings, primitives and their wrappers, BigIntegers, BigDecimals,
+ * ByteBuffers and UUIDs are found automatically. Serializers for other types must be given to the builder.
+ * @param <T> The type of object to serialize
+ */
+@SuppressWarnings("unused")
+public final class ClassSerializer<T> implements Serializer<T> {
+
+    private final Class<T> type;
+    private final String[] keys;
+    private final Serializer<Object>[] serializers;
+    private final MethodHandle[] getters;
+    private final MethodHandle constructor;
+    private final SerializeResult<T>[] missingFailures;
+    private final Map<String, Integer> keyIndices;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ClassSerializer(Class<T> type, String[] keys, Serializer<Object>[] serializers, MethodHandle[] getters, MethodHandle constructor) {
+        this.type = type;
+        this.keys = keys;
+        this.serializers = serializers;
+        this.getters = getters;
+        this.constructor = constructor;
+        this.missingFailures = new SerializeResult[keys.length];
+        for(int i = 0 ; i < keys.length ; i++) {
+            missingFailures[i] = SerializeResult.stacklessFailure("Unable to find value for required key " + keys[i] + "!");
+        }
+        this.keyIndices = new HashMap<>();
+        for(int i = 0 ; i < keys.length ; i++) {
+            keyIndices.put(keys[i], i);
+        }
+    }
+
+    @Override
+    public <O> SerializeResult<O> serialize(SerializeContext<O> context, T value) {
+
+        O out = context.toMap(keys.length);
+        for(int i = 0 ; i < keys.length ; i++) {
+
+            Object field;
+            try {
+                field = (Object) getters[i].invokeExact(value);
+            } catch (Throwable th) {
+                return SerializeResult.failure(th);
+            }
+            if(field == null) {
+                return SerializeResult.failure("A value for " + keys[i] + " could not be obtained from object!");
+            }
+
+            SerializeResult<O> res = serializers[i].serialize(context, field);
+            if(!res.isComplete()) {
+                return SerializeResult.failure(res.getError());
+            }
+            out = context.set(keys[i], res.getOrThrow(), out);
+        }
+        return SerializeResult.success(out);
+    }
+
+    @Override
+    public <O> SerializeResult<Void> write(SerializeContext<O> context, T value, ValueWriter writer) throws IOException {
+
+        // Every field is read first, so a missing field fails before anything is written
+        Object[] fields = new Object[keys.length];
+        for(int i = 0 ; i < keys.length ; i++) {
+            try {
+                fields[i] = (Object) getters[i].invokeExact(value);
+            } catch (Throwable th) {
+                return SerializeResult.failure(th);
+            }
+            if(fields[i] == null) {
+                return SerializeResult.failure("A value for " + keys[i] + " could not be obtained from object!");
+            }
+        }
+
+        writer.beginMap(keys.length);
+        for(int i = 0 ; i < keys.length ; i++) {
+            writer.key(keys[i]);
+            SerializeResult<Void> res = serializers[i].write(context, fields[i], writer);
+            if(!res.isComplete()) {
+                return res;
+            }
+        }
+        writer.endMap();
+        return SerializeResult.success(null);
+    }
+
+    @Override
+    public <O> SerializeResult<T> deserialize(SerializeContext<O> context, O value) {
+
+        Object[] args = new Object[keys.length];
+        for(int i = 0 ; i < keys.length ; i++) {
+
+            O val = context.get(keys[i], value);
+            if(context.isNull(val)) {
+                return missingFailures[i];
+            }
+
+            SerializeResult<Object> res = serializers[i].deserialize(context, val);
+            if(!res.isComplete()) {
+                return SerializeResult.failure("Unable to deserialize value with key " + keys[i] + "! " + res.getError());
+            }
+            args[i] = res.getOrThrow();
+        }
+
+        return construct(args);
+    }
+
+    @Override
+    public <O> SerializeResult<T> read(SerializeContext<O> context, ValueReader reader) throws IOException {
+
+        if(reader.peek() != ValueReader.Token.MAP) return Serializer.super.read(context, reader);
+
+        Object[] args = new Object[keys.length];
+        reader.beginMap();
+        while(reader.hasNext()) {
+
+            Integer index = keyIndices.get(reader.nextKey());
+            if(index == null || reader.peek() == ValueReader.Token.NULL) {
+                reader.skip();
+                continue;
+            }
+
+            SerializeResult<Object> res = serializers[index].read(context, reader);
+            if(!res.isComplete()) {
+                return SerializeResult.failure("Unable to deserialize value with key " + keys[index] + "! " + res.getError());
+            }
+            args[index] = res.getOrThrow();
+        }
+        reader.endMap();
+
+        for(int i = 0 ; i < keys.length ; i++) {
+            if(args[i] == null) {
+                return missingFailures[i];
+            }
+        }
+
+        return construct(args);
+    }
+
+    private SerializeResult<T> construct(Object[] args) {
+        try {
+            return SerializeResult.success(type.cast((Object) constructor.invokeExact(args)));
+        } catch (Throwable th) {
+            return SerializeResult.failure(th);
+        }
+    }
+
+    /**
+     * Creates a serializer for the given record or annotated class, using only automatically found serializers
+     * @param type The class to serialize
+     * @return A new serializer
+     * @param <T> The type of object to serialize
+     * @throws IllegalArgumentException If the class cannot be serialized
+     */
+    public static <T> ClassSerializer<T> of(Class<T> type) {
+        return builder(type).build();
+    }
+
+    /**
+     * Creates a builder for a serializer for the given record or annotated class. Non-public getters and constructors
+     * will be made accessible using reflection
+     * @param type The class to serialize
+     * @return A new builder
+     * @param <T> The type of object to serialize
+     */
+    public static <T> Builder<T> builder(Class<T> type) {
+        return new Builder<>(type, null);
+    }
+
+    /**
+     * Creates a builder for a serializer for the given record or annotated class, which will find getters and
+     * constructors using the given lookup
+     * @param type The class to serialize
+     * @param lookup The lookup to use to access the class's members
+     * @return A new builder
+     * @param <T> The type of object to serialize
+     */
+    public static <T> Builder<T> builder(Class<T> type, MethodHandles.Lookup lookup) {
+        return new Builder<>(type, lookup);
+    }
+
+    public static class Builder<T> {
+
+        private final Class<T> type;
+        private final MethodHandles.Lookup lookup;
+        private final Map<String, Serializer<?>> serializers = new HashMap<>();
+
+        private Builder(Class<T> type, MethodHandles.Lookup lookup) {
+            this.type = type;
+            this.lookup = lookup;
+        }
+
+        /**
+         * Sets the serializer to use for the field with the given key
+         * @param key The key of the field. For records, this is the name of the record component
+         * @param serializer The serializer to use for the field
+         * @return A reference to self
+         */
+        public Builder<T> withSerializer(String key, Serializer<?> serializer) {
+            serializers.put(key, serializer);
+            return this;
+        }
+
+        /**
+         * Resolves the getters and constructor of the class, and creates a serializer
+         * @return A new serializer
+         * @throws IllegalArgumentException If the class is not a record and has no annotated constructor, or if a
+         * getter or serializer cannot be found for one of its fields
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public ClassSerializer<T> build() {
+
+            String[] keys;
+            Member[] members;
+            Constructor<?> ctor;
+
+            try {
+                if(isRecord(type)) {
+
+                    Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+                    keys = new String[components.length];
+                    members = new Member[components.length];
+                    Class<?>[] types = new Class<?>[components.length];
+                    for(int i = 0 ; i < components.length ; i++) {
+                        Class<?> componentClass = components[i].getClass();
+                        keys[i] = (String) componentClass.getMethod("getName").invoke(components[i]);
+                        members[i] = (Method) componentClass.getMethod("getAccessor").invoke(components[i]);
+                        types[i] = (Class<?>) componentClass.getMethod("getType").invoke(components[i]);
+                    }
+                    ctor = type.getDeclaredConstructor(types);
+
+                } else {
+
+                    ctor = null;
+                    for(Constructor<?> c : type.getDeclaredConstructors()) {
+                        if(c.isAnnotationPresent(SerializedConstructor.class)) {
+                            ctor = c;
+                            break;
+                        }
+                    }
+                    if(ctor == null) {
+                        throw new IllegalArgumentException("Class " + type.getName() + " is not a record and has no constructor annotated with @SerializedConstructor!");
+                    }
+
+                    keys = ctor.getAnnotation(SerializedConstructor.class).value();
+                    Class<?>[] types = ctor.getParameterTypes();
+                    if(keys.length != types.length) {
+                        throw new IllegalArgumentException("Expected " + types.length + " keys for the constructor of " + type.getName() + ", found " + keys.length + "!");
+                    }
+
+                    members = new Member[keys.length];
+                    for(int i = 0 ; i < keys.length ; i++) {
+                        members[i] = findGetter(keys[i], types[i]);
+                    }
+                }
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalArgumentException("Unable to inspect class " + type.getName() + "!", ex);
+            }
+
+            Class<?>[] types = ctor.getParameterTypes();
+            Serializer<Object>[] fieldSerializers = new Serializer[keys.length];
+            MethodHandle[] getters = new MethodHandle[keys.length];
+            MethodHandle constructor;
+
+            MethodType getterType = MethodType.methodType(Object.class, Object.class);
+            try {
+                MethodHandles.Lookup lookup = this.lookup == null ? MethodHandles.lookup() : this.lookup;
+                for(int i = 0 ; i < keys.length ; i++) {
+
+                    Serializer<?> serializer = serializers.get(keys[i]);
+                    if(serializer == null) serializer = defaultSerializer(types[i]);
+                    if(serializer == null) {
+                        throw new IllegalArgumentException("No serializer was given for key " + keys[i] + " of type " + types[i].getName() + " in class " + type.getName() + "!");
+                    }
+                    fieldSerializers[i] = (Serializer<Object>) serializer;
+
+                    MethodHandle getter;
+                    if(members[i] instanceof Method) {
+                        Method method = (Method) members[i];
+                        if(this.lookup == null) method.setAccessible(true);
+                        getter = lookup.unreflect(method);
+                    } else {
+                        Field field = (Field) members[i];
+                        if(this.lookup == null) field.setAccessible(true);
+                        getter = lookup.unreflectGetter(field);
+                    }
+                    getters[i] = getter.asType(getterType);
+                }
+
+                if(this.lookup == null) ctor.setAccessible(true);
+                MethodHandle handle = lookup.unreflectConstructor(ctor);
+                constructor = handle.asType(handle.type().generic()).asSpreader(Object[].class, keys.length);
+
+            } catch (IllegalAccessException ex) {
+                throw new IllegalArgumentException("Unable to access the members of class " + type.getName() + "!", ex);
+            }
+
+            return new ClassSerializer<>(type, keys.clone(), fieldSerializers, getters, constructor);
+        }
+
+        private Member findGetter(String key, Class<?> fieldType) {
+
+            String capitalized = Character.toUpperCase(key.charAt(0)) + key.substring(1);
+            String[] names = { key, "get" + capitalized, "is" + capitalized };
+
+            for(Class<?> clazz = type ; clazz != null ; clazz = clazz.getSuperclass()) {
+                for(String name : names) {
+                    try {
+                        Method method = clazz.getDeclaredMethod(name);
+                        if(method.getReturnType() == fieldType && !Modifier.isStatic(method.getModifiers())) return method;
+                    } catch (NoSuchMethodException ex) {
+                        // Try the next name
+                    }
+                }
+                try {
+                    Field field = clazz.getDeclaredField(key);
+                    if(field.getType() == fieldType && !Modifier.isStatic(field.getModifiers())) return field;
+                } catch (NoSuchFieldException ex) {
+                    // Try the superclass
+                }
+            }
+
+            throw new IllegalArgumentException("Unable to find a getter or field for key " + key + " of type " + fieldType.getName() + " in class " + type.getName() + "!");
+        }
+    }
+
+    // Records are detected reflectively, so this class can still be compiled for versions of Java without them
+    private static boolean isRecord(Class<?> type) {
+        Class<?> superclass = type.getSuperclass();
+        return superclass != null && superclass.getName().equals("java.lang.Record");
+    }
+
+    private static Serializer<?> defaultSerializer(Class<?> type) {
+
+        if(type == String.class) return Serializer.STRING;
+        if(type == int.class || type == Integer.class) return Serializer.INT;
+        if(type == long.class || type == Long.class) return Serializer.LONG;
+        if(type == short.class || type == Short.class) return Serializer.SHORT;
+        if(type == byte.class || type == Byte.class) return Serializer.BYTE;
+        if(type == float.class || type == Float.class) return Serializer.FLOAT;
+        if(type == double.class || type == Double.class) return Serializer.DOUBLE;
+        if(type == boolean.class || type == Boolean.class) return Serializer.BOOLEAN;
+        if(type == BigInteger.class) return Serializer.BIG_INTEGER;
+        if(type == BigDecimal.class) return Serializer.BIG_DECIMAL;
+        if(type == ByteBuffer.class) return Serializer.BLOB;
+        if(type == UUID.class) return Serializer.UUID;
+
+        return null;
+    }
+
+}
@@ -4,9 +4,9 @@ import org.wallentines.mdcfg.*;
 
 import java.nio.ByteBuffer;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * A {@link SerializeContext SerializeContext} for {@link ConfigObject ConfigObjects}
@@ -15,53 +15,80 @@ public class ConfigContext implements SerializeContext<ConfigObject> {
 
     public static final ConfigContext INSTANCE = new ConfigContext();
 
+    // Type mismatches are common when trying several serializers, so their failures are shared and stackless
+    private static final SerializeResult<String> NOT_A_STRING = SerializeResult.stacklessFailure("Not a string");
+    private static final SerializeResult<Number> NOT_A_NUMBER = SerializeResult.stacklessFailure("Not a number");
+    private static final SerializeResult<Boolean> NOT_A_BOOLEAN = SerializeResult.stacklessFailure("Not a boolean");
+    private static final SerializeResult<ByteBuffer> NOT_A_BLOB = SerializeResult.stacklessFailure("Not a blob");
+    private static final SerializeResult<Collection<ConfigObject>> NOT_A_LIST = SerializeResult.stacklessFailure("Not a list");
+    private static final SerializeResult<Map<String, ConfigObject>> NOT_A_MAP = SerializeResult.stacklessFailure("Not a map!");
+    private static final SerializeException NOT_A_NUMBER_EXCEPTION = new SerializeException("Not a number", false);
+
     @Override
     public SerializeResult<String> asString(ConfigObject object) {
-        if(!isString(object)) return SerializeResult.failure("Not a string");
+        if(!isString(object)) return NOT_A_STRING;
         return SerializeResult.success(object.asPrimitive().asString());
     }
 
     @Override
     public SerializeResult<Number> asNumber(ConfigObject object) {
-        if(!isNumber(object)) return SerializeResult.failure("Not a number");
+        if(!isNumber(object)) return NOT_A_NUMBER;
         return SerializeResult.success(object.asPrimitive().asNumber());
     }
 
+    @Override
+    public int asInt(ConfigObject object) {
+        if(!isNumber(object)) throw NOT_A_NUMBER_EXCEPTION;
+        return object.asPrimitive().asInt();
+    }
+
+    @Override
+    public long asLong(ConfigObject object) {
+        if(!isNumber(object)) throw NOT_A_NUMBER_EXCEPTION;
+        return object.asPrimitive().asLong();
+    }
+
+    @Override
+    public double asDouble(ConfigObject object) {
+        if(!isNumber(object)) throw NOT_A_NUMBER_EXCEPTION;
+        return object.asPrimitive().asDouble();
+    }
+
     @Override
     public SerializeResult<Boolean> asBoolean(ConfigObject object) {
-        if(!isBoolean(object)) return SerializeResult.failure("Not a boolean");
+        if(!isBoolean(object)) return NOT_A_BOOLEAN;
         return SerializeResult.success(object.asPrimitive().asBoolean());
     }
 
     @Override
     public SerializeResult<ByteBuffer> asBlob(ConfigObject object) {
-        if(!isBlob(object)) return SerializeResult.failure("Not a blob");
-        return SerializeResult.success(object.asBlob().getData());
+        if(!isBlob(object)) return NOT_A_BLOB;
+        return SerializeResult.success(object.asBlob().getData().duplicate());
     }
 
     @Override
     public SerializeResult<Collection<ConfigObject>> asList(ConfigObject object) {
-        if(!isList(object)) return SerializeResult.failure("Not a list");
+        if(!isList(object)) return NOT_A_LIST;
         return SerializeResult.success(object.asList().values());
     }
 
     @Override
     public SerializeResult<Map<String, ConfigObject>> asMap(ConfigObject object) {
-        if(!isMap(object)) return SerializeResult.failure("Not a map!");
-        return SerializeResult.success(
-                object.asSection()
-                        .stream()
-                        .collect(Collectors.toMap(t2 -> t2.p1, t2 -> t2.p2)));
+        if(!isMap(object)) return NOT_A_MAP;
+
+        ConfigSection section = object.asSection();
+        Map<String, ConfigObject> out = new HashMap<>((int) (section.size() / 0.75f) + 1);
+        section.forEach(out::put);
+        return SerializeResult.success(out);
     }
 
     @Override
     public SerializeResult<Map<String, ConfigObject>> asOrderedMap(ConfigObject object) {
-        if(!isMap(object)) return SerializeResult.failure("Not a map!");
+        if(!isMap(object)) return NOT_A_MAP;
 
-        LinkedHashMap<String, ConfigObject> out = new LinkedHashMap<>();
-        for(String key : object.asSection().getKeys()) {
-            out.put(key, object.asSection().get(key));
-        }
+        ConfigSection section = object.asSection();
+        Map<String, ConfigObject> out = new LinkedHashMap<>((int) (section.size() / 0.75f) + 1);
+        section.forEach(out::put);
         return SerializeResult.success(out);
     }
 
@@ -77,6 +104,18 @@ public class ConfigContext implements SerializeContext<ConfigObject> {
         return object.asSection().getKeys();
     }
 
+    @Override
+    public int getMapSize(ConfigObject object) {
+        if(!object.isSection()) return 0;
+        return object.asSection().size();
+    }
+
+    @Override
+    public <E extends Exception> void forEachEntry(ConfigObject object, EntryConsumer<ConfigObject, E> consumer) throws E {
+        if(!object.isSection()) return;
+        object.asSection().forEachEntry(consumer);
+    }
+
     @Override
     public ConfigObject get(String key, ConfigObject object) {
         if(!object.isSection()) return nullValue();
@@ -90,7 +129,22 @@ public class ConfigContext implements SerializeContext<ConfigObject> {
 
     @Override
     public ConfigObject toNumber(Number object) {
-        return new ConfigPrimitive(object);
+        return ConfigPrimitive.unshared(object);
+    }
+
+    @Override
+    public ConfigObject toInt(int object) {
+        return ConfigPrimitive.unshared(object);
+    }
+
+    @Override
+    public ConfigObject toLong(long object) {
+        return ConfigPrimitive.of(object);
+    }
+
+    @Override
+    public ConfigObject toDouble(double object) {
+        return ConfigPrimitive.of(object);
     }
 
     @Override
@@ -105,14 +159,35 @@ public class ConfigContext implements SerializeContext<ConfigObject> {
 
     @Override
     public ConfigObject toList(Collection<ConfigObject> object) {
-        return ConfigList.of(object);
+        ConfigList.Builder out = ConfigList.builder(object.size());
+        for(ConfigObject value : object) {
+            out.add(value);
+        }
+        return out.build();
     }
 
     @Override
     public ConfigObject toMap(Map<String, ConfigObject> object) {
-        ConfigSection out = new ConfigSection();
-        object.forEach(out::set);
-        return out;
+        ConfigSection.Builder out = ConfigSection.builder(object.size());
+        object.forEach(out::add);
+        return out.build();
+    }
+
+    @Override
+    public ConfigObject toList(int sizeHint) {
+        return ConfigList.builder(sizeHint).build();
+    }
+
+    @Override
+    public ConfigObject toMap(int sizeHint) {
+        return ConfigSection.builder(sizeHint).build();
+    }
+
+    @Override
+    public ConfigObject add(ConfigObject value, ConfigObject object) {
+        if(object == null || !object.isList()) return nullValue();
+        object.asList().add(value);
+        return object;
     }
 
     @Override
@@ -158,10 +233,15 @@ public class ConfigContext implements SerializeContext<ConfigObject> {
     }
 
     @Override
-    public boolean supportsMeta(ConfigObject object) {
+    public boolean isThreadSafe() {
         return true;
     }
 
+    @Override
+    public boolean supportsMeta(ConfigObject object) {
+        return object.supportsMeta();
+    }
+
     @Override
     public String getMetaProperty(ConfigObject object, String key) {
         return object.getMetaProperty(key);
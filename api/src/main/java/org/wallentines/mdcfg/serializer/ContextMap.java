@@ -1,91 +1,106 @@
 package org.wallentines.mdcfg.serializer;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * An immutable, ordered collection of context values which can be looked up by type. Maps which are joined using
+ * {@link #and(ContextMap)} refer to the maps they were created from, rather than copying their values, and the first
+ * value of each type is cached after it is looked up. Joining a map with itself returns the same map
+ */
 public class ContextMap {
 
     private final List<Object> values;
-    private final Map<Class<?>, List<Object>> valuesByClass;
+    private final ContextMap first;
+    private final ContextMap second;
+    private final int size;
+    private volatile List<Object> flattened;
+    private final Map<Class<?>, Optional<?>> firstByClass = new ConcurrentHashMap<>();
 
     public static final ContextMap EMPTY = new ContextMap();
 
     public ContextMap() {
         this.values = Collections.emptyList();
-        this.valuesByClass = Collections.emptyMap();
+        this.first = null;
+        this.second = null;
+        this.size = 0;
     }
 
     public ContextMap(List<Object> values) {
-
-        List<Object> inValues = new ArrayList<>();
-        Map<Class<?>, List<Object>> inValuesByClass = new HashMap<>();
-        for(Object value : values) {
-            inValues.add(value);
-            addWithSuperclasses(inValuesByClass, value.getClass(), value);
-        }
-
-        this.values = List.copyOf(inValues);
-        this.valuesByClass = Map.copyOf(inValuesByClass);
+        this.values = List.copyOf(values);
+        this.first = null;
+        this.second = null;
+        this.size = this.values.size();
     }
 
-    private ContextMap(List<Object> values, Map<Class<?>, List<Object>> valuesByClass) {
-        this.values = values;
-        this.valuesByClass = valuesByClass;
+    private ContextMap(ContextMap first, ContextMap second) {
+        this.values = null;
+        this.first = first;
+        this.second = second;
+        this.size = first.size + second.size;
     }
 
     public List<Object> values() {
-        return values;
+        if(values != null) return values;
+
+        List<Object> out = flattened;
+        if(out == null) {
+            List<Object> joined = new ArrayList<>(size);
+            joined.addAll(first.values());
+            joined.addAll(second.values());
+            out = flattened = Collections.unmodifiableList(joined);
+        }
+        return out;
     }
 
     @SuppressWarnings("unchecked")
     public <T> Stream<T> getByClass(Class<T> clazz) {
         if(clazz == Object.class) return (Stream<T>) values().stream();
-
-        List<Object> values = valuesByClass.get(clazz);
-        if (values == null) {
-            return Stream.empty();
-        }
-        return (Stream<T>) values.stream();
+        return (Stream<T>) values().stream().filter(clazz::isInstance);
     }
 
+    @SuppressWarnings("unchecked")
     public <T> Optional<T> getFirst(Class<T> clazz) {
-        return getByClass(clazz).findFirst();
-    }
 
-    public ContextMap and(ContextMap other) {
-        if(other == EMPTY) return this;
-        if(this == EMPTY) return other;
-        if(this == other) return this;
+        // Empty maps, including the shared EMPTY instance, would otherwise cache every class they are ever asked for
+        if(size == 0) return Optional.empty();
 
-        Map<Class<?>, List<Object>> valuesByClass = new HashMap<>(this.valuesByClass);
-        joinClassCache(valuesByClass, other);
-
-        return new ContextMap(
-                Stream.concat(values.stream(), other.values.stream()).collect(Collectors.toList()),
-                valuesByClass);
+        Optional<?> out = firstByClass.get(clazz);
+        if(out == null) {
+            out = findFirst(clazz);
+            firstByClass.putIfAbsent(clazz, out);
+        }
+        return (Optional<T>) out;
     }
 
-    public ContextMap and(Stream<ContextMap> other) {
-        List<ContextMap> contexts = other.collect(Collectors.toList());
+    private Optional<?> findFirst(Class<?> clazz) {
 
-        Map<Class<?>, List<Object>> valuesByClass = new HashMap<>(this.valuesByClass);
-        for (ContextMap context : contexts) {
-            joinClassCache(valuesByClass, context);
+        if(values == null) {
+            Optional<?> out = first.getFirst(clazz);
+            return out.isPresent() ? out : second.getFirst(clazz);
         }
+        for(Object value : values) {
+            if(clazz.isInstance(value)) return Optional.of(value);
+        }
+        return Optional.empty();
+    }
 
-        return new ContextMap(
-                Stream.concat(values.stream(), contexts.stream().flatMap(c -> c.values().stream())).collect(Collectors.toList()));
+    public ContextMap and(ContextMap other) {
+        if(other == EMPTY || other.size == 0) return this;
+        if(this == EMPTY || size == 0) return other;
+        if(this == other) return this;
+
+        return new ContextMap(this, other);
     }
 
-    private void joinClassCache(Map<Class<?>, List<Object>> valuesByClass, ContextMap context) {
-        for(Class<?> c : context.valuesByClass.keySet()) {
-            valuesByClass.compute(c, (k,v) -> {
-                if(v == null) v = new ArrayList<>();
-                v.addAll(context.valuesByClass.get(c));
-                return v;
-            });
+    public ContextMap and(Stream<ContextMap> other) {
+        ContextMap out = this;
+        for(ContextMap context : (Iterable<ContextMap>) other::iterator) {
+            out = out.and(context);
         }
+        return out;
     }
 
 
@@ -131,18 +146,4 @@ public class ContextMap {
         }
 
     }
-
-    private void addWithSuperclasses(Map<Class<?>, List<Object>> map, Class<?> clazz, Object value) {
-
-        if(clazz == Object.class) return;
-        map.computeIfAbsent(clazz, k -> new ArrayList<>()).add(value);
-
-        Class<?> superclass = clazz.getSuperclass();
-        if (superclass != null) {
-            addWithSuperclasses(map, superclass, value);
-        }
-        for(Class<?> interfaceClass : clazz.getInterfaces()) {
-            addWithSuperclasses(map, interfaceClass, value);
-        }
-    }
 }
@@ -39,6 +39,21 @@ public class DelegatedContext<T, V> implements SerializeContext<T> {
         return delegate.asNumber(object);
     }
 
+    @Override
+    public int asInt(T object) {
+        return delegate.asInt(object);
+    }
+
+    @Override
+    public long asLong(T object) {
+        return delegate.asLong(object);
+    }
+
+    @Override
+    public double asDouble(T object) {
+        return delegate.asDouble(object);
+    }
+
     @Override
     public SerializeResult<Boolean> asBoolean(T object) {
         return delegate.asBoolean(object);
@@ -74,6 +89,16 @@ public class DelegatedContext<T, V> implements SerializeContext<T> {
         return delegate.getOrderedKeys(object);
     }
 
+    @Override
+    public int getMapSize(T object) {
+        return delegate.getMapSize(object);
+    }
+
+    @Override
+    public <E extends Exception> void forEachEntry(T object, EntryConsumer<T, E> consumer) throws E {
+        delegate.forEachEntry(object, consumer);
+    }
+
     @Override
     public T get(String key, T object) {
         return delegate.get(key, object);
@@ -89,6 +114,21 @@ public class DelegatedContext<T, V> implements SerializeContext<T> {
         return delegate.toNumber(object);
     }
 
+    @Override
+    public T toInt(int object) {
+        return delegate.toInt(object);
+    }
+
+    @Override
+    public T toLong(long object) {
+        return delegate.toLong(object);
+    }
+
+    @Override
+    public T toDouble(double object) {
+        return delegate.toDouble(object);
+    }
+
     @Override
     public T toBoolean(Boolean object) {
         return delegate.toBoolean(object);
@@ -109,6 +149,21 @@ public class DelegatedContext<T, V> implements SerializeContext<T> {
         return delegate.toMap(map);
     }
 
+    @Override
+    public T toList(int sizeHint) {
+        return delegate.toList(sizeHint);
+    }
+
+    @Override
+    public T toMap(int sizeHint) {
+        return delegate.toMap(sizeHint);
+    }
+
+    @Override
+    public T add(T value, T object) {
+        return delegate.add(value, object);
+    }
+
     @Override
     public T nullValue() {
         return delegate.nullValue();
@@ -134,6 +189,15 @@ public class DelegatedContext<T, V> implements SerializeContext<T> {
         delegate.setMetaProperty(object, key, value);
     }
 
+    @Override
+    public SerializeContext<T> unwrap() {
+        return delegate.unwrap();
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return delegate.isThreadSafe();
+    }
 
     @Override
     public <C> Stream<C> getByClass(Class<C> type) {
@@ -1,5 +1,6 @@
 package org.wallentines.mdcfg.serializer;
 
+import java.io.IOException;
 import java.util.function.Function;
 
 public interface ForwardSerializer<T> {
@@ -13,6 +14,27 @@ public interface ForwardSerializer<T> {
      */
     <O> SerializeResult<O> serialize(SerializeContext<O> context, T value);
 
+    /**
+     * Serializes an object with type T straight to the given writer. By default, the object is serialized using the
+     * given context, then written all at once. Serializers for lists, maps, and objects override this to write their
+     * contents one at a time, so no intermediate encode-able object is created. If serialization fails part way
+     * through, anything which was already written stays written
+     * @param context The context to use for context values, and for serializers which do not support streaming
+     * @param value The value to serialize
+     * @param writer The writer to write the serialized value to
+     * @return An empty successful SerializeResult, or an unsuccessful one if serialization failed
+     * @param <O> The type of encode-able objects in the context
+     * @throws IOException If writing fails
+     */
+    default <O> SerializeResult<Void> write(SerializeContext<O> context, T value, ValueWriter writer) throws IOException {
+        SerializeResult<O> result = serialize(context, value);
+        if(!result.isComplete()) {
+            return SerializeResult.failure(result.getError());
+        }
+        writer.write(context, result.getOrThrow());
+        return SerializeResult.success(null);
+    }
+
 
     @Deprecated
     default <O> ForwardSerializer<O> map(Function<? super O, SerializeResult<? extends T>> mapper) {
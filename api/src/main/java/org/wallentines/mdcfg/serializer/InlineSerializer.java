@@ -1,5 +1,6 @@
 package org.wallentines.mdcfg.serializer;
 
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -30,14 +31,42 @@ public interface InlineSerializer<T> extends Serializer<T> {
         return writeString(value);
     }
 
+    /**
+     * Creates an inline serializer which caches the results of this
+     * serializer. See {@link MemoizedSerializer}
+     * @param maxEntries The maximum number of results to cache in each
+     *     direction
+     * @return A new serializer
+     */
+    @Override
+    default MemoizedInlineSerializer<T> memoize(int maxEntries) {
+        return new MemoizedInlineSerializer<>(this, maxEntries);
+    }
+
+    /**
+     * Creates a serializer which stores values alongside a type key written
+     * by this serializer, and chooses a serializer for each value from the
+     * given table. See {@link TableDispatchSerializer}
+     * @param typeKey The map key to store the type key in
+     * @param table The serializer to use for values with each key
+     * @param keyGetter A function which finds the key for a value
+     * @return A new serializer
+     * @param <V> The type of values to serialize
+     */
+    default<V> TableDispatchSerializer<T, V>
+    dispatchTable(String typeKey, Map<T, ? extends Serializer<? extends V>> table,
+                  Function<? super V, ? extends T> keyGetter) {
+        return new TableDispatchSerializer<>(typeKey, this, table, keyGetter);
+    }
+
     @Deprecated
     default SerializeResult<T> readString(String str) {
-        return SerializeResult.failure("No read logic");
+        return SerializeResult.constantFailure("No read logic");
     }
 
     @Deprecated
     default SerializeResult<String> writeString(T value) {
-        return SerializeResult.failure("No write logic");
+        return SerializeResult.constantFailure("No write logic");
     }
 
     /**
@@ -1,9 +1,7 @@
 package org.wallentines.mdcfg.serializer;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Set;
+import java.io.IOException;
+import java.util.*;
 import java.util.function.Function;
 
 /**
@@ -14,13 +12,18 @@ public class ListSerializer<T> implements Serializer<Collection<T>> {
 
     private final Serializer<T> base;
     private final Function<Throwable, Boolean> onError;
+    private final boolean filtered;
+    private final int parallelThreshold;
 
     /**
      * Creates a new list serializer using the given serializer as a base
      * @param base The serializer to use to convert each value in the list
      */
     public ListSerializer(Serializer<T> base) {
-        this(base, str -> true);
+        this.base = base;
+        this.onError = str -> true;
+        this.filtered = false;
+        this.parallelThreshold = 0;
     }
 
     /**
@@ -32,6 +35,27 @@ public class ListSerializer<T> implements Serializer<Collection<T>> {
     public ListSerializer(Serializer<T> base, Function<Throwable, Boolean> onError) {
         this.base = base;
         this.onError = onError;
+        this.filtered = true;
+        this.parallelThreshold = 0;
+    }
+
+    private ListSerializer(Serializer<T> base, Function<Throwable, Boolean> onError, boolean filtered, int parallelThreshold) {
+        this.base = base;
+        this.onError = onError;
+        this.filtered = filtered;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Creates a copy of this serializer which deserializes lists with at least the given number of values in parallel,
+     * using the common ForkJoinPool. Values are still returned in order, and errors are still reported in order.
+     * Lists are deserialized sequentially if the context is not thread-safe
+     * @param threshold The minimum number of values a list must have to be deserialized in parallel
+     * @return A new list serializer
+     */
+    public ListSerializer<T> parallel(int threshold) {
+        if(threshold < 1) throw new IllegalArgumentException("Parallel threshold must be positive!");
+        return new ListSerializer<>(base, onError, filtered, threshold);
     }
 
     @Override
@@ -51,13 +75,38 @@ public class ListSerializer<T> implements Serializer<Collection<T>> {
         return SerializeResult.ofNullable(context.toList(out));
     }
 
+    @Override
+    public <O> SerializeResult<Void> write(SerializeContext<O> context, Collection<T> value, ValueWriter writer) throws IOException {
+
+        // The size of a filtered list is not known until every value has been serialized
+        if(filtered) return Serializer.super.write(context, value, writer);
+
+        writer.beginList(value.size());
+        for(T t : value) {
+            SerializeResult<Void> res = base.write(context, t, writer);
+            if(!res.isComplete()) {
+                return SerializeResult.failure("Unable to serialize value " + t + " into a list! " + res.getError());
+            }
+        }
+        writer.endList();
+        return SerializeResult.success(null);
+    }
+
     @Override
     public <O> SerializeResult<Collection<T>> deserialize(SerializeContext<O> context, O value) {
 
         return context.asList(value).map(list -> {
+
+            Iterator<SerializeResult<T>> results = null;
+            if(parallelThreshold > 0 && list.size() >= parallelThreshold && context.isThreadSafe()) {
+                List<O> values = list instanceof List && list instanceof RandomAccess ? (List<O>) list : new ArrayList<>(list);
+                list = values;
+                results = ParallelTask.apply(values, (O o) -> base.deserialize(context, o)).iterator();
+            }
+
             List<T> out = new ArrayList<>();
             for(O o : list) {
-                SerializeResult<T> res = base.deserialize(context, o);
+                SerializeResult<T> res = results == null ? base.deserialize(context, o) : results.next();
                 if(res.isComplete()) {
                     out.add(res.getOrThrow());
                 } else {
@@ -69,6 +118,25 @@ public class ListSerializer<T> implements Serializer<Collection<T>> {
         });
     }
 
+    @Override
+    public <O> SerializeResult<Collection<T>> read(SerializeContext<O> context, ValueReader reader) throws IOException {
+
+        // Filtered lists skip values which fail, which cannot be done once a value has been partially read
+        if(filtered || reader.peek() != ValueReader.Token.LIST) return Serializer.super.read(context, reader);
+
+        List<T> out = new ArrayList<>();
+        reader.beginList();
+        while(reader.hasNext()) {
+            SerializeResult<T> res = base.read(context, reader);
+            if(!res.isComplete()) {
+                return SerializeResult.failure("Unable to deserialize value at index " + out.size() + " from a list! " + res.getError());
+            }
+            out.add(res.getOrThrow());
+        }
+        reader.endList();
+        return SerializeResult.success(out);
+    }
+
     public Serializer<Set<T>> mapToSet() {
         return new Serializer<Set<T>>() {
             @Override
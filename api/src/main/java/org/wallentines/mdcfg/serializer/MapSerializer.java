@@ -1,6 +1,10 @@
 package org.wallentines.mdcfg.serializer;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -15,6 +19,8 @@ public class MapSerializer<K, V> implements Serializer<Map<K, V>> {
     private final InlineSerializer<K> keySerializer;
     private final Serializer<V> valueSerializer;
     private final BiFunction<K, Throwable, Boolean> onError;
+    private final boolean filtered;
+    private final int parallelThreshold;
 
     /**
      * Creates a MapSerializer with the given key and value serializers
@@ -23,7 +29,11 @@ public class MapSerializer<K, V> implements Serializer<Map<K, V>> {
      */
     public MapSerializer(InlineSerializer<K> keySerializer,
                          Serializer<V> valueSerializer) {
-        this(keySerializer, valueSerializer, (k, str) -> true);
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.onError = (k, str) -> true;
+        this.filtered = false;
+        this.parallelThreshold = 0;
     }
 
     /**
@@ -42,6 +52,8 @@ public class MapSerializer<K, V> implements Serializer<Map<K, V>> {
         this.keySerializer = keySerializer;
         this.valueSerializer = valueSerializer;
         this.onError = (k, str) -> onError.apply(str);
+        this.filtered = true;
+        this.parallelThreshold = 0;
     }
     /**
      * Creates a MapSerializer with the given key and value serializers, which
@@ -58,6 +70,36 @@ public class MapSerializer<K, V> implements Serializer<Map<K, V>> {
         this.keySerializer = keySerializer;
         this.valueSerializer = valueSerializer;
         this.onError = onError;
+        this.filtered = true;
+        this.parallelThreshold = 0;
+    }
+
+    private MapSerializer(InlineSerializer<K> keySerializer,
+                          Serializer<V> valueSerializer,
+                          BiFunction<K, Throwable, Boolean> onError,
+                          boolean filtered, int parallelThreshold) {
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.onError = onError;
+        this.filtered = filtered;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Creates a copy of this serializer which deserializes maps with at least
+     * the given number of entries in parallel, using the common ForkJoinPool.
+     * Errors are still reported in the map's iteration order. Maps are
+     * deserialized sequentially if the context is not thread-safe
+     * @param threshold The minimum number of entries a map must have to be
+     *     deserialized in parallel
+     * @return A new map serializer
+     */
+    public MapSerializer<K, V> parallel(int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException(
+                "Parallel threshold must be positive!");
+        return new MapSerializer<>(keySerializer, valueSerializer, onError,
+                                   filtered, threshold);
     }
 
     @Override
@@ -88,13 +130,64 @@ public class MapSerializer<K, V> implements Serializer<Map<K, V>> {
                                           "Unable to serialize map!");
     }
 
+    @Override
+    public <O> SerializeResult<Void> write(SerializeContext<O> context,
+                                           Map<K, V> object, ValueWriter writer)
+        throws IOException {
+
+        // The size of a filtered map is not known until every value has been
+        // serialized
+        if (filtered)
+            return Serializer.super.write(context, object, writer);
+
+        // Keys are collected the same way serialize() collects them, so
+        // entries are written in the same order, and duplicate keys collapse
+        Map<String, V> keyed = new HashMap<>();
+        for (Map.Entry<K, V> ent : object.entrySet()) {
+            SerializeResult<String> key =
+                keySerializer.writeString(context, ent.getKey());
+            if (!key.isComplete())
+                return SerializeResult.failure("Unable to serialize key " +
+                                               ent.getKey() + " as a String!");
+
+            keyed.put(key.getOrThrow(), ent.getValue());
+        }
+
+        writer.beginMap(keyed.size());
+        for (Map.Entry<String, V> ent : keyed.entrySet()) {
+            writer.key(ent.getKey());
+            SerializeResult<Void> valueResult =
+                valueSerializer.write(context, ent.getValue(), writer);
+            if (!valueResult.isComplete())
+                return valueResult;
+        }
+        writer.endMap();
+        return SerializeResult.success(null);
+    }
+
     @Override
     public <O> SerializeResult<Map<K, V>>
     deserialize(SerializeContext<O> context, O object) {
 
         return context.asMap(object).map(in -> {
+
+            Iterable<Map.Entry<String, O>> entries = in.entrySet();
+            Iterator<SerializeResult<V>> results = null;
+            if (parallelThreshold > 0 && in.size() >= parallelThreshold &&
+                context.isThreadSafe()) {
+                List<Map.Entry<String, O>> list =
+                    new ArrayList<>(in.entrySet());
+                entries = list;
+                results = ParallelTask
+                              .apply(list,
+                                     (Map.Entry<String, O> entry)
+                                         -> valueSerializer.deserialize(
+                                             context, entry.getValue()))
+                              .iterator();
+            }
+
             Map<K, V> out = new HashMap<>();
-            for (Map.Entry<String, O> entry : in.entrySet()) {
+            for (Map.Entry<String, O> entry : entries) {
 
                 SerializeResult<K> key =
                     keySerializer.readString(context, entry.getKey());
@@ -104,7 +197,9 @@ public class MapSerializer<K, V> implements Serializer<Map<K, V>> {
                         "!");
 
                 SerializeResult<V> valueResult =
-                    valueSerializer.deserialize(context, entry.getValue());
+                    results == null
+                        ? valueSerializer.deserialize(context, entry.getValue())
+                        : results.next();
                 if (!valueResult.isComplete() &&
                     onError.apply(key.getOrNull(), valueResult.getError())) {
                     return SerializeResult.failure(
@@ -120,4 +215,37 @@ public class MapSerializer<K, V> implements Serializer<Map<K, V>> {
             return SerializeResult.success(out);
         });
     }
+
+    @Override
+    public <O> SerializeResult<Map<K, V>> read(SerializeContext<O> context,
+                                               ValueReader reader)
+        throws IOException {
+
+        // Filtered maps skip values which fail, which cannot be done once a
+        // value has been partially read
+        if (filtered || reader.peek() != ValueReader.Token.MAP)
+            return Serializer.super.read(context, reader);
+
+        Map<K, V> out = new HashMap<>();
+        reader.beginMap();
+        while (reader.hasNext()) {
+            String keyString = reader.nextKey();
+            SerializeResult<K> key =
+                keySerializer.readString(context, keyString);
+            if (!key.isComplete())
+                return SerializeResult.failure(
+                    "Unable to deserialize map key " + keyString + "!");
+
+            SerializeResult<V> valueResult =
+                valueSerializer.read(context, reader);
+            if (!valueResult.isComplete())
+                return SerializeResult.failure(
+                    "Unable to deserialize map value with key " +
+                    keyString + "! " + valueResult.getError());
+
+            out.put(key.getOrNull(), valueResult.getOrThrow());
+        }
+        reader.endMap();
+        return SerializeResult.success(out);
+    }
 }
@@ -0,0 +1,138 @@
+package org.wallentines.mdcfg.serializer;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread-safe cache used by memoizing serializers. Entries are evicted using the CLOCK algorithm, an
+ * approximation of LRU which does not need a lock on reads: entries which were read since they were last considered
+ * for eviction are given a second chance
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ */
+final class MemoCache<K, V> {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<K, V>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    MemoCache(int maxEntries) {
+        if(maxEntries < 1) throw new IllegalArgumentException("Cache size must be positive!");
+        this.maxEntries = maxEntries;
+    }
+
+    V get(K key) {
+
+        Entry<K, V> entry = entries.get(key);
+        if(entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        if(!entry.referenced) entry.referenced = true;
+        return entry.value;
+    }
+
+    V get(K key, Function<K, V> compute) {
+
+        V value = get(key);
+        if(value == null) {
+            value = compute.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    void put(K key, V value) {
+
+        Entry<K, V> created = new Entry<>(key, value);
+        if(entries.putIfAbsent(key, created) == null) {
+            clock.add(created);
+            if(size.incrementAndGet() > maxEntries) {
+                evict();
+            }
+        }
+    }
+
+    private void evict() {
+        Entry<K, V> entry;
+        while((entry = clock.poll()) != null) {
+            if(entry.referenced) {
+                entry.referenced = false;
+                clock.add(entry);
+            } else {
+                entries.remove(entry.key, entry);
+                if(size.decrementAndGet() <= maxEntries) return;
+            }
+        }
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    void clear() {
+        entries.clear();
+        clock.clear();
+        size.set(0);
+    }
+
+    private static class Entry<K, V> {
+
+        private final K key;
+        private final V value;
+        private volatile boolean referenced;
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A cache key made up of the context a value was (de)serialized with, and the value itself. Contexts are compared
+     * by identity
+     */
+    static final class Key {
+
+        private final SerializeContext<?> context;
+        private final Object value;
+        private final int hash;
+
+        Key(SerializeContext<?> context, Object value) {
+            this.context = context;
+            this.value = value;
+            this.hash = 31 * System.identityHashCode(context) + Objects.hashCode(value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return context == other.context && Objects.equals(value, other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
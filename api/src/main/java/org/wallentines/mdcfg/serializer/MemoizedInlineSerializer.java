@@ -0,0 +1,55 @@
+package org.wallentines.mdcfg.serializer;
+
+/**
+ * An inline serializer which caches the Strings written by another inline serializer, and the values read from them.
+ * See {@link MemoizedSerializer}
+ * @param <T> The type of values to serialize
+ */
+public class MemoizedInlineSerializer<T> extends MemoizedSerializer<T> implements InlineSerializer<T> {
+
+    private final InlineSerializer<T> base;
+
+    /**
+     * Creates a new memoizing inline serializer
+     * @param base The serializer to cache the results of
+     * @param maxEntries The maximum number of results to cache in each direction
+     */
+    public MemoizedInlineSerializer(InlineSerializer<T> base, int maxEntries) {
+        super(base, maxEntries);
+        this.base = base;
+    }
+
+    @Override
+    public <O> SerializeResult<O> serialize(SerializeContext<O> context, T value) {
+        return InlineSerializer.super.serialize(context, value);
+    }
+
+    @Override
+    public <O> SerializeResult<T> deserialize(SerializeContext<O> context, O value) {
+        return InlineSerializer.super.deserialize(context, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <O> SerializeResult<T> readString(SerializeContext<O> context, String str) {
+        return (SerializeResult<T>) backward.get(new MemoCache.Key(context, str), key -> base.readString(context, str));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <O> SerializeResult<String> writeString(SerializeContext<O> context, T value) {
+        return (SerializeResult<String>) forward.get(new MemoCache.Key(context, value), key -> base.writeString(context, value));
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public SerializeResult<T> readString(String str) {
+        return base.readString(str);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public SerializeResult<String> writeString(T value) {
+        return base.writeString(value);
+    }
+}
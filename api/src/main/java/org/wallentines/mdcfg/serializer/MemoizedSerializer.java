@@ -0,0 +1,124 @@
+package org.wallentines.mdcfg.serializer;
+
+/**
+ * A serializer which caches the results of another serializer, for serializers which repeatedly map the same small
+ * set of values. Results are cached separately for each context, so contextual serializers remain correct. Contexts
+ * are compared by identity, so a wrapping context, such as a {@link DelegatedContext} or one returned by
+ * {@link SerializeContext#withContextValue}, only shares results with calls made through the same wrapper instance.
+ * Wrappers which are created on every call will never use cached results.
+ * <br/>
+ * Only values which serialize to, or deserialize from, a null, String, number, or boolean are cached. Lists, maps,
+ * and blobs can be modified, so they are always passed to the underlying serializer. Cached results are copied before
+ * they are returned, so callers may modify them. Serialized values must be immutable and have a meaningful
+ * {@code equals()} and {@code hashCode()}.
+ * @param <T> The type of values to serialize
+ */
+public class MemoizedSerializer<T> implements Serializer<T> {
+
+    private final Serializer<T> base;
+    final MemoCache<MemoCache.Key, SerializeResult<?>> forward;
+    final MemoCache<MemoCache.Key, SerializeResult<?>> backward;
+
+    /**
+     * Creates a new memoizing serializer
+     * @param base The serializer to cache the results of
+     * @param maxEntries The maximum number of results to cache in each direction
+     */
+    public MemoizedSerializer(Serializer<T> base, int maxEntries) {
+        this.base = base;
+        this.forward = new MemoCache<>(maxEntries);
+        this.backward = new MemoCache<>(maxEntries);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <O> SerializeResult<O> serialize(SerializeContext<O> context, T value) {
+
+        MemoCache.Key key = new MemoCache.Key(context, value);
+        SerializeResult<O> result = (SerializeResult<O>) forward.get(key);
+        if(result == null) {
+            result = base.serialize(context, value);
+
+            // Results are only known to be cacheable once they have been computed
+            if(!result.isComplete() || !isCacheable(context, result.getOrThrow())) {
+                return result;
+            }
+            forward.put(key, result);
+        }
+        return copyOf(context, result);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <O> SerializeResult<T> deserialize(SerializeContext<O> context, O value) {
+
+        Object primitive = toKey(context, value);
+        if(primitive == null) {
+            return base.deserialize(context, value);
+        }
+        return (SerializeResult<T>) backward.get(new MemoCache.Key(context, primitive), key -> base.deserialize(context, value));
+    }
+
+    /**
+     * Gets the number of times a cached result was used
+     * @return The number of cache hits
+     */
+    public long getHits() {
+        return forward.hits() + backward.hits();
+    }
+
+    /**
+     * Gets the number of times a result had to be computed
+     * @return The number of cache misses
+     */
+    public long getMisses() {
+        return forward.misses() + backward.misses();
+    }
+
+    /**
+     * Removes all cached results
+     */
+    public void clear() {
+        forward.clear();
+        backward.clear();
+    }
+
+    private static <O> boolean isCacheable(SerializeContext<O> context, O value) {
+        switch (context.getType(value)) {
+            case NULL:
+            case STRING:
+            case NUMBER:
+            case BOOLEAN:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Cached values are never handed out directly, since callers may still modify serialized primitives (for
+    // example, by attaching comments to them)
+    private static <O> SerializeResult<O> copyOf(SerializeContext<O> context, SerializeResult<O> result) {
+        if(!result.isComplete()) return result;
+
+        O value = result.getOrThrow();
+        if(context.getType(value) == SerializeContext.Type.NULL) return result;
+        return SerializeResult.success(context.copy(value));
+    }
+
+    private static final Object NULL_KEY = new Object();
+
+    private static <O> Object toKey(SerializeContext<O> context, O value) {
+        switch (context.getType(value)) {
+            case NULL:
+                return NULL_KEY;
+            case STRING:
+                return context.asString(value).getOrNull();
+            case NUMBER:
+                return context.asNumber(value).getOrNull();
+            case BOOLEAN:
+                return context.asBoolean(value).getOrNull();
+            default:
+                return null;
+        }
+    }
+}
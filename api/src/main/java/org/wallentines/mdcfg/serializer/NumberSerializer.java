@@ -1,5 +1,6 @@
 package org.wallentines.mdcfg.serializer;
 
+import java.io.IOException;
 import java.util.function.Function;
 import org.wallentines.mdcfg.ConfigPrimitive;
 
@@ -90,6 +91,18 @@ public class NumberSerializer<T extends Number> implements Serializer<T> {
         return validate(value).flatMap(context::toNumber);
     }
 
+    @Override
+    public <O> SerializeResult<Void> write(SerializeContext<O> context, T value,
+                                           ValueWriter writer)
+        throws IOException {
+
+        SerializeResult<T> result = validate(value);
+        if (!result.isComplete())
+            return SerializeResult.failure(result.getError());
+        writer.writeNumber(result.getOrThrow());
+        return SerializeResult.success(null);
+    }
+
     @Override
     public <O> SerializeResult<T> deserialize(SerializeContext<O> context,
                                               O value) {
@@ -99,6 +112,15 @@ public class NumberSerializer<T extends Number> implements Serializer<T> {
             .map(this::validate);
     }
 
+    @Override
+    public <O> SerializeResult<T> read(SerializeContext<O> context,
+                                       ValueReader reader) throws IOException {
+
+        if (reader.peek() != ValueReader.Token.NUMBER)
+            return Serializer.super.read(context, reader);
+        return validate(reader.readNumber());
+    }
+
     @Override
     public Serializer<T> orEnv() {
         return orEnv(inline());
@@ -117,7 +139,7 @@ public class NumberSerializer<T extends Number> implements Serializer<T> {
             public <O> SerializeResult<String> writeString(
                 SerializeContext<O> ctx, T value) {
                 if (value == null)
-                    return SerializeResult.failure("Number was null!");
+                    return SerializeResult.constantFailure("Number was null!");
                 return SerializeResult.success(value.toString());
             }
         };
@@ -3,6 +3,7 @@ package org.wallentines.mdcfg.serializer;
 import org.wallentines.mdcfg.Functions;
 import org.wallentines.mdcfg.Tuples;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.function.Function;
 
@@ -37,6 +38,45 @@ public class ObjectSerializer<T> implements Serializer<T> {
         return SerializeResult.success(context.toMap(out));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <O> SerializeResult<Void> write(SerializeContext<O> context, T value, ValueWriter writer) throws IOException {
+
+        // Every field is read before anything is written, so the size of the map is known up front
+        Object[] fields = new Object[entries.size()];
+        int count = 0;
+        for(int i = 0 ; i < fields.length ; i++) {
+            Entry<?, T> entry = entries.get(i);
+            try {
+                Object field = entry.getValue(value, context);
+                if(field == null) {
+                    if(!entry.optional) {
+                        return SerializeResult.failure("A value for " + entry.key + " could not be obtained from object!");
+                    }
+                    field = entry.defaultValue;
+                }
+                fields[i] = field;
+                if(field != null) count++;
+            } catch (Throwable th) {
+                return SerializeResult.failure(th);
+            }
+        }
+
+        writer.beginMap(count);
+        for(int i = 0 ; i < fields.length ; i++) {
+            if(fields[i] == null) continue;
+
+            Entry<Object, T> entry = (Entry<Object, T>) entries.get(i);
+            writer.key(entry.key);
+            SerializeResult<Void> res = entry.serializer.write(context, fields[i], writer);
+            if(!res.isComplete()) {
+                return res;
+            }
+        }
+        writer.endMap();
+        return SerializeResult.success(null);
+    }
+
     @Override
     public <O> SerializeResult<T> deserialize(SerializeContext<O> context, O value) {
 
@@ -52,7 +92,199 @@ public class ObjectSerializer<T> implements Serializer<T> {
         GroupResult set = new GroupResult(obj);
         return constructor.apply(set, context);
     }
-    
+
+    /**
+     * Creates a compiled version of this serializer. The keys, alternate keys, serializers, and defaults of every entry
+     * are copied into flat tables up front, so (de)serializing does not need to walk the entries or allocate a value
+     * per field. Fields are written in the order the entries were declared, into a map presized for the number of
+     * entries. Changes made to entries after compiling do not affect the compiled serializer
+     * @return A compiled serializer which behaves like this one
+     */
+    public Serializer<T> compile() {
+        return new Compiled<>(entries, constructor);
+    }
+
+    private static final class Compiled<T> implements Serializer<T> {
+
+        private final int size;
+        private final String[] keys;
+        private final String[][] alternateKeys;
+        private final Serializer<Object>[] serializers;
+        private final Functions.F2<T, SerializeContext<?>, Object>[] getters;
+        private final Object[] defaultValues;
+        private final boolean[] optional;
+        private final SerializeResult<T>[] missingFailures;
+        private final Map<String, int[]> keyIndices;
+        private final Functions.F2<GroupResult, SerializeContext<?>, SerializeResult<T>> constructor;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Compiled(List<Entry<?, T>> entries, Functions.F2<GroupResult, SerializeContext<?>, SerializeResult<T>> constructor) {
+
+            this.size = entries.size();
+            this.keys = new String[size];
+            this.alternateKeys = new String[size][];
+            this.serializers = new Serializer[size];
+            this.getters = new Functions.F2[size];
+            this.defaultValues = new Object[size];
+            this.optional = new boolean[size];
+            this.missingFailures = new SerializeResult[size];
+            this.constructor = constructor;
+
+            for(int i = 0 ; i < size ; i++) {
+                Entry<Object, T> entry = (Entry<Object, T>) entries.get(i);
+                keys[i] = entry.key;
+                alternateKeys[i] = entry.alternateKeys.toArray(new String[0]);
+                serializers[i] = entry.serializer;
+                getters[i] = entry.getter;
+                defaultValues[i] = entry.defaultValue;
+                optional[i] = entry.optional;
+                missingFailures[i] = SerializeResult.stacklessFailure("Unable to find value for required key " + entry.key + "!");
+            }
+
+            // Maps each key to its slot and priority. Primary keys take precedence over alternate keys, in order
+            this.keyIndices = new HashMap<>();
+            for(int i = 0 ; i < size ; i++) {
+                keyIndices.putIfAbsent(keys[i], new int[] { i, 0 });
+            }
+            for(int i = 0 ; i < size ; i++) {
+                for(int j = 0 ; j < alternateKeys[i].length ; j++) {
+                    keyIndices.putIfAbsent(alternateKeys[i][j], new int[] { i, j + 1 });
+                }
+            }
+        }
+
+        @Override
+        public <O> SerializeResult<O> serialize(SerializeContext<O> context, T value) {
+
+            O out = context.toMap(size);
+            for(int i = 0 ; i < size ; i++) {
+                try {
+                    Object field = getters[i].apply(value, context);
+                    if(field == null) {
+                        if(!optional[i]) {
+                            return SerializeResult.failure("A value for " + keys[i] + " could not be obtained from object!");
+                        }
+                        field = defaultValues[i];
+                        if(field == null) continue;
+                    }
+
+                    SerializeResult<O> res = serializers[i].serialize(context, field);
+                    if(!res.isComplete()) {
+                        return SerializeResult.failure(res.getError());
+                    }
+                    out = context.set(keys[i], res.getOrThrow(), out);
+
+                } catch (Throwable th) {
+                    return SerializeResult.failure(th);
+                }
+            }
+            return SerializeResult.success(out);
+        }
+
+        @Override
+        public <O> SerializeResult<Void> write(SerializeContext<O> context, T value, ValueWriter writer) throws IOException {
+
+            Object[] fields = new Object[size];
+            int count = 0;
+            for(int i = 0 ; i < size ; i++) {
+                try {
+                    Object field = getters[i].apply(value, context);
+                    if(field == null) {
+                        if(!optional[i]) {
+                            return SerializeResult.failure("A value for " + keys[i] + " could not be obtained from object!");
+                        }
+                        field = defaultValues[i];
+                    }
+                    fields[i] = field;
+                    if(field != null) count++;
+                } catch (Throwable th) {
+                    return SerializeResult.failure(th);
+                }
+            }
+
+            writer.beginMap(count);
+            for(int i = 0 ; i < size ; i++) {
+                if(fields[i] == null) continue;
+
+                writer.key(keys[i]);
+                SerializeResult<Void> res = serializers[i].write(context, fields[i], writer);
+                if(!res.isComplete()) {
+                    return res;
+                }
+            }
+            writer.endMap();
+            return SerializeResult.success(null);
+        }
+
+        @Override
+        public <O> SerializeResult<T> deserialize(SerializeContext<O> context, O value) {
+
+            Object[] slots = new Object[size];
+            for(int i = 0 ; i < size ; i++) {
+
+                O val = context.get(keys[i], value);
+                for(int j = 0 ; context.isNull(val) && j < alternateKeys[i].length ; j++) {
+                    val = context.get(alternateKeys[i][j], value);
+                }
+
+                if(context.isNull(val)) {
+                    if(!optional[i]) {
+                        return missingFailures[i];
+                    }
+                    slots[i] = defaultValues[i];
+                    continue;
+                }
+
+                SerializeResult<Object> res = serializers[i].deserialize(context, val);
+                if(!res.isComplete()) {
+                    return SerializeResult.failure("Unable to deserialize value with key " + keys[i] + "! " + res.getError());
+                }
+                slots[i] = res.getOrThrow();
+            }
+
+            return constructor.apply(new GroupResult(Arrays.asList(slots)), context);
+        }
+
+        @Override
+        public <O> SerializeResult<T> read(SerializeContext<O> context, ValueReader reader) throws IOException {
+
+            if(reader.peek() != ValueReader.Token.MAP) return Serializer.super.read(context, reader);
+
+            Object[] slots = new Object[size];
+            int[] found = new int[size]; // The priority of the key each slot was read from, plus one
+            reader.beginMap();
+            while(reader.hasNext()) {
+
+                String key = reader.nextKey();
+                int[] index = keyIndices.get(key);
+                if(index == null || (found[index[0]] != 0 && found[index[0]] <= index[1]) || reader.peek() == ValueReader.Token.NULL) {
+                    reader.skip();
+                    continue;
+                }
+
+                int i = index[0];
+                SerializeResult<Object> res = serializers[i].read(context, reader);
+                if(!res.isComplete()) {
+                    return SerializeResult.failure("Unable to deserialize value with key " + keys[i] + "! " + res.getError());
+                }
+                slots[i] = res.getOrThrow();
+                found[i] = index[1] + 1;
+            }
+            reader.endMap();
+
+            for(int i = 0 ; i < size ; i++) {
+                if(found[i] == 0) {
+                    if(!optional[i]) {
+                        return missingFailures[i];
+                    }
+                    slots[i] = defaultValues[i];
+                }
+            }
+
+            return constructor.apply(new GroupResult(Arrays.asList(slots)), context);
+        }
+    }
+
 
     public static class Entry<T, O> {
 
@@ -125,7 +357,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                     val = context.get(s, value);
                     if(!context.isNull(val)) break;
                 }
-            } else {
+            }
+            if(!context.isNull(val)) {
                 return serializer.deserialize(context, val).mapError(error -> SerializeResult.failure("Unable to deserialize value with key " + key + "! " + error));
             }
 
@@ -195,7 +428,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
 
         return new Builder<T>()
                 .withEntry(ent1)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0))))
+                .compile();
     }
 
     public static <T,P1,P2> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Functions.F2<P1,P2,T> constructor) {
@@ -203,7 +437,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
         return new Builder<T>()
                 .withEntry(ent1)
                 .withEntry(ent2)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1))))
+                .compile();
     }
 
     public static <T,P1,P2,P3> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Functions.F3<P1,P2,P3,T> constructor) {
@@ -212,7 +447,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent1)
                 .withEntry(ent2)
                 .withEntry(ent3)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Functions.F4<P1,P2,P3,P4,T> constructor) {
@@ -222,7 +458,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent2)
                 .withEntry(ent3)
                 .withEntry(ent4)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Functions.F5<P1,P2,P3,P4,P5,T> constructor) {
@@ -233,7 +470,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent3)
                 .withEntry(ent4)
                 .withEntry(ent5)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5,P6> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Entry<P6, T> ent6, Functions.F6<P1,P2,P3,P4,P5,P6,T> constructor) {
@@ -245,7 +483,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent4)
                 .withEntry(ent5)
                 .withEntry(ent6)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5,P6,P7> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Entry<P6, T> ent6, Entry<P7, T> ent7, Functions.F7<P1,P2,P3,P4,P5,P6,P7,T> constructor) {
@@ -258,7 +497,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent5)
                 .withEntry(ent6)
                 .withEntry(ent7)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5,P6,P7,P8> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Entry<P6, T> ent6, Entry<P7, T> ent7, Entry<P8, T> ent8, Functions.F8<P1,P2,P3,P4,P5,P6,P7,P8,T> constructor) {
@@ -272,7 +512,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent6)
                 .withEntry(ent7)
                 .withEntry(ent8)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5,P6,P7,P8,P9> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Entry<P6, T> ent6, Entry<P7, T> ent7, Entry<P8, T> ent8, Entry<P9, T> ent9, Functions.F9<P1,P2,P3,P4,P5,P6,P7,P8,P9,T> constructor) {
@@ -287,7 +528,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent7)
                 .withEntry(ent8)
                 .withEntry(ent9)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5,P6,P7,P8,P9,P10> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Entry<P6, T> ent6, Entry<P7, T> ent7, Entry<P8, T> ent8, Entry<P9, T> ent9, Entry<P10, T> ent10, Functions.F10<P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,T> constructor) {
@@ -303,7 +545,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent8)
                 .withEntry(ent9)
                 .withEntry(ent10)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,P11> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Entry<P6, T> ent6, Entry<P7, T> ent7, Entry<P8, T> ent8, Entry<P9, T> ent9, Entry<P10, T> ent10, Entry<P11, T> ent11, Functions.F11<P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,P11,T> constructor) {
@@ -320,7 +563,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent9)
                 .withEntry(ent10)
                 .withEntry(ent11)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9), set.get(10))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9), set.get(10))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,P11,P12> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Entry<P6, T> ent6, Entry<P7, T> ent7, Entry<P8, T> ent8, Entry<P9, T> ent9, Entry<P10, T> ent10, Entry<P11, T> ent11, Entry<P12, T> ent12, Functions.F12<P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,P11,P12,T> constructor) {
@@ -338,7 +582,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent10)
                 .withEntry(ent11)
                 .withEntry(ent12)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9), set.get(10), set.get(11))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9), set.get(10), set.get(11))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,P11,P12,P13> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Entry<P6, T> ent6, Entry<P7, T> ent7, Entry<P8, T> ent8, Entry<P9, T> ent9, Entry<P10, T> ent10, Entry<P11, T> ent11, Entry<P12, T> ent12, Entry<P13, T> ent13, Functions.F13<P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,P11,P12,P13,T> constructor) {
@@ -357,7 +602,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent11)
                 .withEntry(ent12)
                 .withEntry(ent13)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9), set.get(10), set.get(11), set.get(12))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9), set.get(10), set.get(11), set.get(12))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,P11,P12,P13,P14> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Entry<P6, T> ent6, Entry<P7, T> ent7, Entry<P8, T> ent8, Entry<P9, T> ent9, Entry<P10, T> ent10, Entry<P11, T> ent11, Entry<P12, T> ent12, Entry<P13, T> ent13, Entry<P14, T> ent14, Functions.F14<P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,P11,P12,P13,P14,T> constructor) {
@@ -377,7 +623,8 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent12)
                 .withEntry(ent13)
                 .withEntry(ent14)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9), set.get(10), set.get(11), set.get(12), set.get(13))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9), set.get(10), set.get(11), set.get(12), set.get(13))))
+                .compile();
     }
 
     public static <T,P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,P11,P12,P13,P14,P15> Serializer<T> create(Entry<P1, T> ent1, Entry<P2, T> ent2, Entry<P3, T> ent3, Entry<P4, T> ent4, Entry<P5, T> ent5, Entry<P6, T> ent6, Entry<P7, T> ent7, Entry<P8, T> ent8, Entry<P9, T> ent9, Entry<P10, T> ent10, Entry<P11, T> ent11, Entry<P12, T> ent12, Entry<P13, T> ent13, Entry<P14, T> ent14, Entry<P15, T> ent15, Functions.F15<P1,P2,P3,P4,P5,P6,P7,P8,P9,P10,P11,P12,P13,P14,P15,T> constructor) {
@@ -398,6 +645,7 @@ public class ObjectSerializer<T> implements Serializer<T> {
                 .withEntry(ent13)
                 .withEntry(ent14)
                 .withEntry(ent15)
-                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9), set.get(10), set.get(11), set.get(12), set.get(13), set.get(14))));
+                .build(set -> SerializeResult.success(constructor.apply(set.get(0), set.get(1), set.get(2), set.get(3), set.get(4), set.get(5), set.get(6), set.get(7), set.get(8), set.get(9), set.get(10), set.get(11), set.get(12), set.get(13), set.get(14))))
+                .compile();
     }
 }
@@ -0,0 +1,68 @@
+package org.wallentines.mdcfg.serializer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Applies a function to every value in a list using the common ForkJoinPool, keeping the results in the same order as
+ * the values they were computed from
+ * @param <I> The type of values
+ * @param <R> The type of results
+ */
+@SuppressWarnings("serial") // Tasks are only ever run in-process, and are never serialized
+final class ParallelTask<I, R> extends RecursiveAction {
+
+    private final List<I> inputs;
+    private final Function<I, R> function;
+    private final Object[] results;
+    private final int start;
+    private final int end;
+    private final int granularity;
+
+    private ParallelTask(List<I> inputs, Function<I, R> function, Object[] results, int start, int end, int granularity) {
+        this.inputs = inputs;
+        this.function = function;
+        this.results = results;
+        this.start = start;
+        this.end = end;
+        this.granularity = granularity;
+    }
+
+    @Override
+    protected void compute() {
+
+        if(end - start <= granularity) {
+            for(int i = start ; i < end ; i++) {
+                results[i] = function.apply(inputs.get(i));
+            }
+            return;
+        }
+
+        int mid = (start + end) >>> 1;
+        invokeAll(new ParallelTask<>(inputs, function, results, start, mid, granularity),
+                  new ParallelTask<>(inputs, function, results, mid, end, granularity));
+    }
+
+    /**
+     * Applies the given function to every value in the given list in parallel
+     * @param inputs The values to apply the function to. Should support fast random access
+     * @param function The function to apply
+     * @return A list of results, in the same order as the inputs
+     * @param <I> The type of values
+     * @param <R> The type of results
+     */
+    @SuppressWarnings("unchecked")
+    static <I, R> List<R> apply(List<I> inputs, Function<I, R> function) {
+
+        Object[] results = new Object[inputs.size()];
+
+        // Split into several tasks per worker, so work can be stolen if some values take longer than others
+        int granularity = Math.max(1, inputs.size() / (ForkJoinPool.getCommonPoolParallelism() * 8));
+        ForkJoinPool.commonPool().invoke(new ParallelTask<>(inputs, function, results, 0, inputs.size(), granularity));
+
+        return (List<R>) Arrays.asList(results);
+    }
+}
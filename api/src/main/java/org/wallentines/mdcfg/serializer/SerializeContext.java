@@ -29,6 +29,39 @@ public interface SerializeContext<T> {
      */
     SerializeResult<Number> asNumber(T object);
 
+    /**
+     * Interprets the given encode-able object as an int. Contexts which can store unboxed numbers should override this
+     * to avoid allocating a Number
+     * @param object The object to read
+     * @return An int
+     * @throws SerializeException If the object cannot be interpreted as a Number
+     */
+    default int asInt(T object) {
+        return asNumber(object).getOrThrow().intValue();
+    }
+
+    /**
+     * Interprets the given encode-able object as a long. Contexts which can store unboxed numbers should override this
+     * to avoid allocating a Number
+     * @param object The object to read
+     * @return A long
+     * @throws SerializeException If the object cannot be interpreted as a Number
+     */
+    default long asLong(T object) {
+        return asNumber(object).getOrThrow().longValue();
+    }
+
+    /**
+     * Interprets the given encode-able object as a double. Contexts which can store unboxed numbers should override
+     * this to avoid allocating a Number
+     * @param object The object to read
+     * @return A double
+     * @throws SerializeException If the object cannot be interpreted as a Number
+     */
+    default double asDouble(T object) {
+        return asNumber(object).getOrThrow().doubleValue();
+    }
+
     /**
      * Interprets the given encode-able object as a Boolean
      * @param object The object to read
@@ -151,6 +184,30 @@ public interface SerializeContext<T> {
      */
     Collection<String> getOrderedKeys(T object);
 
+    /**
+     * Gets the number of entries in the given encode-able object, if it is a map
+     * @param object The object to read
+     * @return The number of entries in the object, or 0 if it is not a map
+     */
+    default int getMapSize(T object) {
+        Collection<String> keys = getOrderedKeys(object);
+        return keys == null ? 0 : keys.size();
+    }
+
+    /**
+     * Calls the given consumer for each entry in the given encode-able object, in order, if it is a map. Contexts
+     * should override this to visit entries without looking up each key or allocating per entry
+     * @param object The object to read
+     * @param consumer The consumer to call for each entry
+     * @param <E> The type of exception the consumer may throw
+     * @throws E If the consumer throws an exception
+     */
+    default <E extends Exception> void forEachEntry(T object, EntryConsumer<T, E> consumer) throws E {
+        for(String key : getOrderedKeys(object)) {
+            consumer.accept(key, get(key, object));
+        }
+    }
+
     /**
      * Gets the value on the object associated with the given key, if it is a map
      * @param key The key to lookup
@@ -173,6 +230,36 @@ public interface SerializeContext<T> {
      */
     T toNumber(Number object);
 
+    /**
+     * Converts the given int into an encode-able object. Contexts which can store unboxed numbers should override this
+     * to avoid allocating a Number
+     * @param object The int to convert
+     * @return An encode-able object
+     */
+    default T toInt(int object) {
+        return toNumber(object);
+    }
+
+    /**
+     * Converts the given long into an encode-able object. Contexts which can store unboxed numbers should override
+     * this to avoid allocating a Number
+     * @param object The long to convert
+     * @return An encode-able object
+     */
+    default T toLong(long object) {
+        return toNumber(object);
+    }
+
+    /**
+     * Converts the given double into an encode-able object. Contexts which can store unboxed numbers should override
+     * this to avoid allocating a Number
+     * @param object The double to convert
+     * @return An encode-able object
+     */
+    default T toDouble(double object) {
+        return toNumber(object);
+    }
+
     /**
      * Converts the given boolean into an encode-able object
      * @param object The boolean to convert
@@ -201,6 +288,36 @@ public interface SerializeContext<T> {
      */
     T toMap(Map<String, T> map);
 
+    /**
+     * Creates an empty encode-able list with room for the given number of values, which can be added using add()
+     * @param sizeHint The expected number of values
+     * @return An empty encode-able list
+     */
+    default T toList(int sizeHint) {
+        return toList(new ArrayList<>(sizeHint));
+    }
+
+    /**
+     * Creates an empty encode-able map with room for the given number of entries, which can be added using set()
+     * @param sizeHint The expected number of entries
+     * @return An empty encode-able map
+     */
+    default T toMap(int sizeHint) {
+        return toMap(new LinkedHashMap<>(sizeHint * 4 / 3 + 1));
+    }
+
+    /**
+     * Adds the given value to the end of the given object, if it is a list. Contexts should override this, as the
+     * default implementation may copy the entire list
+     * @param value The value to add
+     * @param object The list to add to
+     * @return A list with the value added, or a null value if the given object was not a list
+     */
+    default T add(T value, T object) {
+        if(!isList(object)) return nullValue();
+        return mergeList(Collections.singletonList(value), object);
+    }
+
     /**
      * Creates a null value according to the current context
      * @return A null value
@@ -285,6 +402,26 @@ public interface SerializeContext<T> {
      */
     T set(String key, T value, T object);
 
+    /**
+     * Gets the context which actually determines how objects are represented. Contexts which wrap another context to
+     * add context values should return the wrapped context here, so objects can be passed between them without being
+     * converted
+     * @return The underlying context
+     */
+    default SerializeContext<T> unwrap() {
+        return this;
+    }
+
+    /**
+     * Determines whether objects from this context can be read from multiple threads at once. Serializers which
+     * deserialize in parallel will fall back to deserializing sequentially if this returns false. Contexts must opt in
+     * by overriding this
+     * @return Whether this context is thread-safe for reading
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * Converts the given object into another type of encode-able object using the given serialize context
      * @param other The serialize context to use to convert
@@ -295,7 +432,8 @@ public interface SerializeContext<T> {
     @SuppressWarnings("unchecked")
     default <O> O convert(SerializeContext<O> other, T object) {
 
-        if(other.getClass() == getClass()) return (O) object;
+        // Contexts which share an underlying representation can use each other's objects as-is
+        if(other.unwrap().getClass() == unwrap().getClass()) return (O) object;
 
         switch (getType(object)) {
             case STRING:
@@ -311,10 +449,7 @@ public interface SerializeContext<T> {
                         .map(t -> convert(other, t)).collect(Collectors.toList()));
             case MAP: {
                 O out = other.toMap(new LinkedHashMap<>());
-                for(String key : getOrderedKeys(object)) {
-                    T value = get(key, object);
-                    other.set(key, convert(other, value), out);
-                }
+                forEachEntry(object, (key, value) -> other.set(key, convert(other, value), out));
                 return out;
             }
             case NULL:
@@ -349,10 +484,7 @@ public interface SerializeContext<T> {
             }
             case MAP: {
                 T out = toMap(new LinkedHashMap<>());
-                for (String key : getOrderedKeys(object)) {
-                    T value = get(key, object);
-                    set(key, copy(value), out);
-                }
+                forEachEntry(object, (key, value) -> set(key, copy(value), out));
                 return out;
             }
             case NULL:
@@ -447,6 +579,14 @@ public interface SerializeContext<T> {
         return number.doubleValue();
     }
 
+    /**
+     * A callback for each entry in an encode-able map
+     * @param <T> The type of values in the map
+     * @param <E> The type of exception the callback may throw
+     */
+    interface EntryConsumer<T, E extends Exception> {
+        void accept(String key, T value) throws E;
+    }
 
     enum Type {
         UNKNOWN,
@@ -16,4 +16,14 @@ public class SerializeException extends RuntimeException {
     public SerializeException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * Creates an exception which may skip capturing a stack trace. Exceptions without stack traces are much cheaper
+     * to create, and are suitable for expected failures which are handled rather than thrown
+     * @param message The error message
+     * @param writableStackTrace Whether a stack trace should be captured
+     */
+    public SerializeException(String message, boolean writableStackTrace) {
+        super(message, null, writableStackTrace, writableStackTrace);
+    }
 }
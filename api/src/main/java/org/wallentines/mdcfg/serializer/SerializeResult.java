@@ -2,7 +2,10 @@ package org.wallentines.mdcfg.serializer;
 
 import org.wallentines.mdcfg.Tuples;
 
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -12,6 +15,9 @@ import java.util.function.Supplier;
  */
 public class SerializeResult<T> {
 
+    private static final SerializeResult<?> NULL_SUCCESS = new SerializeResult<>(null, null, true);
+    private static final Map<String, SerializeResult<?>> CONSTANT_FAILURES = new ConcurrentHashMap<>();
+
     private final T value;
     private final Throwable error;
     private final boolean success;
@@ -28,7 +34,9 @@ public class SerializeResult<T> {
      * @return A new SerializeResult with the given output
      * @param <T> The type of output value
      */
+    @SuppressWarnings("unchecked")
     public static <T> SerializeResult<T> success(T value) {
+        if(value == null) return (SerializeResult<T>) NULL_SUCCESS;
         return new SerializeResult<>(value, null, true);
     }
 
@@ -62,6 +70,30 @@ public class SerializeResult<T> {
         return new SerializeResult<>(null, new SerializeException(error, cause), false);
     }
 
+    /**
+     * Creates a new unsuccessful SerializeResult with the given error, without capturing a stack trace. This is much
+     * cheaper than {@link #failure(String)}, and should be preferred for failures which are expected to be handled,
+     * such as a value having the wrong type
+     * @param error The error String
+     * @return A new SerializeResult with the given error
+     * @param <T> The type of output value
+     */
+    public static <T> SerializeResult<T> stacklessFailure(String error) {
+        return new SerializeResult<>(null, new SerializeException(error, false), false);
+    }
+
+    /**
+     * Gets a shared, unsuccessful SerializeResult with the given error, without a stack trace. A result is kept for
+     * every distinct message, so this should only be used with constant messages
+     * @param error The error String
+     * @return A shared SerializeResult with the given error
+     * @param <T> The type of output value
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> SerializeResult<T> constantFailure(String error) {
+        return (SerializeResult<T>) CONSTANT_FAILURES.computeIfAbsent(error, SerializeResult::stacklessFailure);
+    }
+
     /**
      * Creates a new successful SerializeResult with the given value, or an unsuccessful SerializeResult if the value is null
      * @param value the output value
@@ -173,14 +205,12 @@ public class SerializeResult<T> {
      * @return Another serialize result with the new type
      * @param <O> The new type
      */
+    @SuppressWarnings("unchecked")
     public <O> SerializeResult<O> map(Function<? super T, SerializeResult<? extends O>> converter) {
-        if(!success) return SerializeResult.failure(error);
+        if(!success) return asFailure();
         try {
-            SerializeResult<? extends O> result = converter.apply(value);
-            if(!result.isComplete()) {
-                return SerializeResult.failure(result.getError());
-            }
-            return SerializeResult.success(result.getOrNull());
+            // Results are immutable, so the converted result can be returned as-is
+            return (SerializeResult<O>) Objects.requireNonNull(converter.apply(value));
         } catch (Throwable e) {
             return SerializeResult.failure(e);
         }
@@ -193,7 +223,7 @@ public class SerializeResult<T> {
      * @param <O> The new type
      */
     public <O> SerializeResult<O> flatMap(Function<? super T, ? extends O> converter) {
-        if(!success) return SerializeResult.failure(error);
+        if(!success) return asFailure();
         try {
             return SerializeResult.ofNullable(converter.apply(value));
         } catch (Throwable e) {
@@ -250,7 +280,7 @@ public class SerializeResult<T> {
     }
 
     public <O> SerializeResult<O> cast(Class<O> type) {
-        if(!success) return SerializeResult.failure(error);
+        if(!success) return asFailure();
         if(!type.isAssignableFrom(value.getClass())) return SerializeResult.failure("Cannot cast " + value + " to " + type);
         return SerializeResult.success(type.cast(value));
     }
@@ -369,8 +399,14 @@ public class SerializeResult<T> {
 
     private <O> SerializeResult<O> anyFail(Supplier<O> success, SerializeResult<?>... other) {
         for(SerializeResult<?> o : other) {
-            if(!o.success) return SerializeResult.failure(o.error);
+            if(!o.success) return o.asFailure();
         }
         return SerializeResult.success(success.get());
     }
+
+    // Failures hold no value, so they can be shared between result types instead of being copied
+    @SuppressWarnings("unchecked")
+    private <O> SerializeResult<O> asFailure() {
+        return (SerializeResult<O>) this;
+    }
 }
@@ -0,0 +1,24 @@
+package org.wallentines.mdcfg.serializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the constructor a {@link ClassSerializer ClassSerializer} should use to create instances of a class which is
+ * not a record. The constructor's parameters are read from the keys listed in the annotation, in order. Each key must
+ * have a matching getter, in the form {@code key()}, {@code getKey()}, or {@code isKey()}, or a field with the same
+ * name, of the same type as the parameter.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.CONSTRUCTOR)
+public @interface SerializedConstructor {
+
+    /**
+     * The keys of the constructor's parameters, in order
+     * @return The keys of the constructor's parameters
+     */
+    String[] value();
+
+}
@@ -170,18 +170,34 @@ public interface Serializer<T> extends ForwardSerializer<T>, BackSerializer<T> {
      */
     default Serializer<T> or(Serializer<T> other) {
         return new Serializer<T>() {
+            // Checked directly rather than through mapError(), so no
+            // fallback lambda is allocated when the first serializer succeeds
             @Override
             public <O> SerializeResult<O> serialize(SerializeContext<O> context,
                                                     T value) {
-                return Serializer.this.serialize(context, value)
-                    .mapError(() -> other.serialize(context, value));
+                SerializeResult<O> out =
+                    Serializer.this.serialize(context, value);
+                if (out.isComplete())
+                    return out;
+                try {
+                    return other.serialize(context, value);
+                } catch (Throwable th) {
+                    return SerializeResult.failure(th);
+                }
             }
 
             @Override
             public <O> SerializeResult<T> deserialize(
                 SerializeContext<O> context, O value) {
-                return Serializer.this.deserialize(context, value)
-                    .mapError(() -> other.deserialize(context, value));
+                SerializeResult<T> out =
+                    Serializer.this.deserialize(context, value);
+                if (out.isComplete())
+                    return out;
+                try {
+                    return other.deserialize(context, value);
+                } catch (Throwable th) {
+                    return SerializeResult.failure(th);
+                }
             }
         };
     }
@@ -207,12 +223,30 @@ public interface Serializer<T> extends ForwardSerializer<T>, BackSerializer<T> {
                     t -> Serializer.this.serialize(context, t));
             }
 
+            @Override
+            public <O1> SerializeResult<Void> write(
+                SerializeContext<O1> context, O value, ValueWriter writer)
+                throws IOException {
+                SerializeResult<? extends T> result = getter.apply(value);
+                if (!result.isComplete())
+                    return SerializeResult.failure(result.getError());
+                return Serializer.this.write(context, result.getOrNull(),
+                                             writer);
+            }
+
             @Override
             public <O1> SerializeResult<O> deserialize(
                 SerializeContext<O1> context, O1 value) {
                 return Serializer.this.deserialize(context, value)
                     .map(construct);
             }
+
+            @Override
+            public <O1> SerializeResult<O> read(SerializeContext<O1> context,
+                                                ValueReader reader)
+                throws IOException {
+                return Serializer.this.read(context, reader).map(construct);
+            }
         };
     }
 
@@ -236,12 +270,28 @@ public interface Serializer<T> extends ForwardSerializer<T>, BackSerializer<T> {
                 return Serializer.this.serialize(context, getter.apply(value));
             }
 
+            @Override
+            public <O1> SerializeResult<Void> write(
+                SerializeContext<O1> context, O value, ValueWriter writer)
+                throws IOException {
+                return Serializer.this.write(context, getter.apply(value),
+                                             writer);
+            }
+
             @Override
             public <O1> SerializeResult<O> deserialize(
                 SerializeContext<O1> context, O1 value) {
                 return Serializer.this.deserialize(context, value)
                     .flatMap(construct);
             }
+
+            @Override
+            public <O1> SerializeResult<O> read(SerializeContext<O1> context,
+                                                ValueReader reader)
+                throws IOException {
+                return Serializer.this.read(context, reader)
+                    .flatMap(construct);
+            }
         };
     }
 
@@ -348,6 +398,19 @@ public interface Serializer<T> extends ForwardSerializer<T>, BackSerializer<T> {
                     });
             }
 
+            @Override
+            public <O> SerializeResult<Void> write(SerializeContext<O> context,
+                                                   T value, ValueWriter writer)
+                throws IOException {
+                writer.beginMap(1);
+                writer.key(key);
+                SerializeResult<Void> result =
+                    Serializer.this.write(context, value, writer);
+                if (result.isComplete())
+                    writer.endMap();
+                return result;
+            }
+
             @Override
             public <O> SerializeResult<T> deserialize(
                 SerializeContext<O> context, O value) {
@@ -359,6 +422,36 @@ public interface Serializer<T> extends ForwardSerializer<T>, BackSerializer<T> {
                 }
                 return Serializer.this.deserialize(context, val);
             }
+
+            @Override
+            public <O> SerializeResult<T> read(SerializeContext<O> context,
+                                               ValueReader reader)
+                throws IOException {
+
+                if (reader.peek() != ValueReader.Token.MAP)
+                    return Serializer.super.read(context, reader);
+
+                SerializeResult<T> result = null;
+                reader.beginMap();
+                while (reader.hasNext()) {
+                    if (!reader.nextKey().equals(key)) {
+                        reader.skip();
+                    } else if (reader.peek() == ValueReader.Token.NULL) {
+                        reader.readNull();
+                        result = null;
+                    } else {
+                        result = Serializer.this.read(context, reader);
+                        if (!result.isComplete())
+                            return result;
+                    }
+                }
+                reader.endMap();
+
+                if (result == null)
+                    return SerializeResult.failure("Key " + key +
+                                                   " not found!");
+                return result;
+            }
         };
     }
 
@@ -548,6 +641,17 @@ public interface Serializer<T> extends ForwardSerializer<T>, BackSerializer<T> {
      */
     default Serializer<T> orEnv() { return orEnv(this); }
 
+    /**
+     * Creates a serializer which caches the results of this serializer. See
+     * {@link MemoizedSerializer}
+     * @param maxEntries The maximum number of results to cache in each
+     *     direction
+     * @return A new serializer
+     */
+    default MemoizedSerializer<T> memoize(int maxEntries) {
+        return new MemoizedSerializer<>(this, maxEntries);
+    }
+
     /**
      * Creates a serializer for an Either object
      * @param left The serializer to use if the left value is present
@@ -625,14 +729,31 @@ public interface Serializer<T> extends ForwardSerializer<T>, BackSerializer<T> {
         public <O> SerializeResult<O> serialize(SerializeContext<O> context,
                                                 String value) {
             if (value == null)
-                return SerializeResult.failure("String is null!");
+                return SerializeResult.constantFailure("String is null!");
             return SerializeResult.success(context.toString(value));
         }
         @Override
+        public <O> SerializeResult<Void> write(SerializeContext<O> context,
+                                               String value, ValueWriter writer)
+            throws IOException {
+            if (value == null)
+                return SerializeResult.constantFailure("String is null!");
+            writer.writeString(value);
+            return SerializeResult.success(null);
+        }
+        @Override
         public <O> SerializeResult<String> deserialize(
             SerializeContext<O> context, O value) {
             return context.asString(value);
         }
+        @Override
+        public <O> SerializeResult<String> read(SerializeContext<O> context,
+                                                ValueReader reader)
+            throws IOException {
+            if (reader.peek() != ValueReader.Token.STRING)
+                return Serializer.super.read(context, reader);
+            return SerializeResult.success(reader.readString());
+        }
     };
 
     Serializer<Byte> BYTE =
@@ -0,0 +1,99 @@
+package org.wallentines.mdcfg.serializer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A serializer which chooses a serializer for each value from a fixed table, based on a type key stored alongside the
+ * value's other fields. Unlike {@link DispatchSerializer}, the table and the String form of each key are computed once
+ * when the serializer is created, and the value's fields are copied into a new map sized to fit them before the type
+ * key is added, so it comes after the value's own fields. The map returned by the value's serializer is never
+ * modified.
+ * @param <K> The type of keys in the table
+ * @param <V> The type of values to serialize
+ */
+public class TableDispatchSerializer<K, V> implements Serializer<V> {
+
+    private final String typeKey;
+    private final Function<? super V, ? extends K> keyGetter;
+    private final Map<K, Dispatch<V>> byKey;
+    private final Map<String, Serializer<? extends V>> byName;
+
+    /**
+     * Creates a new table dispatch serializer
+     * @param typeKey The map key to store the type key in
+     * @param keySerializer The serializer used to convert keys to and from Strings
+     * @param table The serializer to use for values with each key
+     * @param keyGetter A function which finds the key for a value
+     */
+    @SuppressWarnings("unchecked")
+    public TableDispatchSerializer(String typeKey,
+                                   InlineSerializer<K> keySerializer,
+                                   Map<K, ? extends Serializer<? extends V>> table,
+                                   Function<? super V, ? extends K> keyGetter) {
+
+        this.typeKey = typeKey;
+        this.keyGetter = keyGetter;
+        this.byKey = new HashMap<>(table.size() * 2);
+        this.byName = new HashMap<>(table.size() * 2);
+
+        for(Map.Entry<K, ? extends Serializer<? extends V>> entry : table.entrySet()) {
+
+            SerializeResult<String> name = keySerializer.writeString(ConfigContext.INSTANCE, entry.getKey());
+            if(!name.isComplete()) {
+                throw new IllegalArgumentException("Unable to serialize key " + entry.getKey() + " as a String!");
+            }
+
+            // Values are only ever passed to the serializer registered for their own key
+            byKey.put(entry.getKey(), new Dispatch<>(name.getOrThrow(), (Serializer<V>) entry.getValue()));
+            if(byName.put(name.getOrThrow(), entry.getValue()) != null) {
+                throw new IllegalArgumentException("Duplicate key " + name.getOrThrow() + "!");
+            }
+        }
+    }
+
+    @Override
+    public <O> SerializeResult<O> serialize(SerializeContext<O> context, V value) {
+
+        K key = keyGetter.apply(value);
+        Dispatch<V> dispatch = byKey.get(key);
+        if(dispatch == null) return SerializeResult.failure("Unable to find value serializer for " + key + "!");
+
+        SerializeResult<O> valueResult = dispatch.serializer.serialize(context, value);
+        if(!valueResult.isComplete()) return SerializeResult.failure("Unable to serialize value for " + key + "!", valueResult.getError());
+
+        O out = valueResult.getOrThrow();
+        if(!context.isMap(out)) return SerializeResult.failure("Value for " + key + " did not serialize to a map!");
+
+        // The value serializer's map may be shared or frozen, so the type key is added to a new map
+        O merged = context.toMap(context.getMapSize(out) + 1);
+        context.forEachEntry(out, (k, v) -> context.set(k, v, merged));
+        return SerializeResult.success(context.set(typeKey, context.toString(dispatch.name), merged));
+    }
+
+    @Override
+    public <O> SerializeResult<V> deserialize(SerializeContext<O> context, O value) {
+
+        if(!context.isMap(value)) return SerializeResult.failure("Expected a map!");
+
+        SerializeResult<String> name = context.asString(context.get(typeKey, value));
+        if(!name.isComplete()) return SerializeResult.failure("Unable to find type key " + typeKey + "!");
+
+        Serializer<? extends V> serializer = byName.get(name.getOrThrow());
+        if(serializer == null) return SerializeResult.failure("Unable to find value serializer for " + name.getOrThrow() + "!");
+
+        return serializer.deserialize(context, value).flatMap(v -> v);
+    }
+
+    private static class Dispatch<V> {
+
+        private final String name;
+        private final Serializer<V> serializer;
+
+        Dispatch(String name, Serializer<V> serializer) {
+            this.name = name;
+            this.serializer = serializer;
+        }
+    }
+}
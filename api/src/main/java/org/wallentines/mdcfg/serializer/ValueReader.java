@@ -0,0 +1,204 @@
+package org.wallentines.mdcfg.serializer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A source of values which are read one piece at a time, rather than as a complete tree of encode-able objects.
+ * Codecs which support streaming create readers which decode each value only when it is asked for, so serializers can
+ * read objects straight from the input, and skip values they do not need without decoding them into objects. See
+ * {@link Serializer#read(SerializeContext, ValueReader)}.
+ * <br/>
+ * Simple values are read with a single call. Lists and maps are read with a begin call, followed by their contents
+ * until {@link #hasNext()} returns false, followed by an end call. Within a map, every value must be preceded by a
+ * call to {@link #nextKey()}.
+ */
+public interface ValueReader extends Closeable {
+
+    /**
+     * Finds the type of the next token, without consuming it
+     * @return The type of the next token
+     * @throws IOException If reading fails
+     */
+    Token peek() throws IOException;
+
+    /**
+     * Reads a null value
+     * @throws IOException If reading fails, or the next value is not null
+     */
+    void readNull() throws IOException;
+
+    /**
+     * Reads a String value
+     * @return The value which was read
+     * @throws IOException If reading fails, or the next value is not a String
+     */
+    String readString() throws IOException;
+
+    /**
+     * Reads a numeric value
+     * @return The value which was read
+     * @throws IOException If reading fails, or the next value is not a number
+     */
+    Number readNumber() throws IOException;
+
+    /**
+     * Reads a boolean value
+     * @return The value which was read
+     * @throws IOException If reading fails, or the next value is not a boolean
+     */
+    boolean readBoolean() throws IOException;
+
+    /**
+     * Reads a blob value
+     * @return The value which was read
+     * @throws IOException If reading fails, or the next value is not a blob
+     */
+    ByteBuffer readBlob() throws IOException;
+
+    /**
+     * Begins reading a list
+     * @throws IOException If reading fails, or the next value is not a list
+     */
+    void beginList() throws IOException;
+
+    /**
+     * Finishes reading the current list
+     * @throws IOException If reading fails, or there are values left in the current list
+     */
+    void endList() throws IOException;
+
+    /**
+     * Begins reading a map
+     * @throws IOException If reading fails, or the next value is not a map
+     */
+    void beginMap() throws IOException;
+
+    /**
+     * Reads the key of the next entry in the current map
+     * @return The key which was read
+     * @throws IOException If reading fails, or the current value is not a map
+     */
+    String nextKey() throws IOException;
+
+    /**
+     * Finishes reading the current map
+     * @throws IOException If reading fails, or there are entries left in the current map
+     */
+    void endMap() throws IOException;
+
+    /**
+     * Determines whether there are values or entries left in the current list or map
+     * @return Whether the current list or map has more values
+     * @throws IOException If reading fails
+     */
+    default boolean hasNext() throws IOException {
+        return peek() != Token.END;
+    }
+
+    /**
+     * Skips the next value, including everything inside it if it is a list or map
+     * @throws IOException If reading fails
+     */
+    default void skip() throws IOException {
+
+        switch (peek()) {
+            case NULL:
+                readNull();
+                break;
+            case STRING:
+                readString();
+                break;
+            case NUMBER:
+                readNumber();
+                break;
+            case BOOLEAN:
+                readBoolean();
+                break;
+            case BLOB:
+                readBlob();
+                break;
+            case LIST:
+                beginList();
+                while(hasNext()) {
+                    skip();
+                }
+                endList();
+                break;
+            case MAP:
+                beginMap();
+                while(hasNext()) {
+                    nextKey();
+                    skip();
+                }
+                endMap();
+                break;
+            default:
+                throw new SerializeException("Expected a value, found " + peek() + "!");
+        }
+    }
+
+    /**
+     * Reads the next value as an entire encode-able object
+     * @param context The context to use to create the object
+     * @param <T> The type of object to read
+     * @return The value which was read
+     * @throws IOException If reading fails
+     */
+    default <T> T read(SerializeContext<T> context) throws IOException {
+
+        switch (peek()) {
+            case NULL:
+                readNull();
+                return context.nullValue();
+            case STRING:
+                return context.toString(readString());
+            case NUMBER:
+                return context.toNumber(readNumber());
+            case BOOLEAN:
+                return context.toBoolean(readBoolean());
+            case BLOB:
+                return context.toBlob(readBlob());
+            case LIST: {
+                beginList();
+                List<T> out = new ArrayList<>();
+                while(hasNext()) {
+                    out.add(read(context));
+                }
+                endList();
+                return context.toList(out);
+            }
+            case MAP: {
+                beginMap();
+                T out = context.toMap(0);
+                while(hasNext()) {
+                    String key = nextKey();
+                    out = context.set(key, read(context), out);
+                }
+                endMap();
+                return out;
+            }
+            default:
+                throw new SerializeException("Expected a value, found " + peek() + "!");
+        }
+    }
+
+    /**
+     * The types of tokens which can be read
+     */
+    enum Token {
+        NULL,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        BLOB,
+        LIST,
+        MAP,
+        KEY,
+        END
+    }
+
+}
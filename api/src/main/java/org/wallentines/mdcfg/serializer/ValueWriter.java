@@ -0,0 +1,140 @@
+package org.wallentines.mdcfg.serializer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+/**
+ * A receiver for values which are written one piece at a time, rather than as a complete tree of encode-able objects.
+ * Codecs which support streaming create writers which encode each value as soon as it is written, so serializers can
+ * write objects straight to the output. See {@link Serializer#write(SerializeContext, Object, ValueWriter)}.
+ * <br/>
+ * Simple values are written with a single call. Lists and maps are written with a begin call, followed by their
+ * contents, followed by an end call. Within a map, every value must be preceded by a call to {@link #key(String)}. The
+ * sizes given when beginning lists and maps must match the number of values written to them.
+ */
+public interface ValueWriter extends Closeable {
+
+    /**
+     * Writes a null value
+     * @throws IOException If writing fails
+     */
+    void writeNull() throws IOException;
+
+    /**
+     * Writes a String value
+     * @param value The value to write
+     * @throws IOException If writing fails
+     */
+    void writeString(String value) throws IOException;
+
+    /**
+     * Writes a numeric value
+     * @param value The value to write
+     * @throws IOException If writing fails
+     */
+    void writeNumber(Number value) throws IOException;
+
+    /**
+     * Writes a boolean value
+     * @param value The value to write
+     * @throws IOException If writing fails
+     */
+    void writeBoolean(boolean value) throws IOException;
+
+    /**
+     * Writes a blob value
+     * @param value The value to write
+     * @throws IOException If writing fails
+     */
+    void writeBlob(ByteBuffer value) throws IOException;
+
+    /**
+     * Begins writing a list
+     * @param size The number of values which will be written to the list
+     * @throws IOException If writing fails
+     */
+    void beginList(int size) throws IOException;
+
+    /**
+     * Finishes writing the current list
+     * @throws IOException If writing fails, or the current value is not a list
+     */
+    void endList() throws IOException;
+
+    /**
+     * Begins writing a map
+     * @param size The number of entries which will be written to the map
+     * @throws IOException If writing fails
+     */
+    void beginMap(int size) throws IOException;
+
+    /**
+     * Writes the key of the next entry in the current map
+     * @param key The key to write
+     * @throws IOException If writing fails, or the current value is not a map
+     */
+    void key(String key) throws IOException;
+
+    /**
+     * Finishes writing the current map
+     * @throws IOException If writing fails, or the current value is not a map
+     */
+    void endMap() throws IOException;
+
+    /**
+     * Writes an entire encode-able object
+     * @param context The context which created the object
+     * @param value The object to write
+     * @param <T> The type of object to write
+     * @throws IOException If writing fails
+     */
+    default <T> void write(SerializeContext<T> context, T value) throws IOException {
+
+        switch (context.getType(value)) {
+            case NULL:
+                writeNull();
+                break;
+            case STRING:
+                writeString(context.asString(value).getOrThrow());
+                break;
+            case NUMBER:
+                writeNumber(context.asNumber(value).getOrThrow());
+                break;
+            case BOOLEAN:
+                writeBoolean(context.asBoolean(value).getOrThrow());
+                break;
+            case BLOB:
+                writeBlob(context.asBlob(value).getOrThrow());
+                break;
+            case LIST: {
+                Collection<T> list = context.asList(value).getOrThrow();
+                beginList(list.size());
+                for(T t : list) {
+                    write(context, t);
+                }
+                endList();
+                break;
+            }
+            case MAP:
+                beginMap(context.getMapSize(value));
+                context.forEachEntry(value, (key, entry) -> {
+                    key(key);
+                    write(context, entry);
+                });
+                endMap();
+                break;
+            default:
+                throw new SerializeException("Unable to write " + value + "!");
+        }
+    }
+
+    /**
+     * Finishes writing, and closes the underlying stream
+     * @throws IOException If writing fails, or a list or map was not finished
+     */
+    @Override
+    void close() throws IOException;
+
+}
@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wallentines.mdcfg.ConfigList;
+import org.wallentines.mdcfg.ConfigObject;
+import org.wallentines.mdcfg.ConfigSection;
+import org.wallentines.mdcfg.serializer.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public class TestClassSerializer {
+
+    record Point(int x, int y, String label) { }
+
+    record Shape(String name, List<Point> points) { }
+
+    static class Person {
+
+        private final String name;
+        private final int age;
+        private final boolean admin;
+
+        @SerializedConstructor({"name", "age", "admin"})
+        Person(String name, int age, boolean admin) {
+            this.name = name;
+            this.age = age;
+            this.admin = admin;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Person person = (Person) o;
+            return age == person.age && admin == person.admin && Objects.equals(name, person.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, age, admin);
+        }
+    }
+
+    @Test
+    public void testRecord() {
+
+        Serializer<Point> serializer = ClassSerializer.of(Point.class);
+        Point point = new Point(3, -4, "corner");
+
+        ConfigSection serialized = serializer.serialize(ConfigContext.INSTANCE, point).getOrThrow().asSection();
+        Assertions.assertEquals(Arrays.asList("x", "y", "label"), new ArrayList<>(serialized.getKeys()));
+        Assertions.assertEquals(-4, serialized.getInt("y"));
+        Assertions.assertEquals(point, serializer.deserialize(ConfigContext.INSTANCE, serialized).getOrThrow());
+
+        // Matches an equivalent ObjectSerializer
+        Serializer<Point> manual = ObjectSerializer.create(
+                Serializer.INT.entry("x", Point::x),
+                Serializer.INT.entry("y", Point::y),
+                Serializer.STRING.entry("label", Point::label),
+                Point::new);
+        Assertions.assertEquals(manual.serialize(ConfigContext.INSTANCE, point).getOrThrow(), serialized);
+
+        // Failures
+        Assertions.assertFalse(serializer.deserialize(ConfigContext.INSTANCE, new ConfigSection().with("x", 1).with("y", 2)).isComplete());
+        Assertions.assertFalse(serializer.deserialize(ConfigContext.INSTANCE, new ConfigSection().with("x", "one").with("y", 2).with("label", "a")).isComplete());
+        Assertions.assertFalse(serializer.serialize(ConfigContext.INSTANCE, new Point(1, 2, null)).isComplete());
+
+    }
+
+    @Test
+    public void testNested() {
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ClassSerializer.of(Shape.class));
+
+        Serializer<Shape> serializer = ClassSerializer.builder(Shape.class)
+                .withSerializer("points", ClassSerializer.of(Point.class).listOf())
+                .build();
+
+        Shape shape = new Shape("line", Arrays.asList(new Point(0, 0, "start"), new Point(1, 1, "end")));
+        ConfigObject serialized = serializer.serialize(ConfigContext.INSTANCE, shape).getOrThrow();
+
+        ConfigList points = serialized.asSection().getList("points");
+        Assertions.assertEquals(2, points.size());
+        Assertions.assertEquals("end", points.get(1).asSection().getString("label"));
+        Assertions.assertEquals(shape, serializer.deserialize(ConfigContext.INSTANCE, serialized).getOrThrow());
+
+    }
+
+    @Test
+    public void testAnnotated() {
+
+        Serializer<Person> serializer = ClassSerializer.of(Person.class);
+        Person person = new Person("Alice", 31, true);
+
+        ConfigSection serialized = serializer.serialize(ConfigContext.INSTANCE, person).getOrThrow().asSection();
+        Assertions.assertEquals("Alice", serialized.getString("name"));
+        Assertions.assertEquals(31, serialized.getInt("age"));
+        Assertions.assertTrue(serialized.getBoolean("admin"));
+        Assertions.assertEquals(person, serializer.deserialize(ConfigContext.INSTANCE, serialized).getOrThrow());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ClassSerializer.of(StringBuilder.class));
+
+    }
+
+}
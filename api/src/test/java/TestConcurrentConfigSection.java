@@ -0,0 +1,165 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wallentines.mdcfg.ConcurrentConfigSection;
+import org.wallentines.mdcfg.ConfigSection;
+import org.wallentines.mdcfg.codec.JSONCodec;
+import org.wallentines.mdcfg.serializer.ConfigContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestConcurrentConfigSection {
+
+    @Test
+    public void testBasics() {
+
+        ConcurrentConfigSection section = new ConcurrentConfigSection();
+        section.set("key1", "value");
+        section.set("key2", 12);
+        section.set("key3", true);
+
+        Assertions.assertEquals(3, section.size());
+        Assertions.assertEquals("value", section.getString("key1"));
+        Assertions.assertEquals(12, section.getInt("key2"));
+        Assertions.assertTrue(section.getBoolean("key3"));
+
+        Assertions.assertEquals(12, section.remove("key2").asNumber().intValue());
+        Assertions.assertFalse(section.has("key2"));
+        Assertions.assertEquals(2, section.size());
+
+        section.set("key2", 13);
+        List<String> keys = new ArrayList<>(section.getKeys());
+        Assertions.assertEquals("key1", keys.get(0));
+        Assertions.assertEquals("key3", keys.get(1));
+        Assertions.assertEquals("key2", keys.get(2));
+
+        ConfigSection copy = section.copy();
+        Assertions.assertInstanceOf(ConcurrentConfigSection.class, copy);
+        Assertions.assertEquals(section, copy);
+        Assertions.assertEquals(section.hashCode(), copy.hashCode());
+
+        ConcurrentConfigSection reordered = new ConcurrentConfigSection();
+        reordered.set("key2", 13);
+        reordered.set("key3", true);
+        reordered.set("key1", "value");
+        Assertions.assertEquals(section, reordered);
+        Assertions.assertEquals(section.hashCode(), reordered.hashCode());
+
+        ConfigSection frozen = section.freeze();
+        Assertions.assertEquals(keys, new ArrayList<>(frozen.getKeys()));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> frozen.set("key", "value"));
+
+        ConfigSection filled = new ConfigSection();
+        filled.fill(section);
+        Assertions.assertEquals(3, filled.size());
+        Assertions.assertEquals(13, filled.getInt("key2"));
+
+    }
+
+    @Test
+    public void testRemoving() {
+
+        ConcurrentConfigSection section = new ConcurrentConfigSection();
+        for(int i = 0 ; i < 1000 ; i++) {
+            section.set("key" + i, i);
+        }
+        for(int i = 0 ; i < 1000 ; i++) {
+            if(i % 3 != 0) section.remove("key" + i);
+        }
+
+        Assertions.assertEquals(334, section.size());
+        List<String> keys = new ArrayList<>(section.getKeys());
+        for(int i = 0 ; i < keys.size() ; i++) {
+            Assertions.assertEquals("key" + (i * 3), keys.get(i));
+            Assertions.assertEquals(i * 3, section.getInt("key" + (i * 3)));
+        }
+        Assertions.assertEquals(334, section.stream().count());
+        Assertions.assertEquals("key999", section.keyAt(333));
+        Assertions.assertEquals(999, section.valueAt(333).asNumber().intValue());
+
+        List<String> visited = new ArrayList<>();
+        section.forEach((key, value) -> visited.add(key));
+        Assertions.assertEquals(keys, visited);
+
+    }
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+
+        int writers = 4;
+        int entries = 5000;
+
+        ConcurrentConfigSection section = new ConcurrentConfigSection();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for(int t = 0 ; t < writers ; t++) {
+            String prefix = "writer" + t + "_";
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for(int i = 0 ; i < entries ; i++) {
+                        section.set(prefix + i, i);
+                        if(i % 2 == 1) section.remove(prefix + (i - 1));
+                    }
+                } catch (Throwable th) {
+                    error.compareAndSet(null, th);
+                }
+            }));
+        }
+
+        Thread reader = new Thread(() -> {
+            try {
+                start.await();
+                for(int i = 0 ; i < 50 ; i++) {
+                    JSONCodec.minified().encodeToString(ConfigContext.INSTANCE, section);
+                    section.stream().count();
+                }
+            } catch (Throwable th) {
+                error.compareAndSet(null, th);
+            }
+        });
+        threads.add(reader);
+
+        threads.forEach(Thread::start);
+        start.countDown();
+        for(Thread thread : threads) {
+            thread.join();
+        }
+
+        if(error.get() != null) {
+            Assertions.fail("Concurrent access failed", error.get());
+        }
+
+        Assertions.assertEquals(writers * entries / 2, section.size());
+        for(int t = 0 ; t < writers ; t++) {
+            for(int i = 0 ; i < entries ; i++) {
+                Assertions.assertEquals(i % 2 == 1, section.has("writer" + t + "_" + i));
+            }
+        }
+
+        ConcurrentConfigSection children = new ConcurrentConfigSection();
+        List<ConfigSection> created = new ArrayList<>();
+        threads.clear();
+        for(int t = 0 ; t < writers ; t++) {
+            threads.add(new Thread(() -> {
+                ConfigSection child = children.getOrCreateSection("child");
+                synchronized (created) {
+                    created.add(child);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        for(ConfigSection child : created) {
+            Assertions.assertSame(created.get(0), child);
+        }
+
+    }
+
+}
@@ -1,9 +1,16 @@
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.wallentines.mdcfg.ConfigBlob;
+import org.wallentines.mdcfg.serializer.ConfigContext;
+import org.wallentines.mdcfg.serializer.Serializer;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Random;
 
 public class TestConfigBlob {
@@ -45,4 +52,111 @@ public class TestConfigBlob {
 
     }
 
+    @Test
+    public void testCopyOnWrite() {
+
+        Random rand = new Random();
+        byte[] data = new byte[1024];
+        rand.nextBytes(data);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data);
+
+        ConfigBlob blob = new ConfigBlob(direct);
+        ConfigBlob copy = blob.copy();
+        Assertions.assertEquals(blob, copy);
+
+        // Read-only access does not copy
+        Assertions.assertTrue(copy.getReadOnlyData().isReadOnly());
+        Assertions.assertEquals(data.length, copy.getReadOnlyData().remaining());
+
+        // Writing to one blob does not affect the other
+        ByteBuffer writable = copy.getData();
+        Assertions.assertTrue(writable.isDirect());
+        writable.put(0, (byte) (data[0] + 1));
+        Assertions.assertNotEquals(blob, copy);
+        Assertions.assertEquals(data[0], blob.getData().get(0));
+        Assertions.assertEquals((byte) (data[0] + 1), copy.getData().get(0));
+
+    }
+
+    @Test
+    public void testCopyAliasing() throws IOException {
+
+        Random rand = new Random();
+        byte[] data = new byte[1024];
+        rand.nextBytes(data);
+
+        // Blobs read from a stream own their content, so copies share it until one of them is written to
+        ConfigBlob owned = ConfigBlob.read(new ByteArrayInputStream(data));
+        ConfigBlob sharing = owned.copy();
+        owned.getData().put(0, (byte) (data[0] + 1));
+        Assertions.assertEquals(data[0], sharing.getData().get(0));
+
+        // A buffer returned by getData() before copying must not be able to write to the copy
+        ConfigBlob blob = ConfigBlob.read(new ByteArrayInputStream(data));
+        ByteBuffer buffer = blob.getData();
+        ConfigBlob copy = blob.copy();
+        buffer.put(0, (byte) (data[0] + 1));
+        Assertions.assertEquals(data[0], copy.getData().get(0));
+
+        // Neither may the array a blob was created with
+        byte[] array = data.clone();
+        ConfigBlob wrapped = new ConfigBlob(array);
+        ConfigBlob wrappedCopy = wrapped.copy();
+        array[0] = (byte) (data[0] + 1);
+        Assertions.assertEquals((byte) (data[0] + 1), wrapped.getReadOnlyData().get(0));
+        Assertions.assertEquals(data[0], wrappedCopy.getReadOnlyData().get(0));
+
+    }
+
+    @Test
+    public void testReading() throws IOException {
+
+        Random rand = new Random();
+        byte[] data = new byte[20000];
+        rand.nextBytes(data);
+
+        ConfigBlob blob = ConfigBlob.read(new ByteArrayInputStream(data));
+        Assertions.assertEquals(new ConfigBlob(data), blob);
+        Assertions.assertEquals(data.length, blob.getSize());
+
+        // The backing array is trimmed to the content
+        ConfigBlob small = ConfigBlob.read(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        Assertions.assertEquals(3, small.getData().array().length);
+
+        // Blobs read through a context are writable and backed by an array
+        ByteBuffer serialized = Serializer.BLOB.deserialize(ConfigContext.INSTANCE, small).getOrThrow();
+        Assertions.assertTrue(serialized.hasArray());
+        Assertions.assertFalse(serialized.isReadOnly());
+
+        blob = ConfigBlob.read(new ByteArrayInputStream(data), 100);
+        Assertions.assertEquals(100, blob.getSize());
+        Assertions.assertEquals(data[99], blob.getData().get(99));
+
+        // Bulk reads honor the offset
+        byte[] target = new byte[30];
+        try(InputStream is = new ConfigBlob(data).asStream()) {
+            Assertions.assertEquals(20, is.read(target, 10, 20));
+            Assertions.assertEquals(0, target[0]);
+            Assertions.assertEquals(data[0], target[10]);
+            Assertions.assertEquals(data[19], target[29]);
+        }
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Assertions.assertEquals(data.length, new ConfigBlob(data).asStream().writeTo(bos));
+        Assertions.assertArrayEquals(data, bos.toByteArray());
+
+        Path file = Files.createTempFile("blob", ".bin");
+        try {
+            Files.write(file, data);
+            ConfigBlob mapped = ConfigBlob.map(file);
+            Assertions.assertEquals(data.length, mapped.getSize());
+            Assertions.assertEquals(new ConfigBlob(data), mapped);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+    }
+
 }
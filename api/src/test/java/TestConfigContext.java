@@ -5,6 +5,7 @@ import org.wallentines.mdcfg.ConfigObject;
 import org.wallentines.mdcfg.ConfigPrimitive;
 import org.wallentines.mdcfg.ConfigSection;
 import org.wallentines.mdcfg.serializer.ConfigContext;
+import org.wallentines.mdcfg.serializer.SerializeContext;
 
 import java.util.*;
 
@@ -170,4 +171,24 @@ public class TestConfigContext {
 
     }
 
+    @Test
+    public void testConvertDelegated() {
+
+        SerializeContext<ConfigObject> ctx = ConfigContext.INSTANCE.withContextValue("value").withContextValue(12);
+        Assertions.assertSame(ConfigContext.INSTANCE, ctx.unwrap());
+
+        ConfigSection large = new ConfigSection();
+        for(int i = 0 ; i < 100000 ; i++) {
+            large.set("key" + i, new ConfigSection().with("value", i));
+        }
+
+        Assertions.assertSame(large, ctx.convert(ConfigContext.INSTANCE, large));
+        Assertions.assertSame(large, ConfigContext.INSTANCE.convert(ctx, large));
+
+        // Setting a value through a contextual serializer should not copy the whole tree
+        ConfigSection section = new ConfigSection();
+        section.set("large", large, ConfigSection.SERIALIZER, ctx);
+        Assertions.assertSame(large, section.get("large"));
+    }
+
 }
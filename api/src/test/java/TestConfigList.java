@@ -1,6 +1,7 @@
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.wallentines.mdcfg.ConfigList;
+import org.wallentines.mdcfg.ConfigPrimitive;
 
 public class TestConfigList {
 
@@ -25,4 +26,73 @@ public class TestConfigList {
 
     }
 
+    @Test
+    public void testPersistent() {
+
+        ConfigList list = new ConfigList();
+        for(int i = 0 ; i < 2000 ; i++) {
+            list.add(i);
+        }
+
+        ConfigList frozen = list.freeze();
+        Assertions.assertSame(frozen, frozen.freeze());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> frozen.add("Hello"));
+
+        // Appending to a frozen list leaves the original unchanged
+        ConfigList appended = frozen.append("Hello").append(33);
+        Assertions.assertEquals(2002, appended.size());
+        Assertions.assertEquals(2000, frozen.size());
+        Assertions.assertEquals("Hello", appended.get(2000).asString());
+        for(int i = 0 ; i < 2000 ; i++) {
+            Assertions.assertEquals(i, appended.get(i).asNumber().intValue());
+        }
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> appended.add("Hello"));
+
+        // Empty frozen lists are separate objects, so meta properties set on one do not leak into others
+        ConfigList empty = new ConfigList().freeze();
+        empty.setMetaProperty("comment", "value");
+        Assertions.assertNull(new ConfigList().freeze().getMetaProperty("comment"));
+
+    }
+
+    @Test
+    public void testBuilder() {
+
+        ConfigList.Builder builder = ConfigList.builder(3);
+        builder.add(ConfigPrimitive.of("Hello")).add(ConfigPrimitive.of(12));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.add(null));
+
+        ConfigList list = builder.build();
+        Assertions.assertEquals(2, list.size());
+        Assertions.assertEquals("Hello", list.get(0).asString());
+        Assertions.assertEquals(12, list.get(1).asNumber().intValue());
+
+        list.add("World");
+        Assertions.assertEquals(3, list.size());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> builder.add(ConfigPrimitive.of(1)));
+        Assertions.assertThrows(IllegalStateException.class, builder::build);
+
+    }
+
+    @Test
+    public void testLazy() {
+
+        int[] loads = new int[1];
+        ConfigList list = ConfigList.lazy(3, i -> {
+            loads[0]++;
+            return ConfigPrimitive.of(i * 10);
+        });
+
+        Assertions.assertEquals(3, list.size());
+        Assertions.assertEquals(0, loads[0]);
+        Assertions.assertEquals(20, list.get(2).asNumber().intValue());
+        Assertions.assertEquals(20, list.get(2).asNumber().intValue());
+        Assertions.assertEquals(1, loads[0]);
+
+        list.add("Hello");
+        list.remove(0);
+        Assertions.assertEquals(ConfigList.of(10, 20, "Hello"), list);
+    }
+
 }
@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wallentines.mdcfg.ConfigList;
+import org.wallentines.mdcfg.ConfigPath;
+import org.wallentines.mdcfg.ConfigPrimitive;
+import org.wallentines.mdcfg.ConfigSection;
+
+public class TestConfigPath {
+
+    @Test
+    public void testParse() {
+
+        ConfigPath path = ConfigPath.parse("a.b.c[3].d");
+        Assertions.assertEquals(5, path.length());
+        Assertions.assertEquals("a.b.c[3].d", path.toString());
+        Assertions.assertSame(path, ConfigPath.parse("a.b.c[3].d"));
+
+        Assertions.assertEquals(3, ConfigPath.parse("a[0][1]").length());
+        Assertions.assertEquals(1, ConfigPath.parse("key").length());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigPath.parse(""));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigPath.parse("a..b"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigPath.parse("a."));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigPath.parse(".a"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigPath.parse("a[1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigPath.parse("a[x]"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigPath.parse("a[-1]"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigPath.parse("a[1]b"));
+
+    }
+
+    @Test
+    public void testCache() {
+
+        // Paths which are parsed often stay cached while many other paths are parsed and evicted
+        ConfigPath hot = ConfigPath.parse("hot.path");
+        for(int i = 0 ; i < 2000 ; i++) {
+            ConfigPath path = ConfigPath.parse("cold.path" + i);
+            Assertions.assertEquals("cold.path" + i, path.toString());
+            Assertions.assertSame(hot, ConfigPath.parse("hot.path"));
+        }
+
+    }
+
+    @Test
+    public void testGet() {
+
+        ConfigSection section = new ConfigSection()
+                .with("a", new ConfigSection()
+                        .with("b", new ConfigList()
+                                .append("Hello")
+                                .append(new ConfigSection().with("c", 12))));
+
+        Assertions.assertEquals("Hello", section.getPath("a.b[0]").asString());
+        Assertions.assertEquals(12, section.getPath("a.b[1].c").asNumber().intValue());
+        Assertions.assertEquals(section.getSection("a").getList("b").get(1).asSection().get("c"), section.getPath("a.b[1].c"));
+
+        // Missing or mistyped values
+        Assertions.assertTrue(section.getPath("a.b[2]").isNull());
+        Assertions.assertTrue(section.getPath("a.x.c").isNull());
+        Assertions.assertTrue(section.getPath("a.b.c").isNull());
+        Assertions.assertTrue(section.getPath("a[0]").isNull());
+        Assertions.assertTrue(section.getPath("a.b[0].c").isNull());
+
+        Assertions.assertEquals(12, section.freeze().getPath(ConfigPath.parse("a.b[1].c")).asNumber().intValue());
+
+    }
+
+    @Test
+    public void testSet() {
+
+        ConfigSection section = new ConfigSection();
+        Assertions.assertEquals(ConfigPrimitive.NULL, section.setPath("a.b.c", ConfigPrimitive.of("Hello")));
+        Assertions.assertEquals("Hello", section.getSection("a").getSection("b").getString("c"));
+
+        section.setPath("a.list[0].value", ConfigPrimitive.of(1));
+        section.setPath("a.list[1]", ConfigPrimitive.of(2));
+        Assertions.assertEquals(2, section.getSection("a").getList("list").size());
+        Assertions.assertEquals(1, section.getPath("a.list[0].value").asNumber().intValue());
+
+        Assertions.assertEquals(2, section.setPath("a.list[1]", ConfigPrimitive.of(3)).asNumber().intValue());
+        Assertions.assertEquals(3, section.getPath("a.list[1]").asNumber().intValue());
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> section.setPath("a.list[5]", ConfigPrimitive.of(3)));
+        Assertions.assertThrows(IllegalStateException.class, () -> section.setPath("a.b.c.d", ConfigPrimitive.of(3)));
+        Assertions.assertThrows(IllegalStateException.class, () -> section.setPath("a.b[0]", ConfigPrimitive.of(3)));
+
+        // Removing
+        Assertions.assertEquals("Hello", section.setPath("a.b.c", null).asString());
+        Assertions.assertFalse(section.getSection("a").getSection("b").has("c"));
+        Assertions.assertTrue(section.setPath("x.y.z", null).isNull());
+        Assertions.assertFalse(section.has("x"));
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> section.freeze().setPath("a.b.c", ConfigPrimitive.of(3)));
+
+    }
+
+}
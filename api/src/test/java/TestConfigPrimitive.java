@@ -1,6 +1,14 @@
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.wallentines.mdcfg.ConfigList;
+import org.wallentines.mdcfg.ConfigObject;
 import org.wallentines.mdcfg.ConfigPrimitive;
+import org.wallentines.mdcfg.ConfigSection;
+import org.wallentines.mdcfg.codec.JSONCodec;
+import org.wallentines.mdcfg.serializer.ConfigContext;
+import org.wallentines.mdcfg.serializer.Serializer;
+
+import java.lang.reflect.Field;
 
 public class TestConfigPrimitive {
 
@@ -35,4 +43,120 @@ public class TestConfigPrimitive {
 
     }
 
+    @Test
+    public void testShared() {
+
+        Assertions.assertSame(ConfigPrimitive.of(12), ConfigPrimitive.of(12));
+        Assertions.assertSame(ConfigPrimitive.of(1023), ConfigPrimitive.of(Integer.valueOf(1023)));
+        Assertions.assertSame(ConfigPrimitive.of(-128), ConfigPrimitive.of(-128));
+        Assertions.assertNotSame(ConfigPrimitive.of(1024), ConfigPrimitive.of(1024));
+        Assertions.assertSame(ConfigPrimitive.TRUE, ConfigPrimitive.of(true));
+        Assertions.assertSame(ConfigPrimitive.FALSE, ConfigPrimitive.of(Boolean.FALSE));
+        Assertions.assertSame(ConfigPrimitive.EMPTY_STRING, ConfigPrimitive.of(""));
+
+        // Only Integers are cached, so other number types are retained
+        Assertions.assertInstanceOf(Long.class, ConfigPrimitive.of(12L).getValue());
+        Assertions.assertInstanceOf(Byte.class, ConfigPrimitive.of(Byte.valueOf((byte) 12)).getValue());
+        Assertions.assertEquals(new ConfigPrimitive(12), ConfigPrimitive.of(12));
+
+        // Shared instances cannot hold meta properties, but their copies can
+        ConfigPrimitive shared = ConfigPrimitive.of(12);
+        Assertions.assertFalse(shared.supportsMeta());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> shared.setMetaProperty("key", "value"));
+
+        ConfigPrimitive copy = shared.copy();
+        Assertions.assertTrue(copy.supportsMeta());
+        copy.setMetaProperty("key", "value");
+        Assertions.assertEquals("value", copy.getMetaProperty("key"));
+        Assertions.assertNull(shared.getMetaProperty("key"));
+
+        // Values stored through the public setters are never shared
+        ConfigSection section = new ConfigSection().with("int", 5).with("bool", true).with("str", "");
+        section.setInt("unboxed", 5);
+        ConfigList list = new ConfigList();
+        list.add(5);
+        list.add(false);
+        for(String key : section.getKeys()) {
+            Assertions.assertTrue(section.get(key).supportsMeta());
+        }
+        for(ConfigObject obj : list.values()) {
+            Assertions.assertTrue(obj.supportsMeta());
+        }
+        Assertions.assertTrue(ConfigObject.toConfigObject(5).supportsMeta());
+        section.get("int").setMetaProperty("key", "value");
+        Assertions.assertEquals("value", section.get("int").getMetaProperty("key"));
+        Assertions.assertNull(ConfigPrimitive.of(5).getMetaProperty("key"));
+
+        // Neither are values created by ConfigContext, which decoders and serializers use
+        ConfigObject serialized = Serializer.INT.serialize(ConfigContext.INSTANCE, 5).getOrThrow();
+        serialized.setMetaProperty("key", "value");
+        Assertions.assertEquals("value", serialized.getMetaProperty("key"));
+        for(ConfigObject obj : JSONCodec.loadConfig("[5,true,\"\",12.5]").asList().values()) {
+            obj.setMetaProperty("key", "value");
+        }
+        Assertions.assertNull(ConfigPrimitive.of(5).getMetaProperty("key"));
+        Assertions.assertNull(ConfigPrimitive.TRUE.getMetaProperty("key"));
+
+    }
+
+    @Test
+    public void testUnboxed() {
+
+        ConfigPrimitive i = ConfigPrimitive.of(100000);
+        ConfigPrimitive l = ConfigPrimitive.of(10000000000L);
+        ConfigPrimitive d = ConfigPrimitive.of(12.5);
+
+        Assertions.assertTrue(i.isNumber());
+        Assertions.assertFalse(i.isNull());
+        Assertions.assertFalse(i.isString());
+        Assertions.assertInstanceOf(Integer.class, i.getValue());
+        Assertions.assertInstanceOf(Long.class, l.asNumber());
+        Assertions.assertInstanceOf(Double.class, d.asNumber());
+
+        Assertions.assertEquals(100000, i.asInt());
+        Assertions.assertEquals(10000000000L, l.asLong());
+        Assertions.assertEquals((int) 10000000000L, l.asInt());
+        Assertions.assertEquals(12.5, d.asDouble());
+        Assertions.assertEquals(12, d.asInt());
+        Assertions.assertEquals(12.5f, d.asFloat());
+
+        // Unboxed primitives are equal to boxed ones
+        Assertions.assertEquals(new ConfigPrimitive(100000), i);
+        Assertions.assertEquals(i, new ConfigPrimitive(100000L));
+        Assertions.assertEquals(new ConfigPrimitive(100000).hashCode(), i.hashCode());
+        Assertions.assertEquals(new ConfigPrimitive(10000000000L).hashCode(), l.hashCode());
+        Assertions.assertEquals(new ConfigPrimitive(12.5), d);
+        Assertions.assertEquals(new ConfigPrimitive(12.5).hashCode(), d.hashCode());
+        Assertions.assertNotEquals(ConfigPrimitive.NULL, i);
+
+        ConfigPrimitive copy = l.copy();
+        Assertions.assertNotSame(l, copy);
+        Assertions.assertEquals(l, copy);
+
+    }
+
+    @Test
+    public void testLazyMeta() throws ReflectiveOperationException {
+
+        Field meta = ConfigObject.class.getDeclaredField("meta");
+        meta.setAccessible(true);
+
+        // Decoded values should not allocate any storage for meta properties until one is set
+        ConfigList decoded = JSONCodec.loadConfig("[100000,\"Hello\",12.5,[]]").asList();
+        for(ConfigObject obj : decoded.values()) {
+            Assertions.assertNull(meta.get(obj));
+            Assertions.assertNull(obj.getMetaProperty("key"));
+        }
+
+        ConfigPrimitive prim = new ConfigPrimitive(100000);
+        Assertions.assertNull(meta.get(prim));
+        prim.setMetaProperty("key", "value");
+        prim.setMetaProperty("other", "value2");
+        prim.setMetaProperty("key", "value3");
+        Assertions.assertEquals("value3", prim.getMetaProperty("key"));
+        Assertions.assertEquals("value2", prim.getMetaProperty("other"));
+        Assertions.assertEquals(4, ((String[]) meta.get(prim)).length);
+
+    }
+
 }
@@ -4,10 +4,14 @@ import org.wallentines.mdcfg.ConfigList;
 import org.wallentines.mdcfg.ConfigObject;
 import org.wallentines.mdcfg.ConfigPrimitive;
 import org.wallentines.mdcfg.ConfigSection;
+import org.wallentines.mdcfg.serializer.ConfigContext;
 import org.wallentines.mdcfg.serializer.NumberSerializer;
 import org.wallentines.mdcfg.serializer.ObjectSerializer;
+import org.wallentines.mdcfg.serializer.SerializeException;
 import org.wallentines.mdcfg.serializer.Serializer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -159,4 +163,221 @@ public class TestConfigSection {
 
     }
 
+    @Test
+    public void testRemoving() {
+
+        ConfigSection section = new ConfigSection();
+        for(int i = 0 ; i < 1000 ; i++) {
+            section.set("key" + i, i);
+        }
+
+        // Remove every entry which is not a multiple of 3, from front to back
+        for(int i = 0 ; i < 1000 ; i++) {
+            if(i % 3 != 0) {
+                Assertions.assertEquals(i, section.remove("key" + i).asNumber().intValue());
+            }
+        }
+        Assertions.assertEquals(334, section.size());
+        Assertions.assertTrue(section.remove("key1").isNull());
+
+        List<String> keys = new ArrayList<>(section.getKeys());
+        Assertions.assertEquals(334, keys.size());
+        for(int i = 0 ; i < keys.size() ; i++) {
+            Assertions.assertEquals("key" + (i * 3), keys.get(i));
+            Assertions.assertEquals(i * 3, section.getInt("key" + (i * 3)));
+        }
+
+        // Re-added keys go to the end
+        section.set("key1", "value");
+        keys = new ArrayList<>(section.getKeys());
+        Assertions.assertEquals("key1", keys.get(keys.size() - 1));
+        Assertions.assertEquals(335, section.size());
+
+        // Removing the last entry
+        section.remove("key1");
+        section.remove("key999");
+        keys = new ArrayList<>(section.getKeys());
+        Assertions.assertEquals("key996", keys.get(keys.size() - 1));
+        Assertions.assertEquals(333, section.size());
+
+        ConfigSection copy = section.copy();
+        ConfigSection frozen = section.freeze();
+        Assertions.assertEquals(section, copy);
+        Assertions.assertEquals(keys, new ArrayList<>(frozen.getKeys()));
+        Assertions.assertEquals(keys.size(), section.stream().count());
+        Assertions.assertEquals(3, frozen.getInt("key3"));
+
+    }
+
+    @Test
+    public void testUnboxed() {
+
+        ConfigSection section = new ConfigSection();
+        section.setInt("int", 100000);
+        section.setLong("long", 10000000000L);
+        section.setDouble("double", 0.25);
+
+        Assertions.assertEquals(100000, section.getInt("int"));
+        Assertions.assertEquals(10000000000L, section.getLong("long"));
+        Assertions.assertEquals(0.25, section.getDouble("double"));
+        Assertions.assertInstanceOf(Long.class, section.getNumber("long"));
+
+        Assertions.assertEquals(100000, ConfigContext.INSTANCE.asInt(section.get("int")));
+        Assertions.assertEquals(0.25, ConfigContext.INSTANCE.asDouble(section.get("double")));
+        Assertions.assertThrows(SerializeException.class, () -> ConfigContext.INSTANCE.asLong(section.get("missing")));
+
+        Assertions.assertEquals(new ConfigSection().with("int", 100000), new ConfigSection().with("int", ConfigContext.INSTANCE.toInt(100000)));
+
+    }
+
+    @Test
+    public void testPersistent() {
+
+        ConfigSection section = new ConfigSection();
+        for(int i = 0 ; i < 2000 ; i++) {
+            section.set("key" + i, i);
+        }
+        section.set("child", new ConfigSection().with("value", "Hello"));
+
+        ConfigSection frozen = section.freeze();
+        Assertions.assertSame(frozen, frozen.freeze());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> frozen.set("key", "value"));
+
+        // Updating a frozen section leaves the original unchanged
+        ConfigSection updated = frozen.with("key1500", "updated").with("new", 12);
+        Assertions.assertEquals(2002, updated.size());
+        Assertions.assertEquals("updated", updated.getString("key1500"));
+        Assertions.assertEquals(12, updated.getInt("new"));
+        Assertions.assertEquals(2001, frozen.size());
+        Assertions.assertEquals(1500, frozen.getInt("key1500"));
+        Assertions.assertFalse(frozen.has("new"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> updated.set("key", "value"));
+
+        // Order is preserved
+        List<String> keys = new ArrayList<>(updated.getKeys());
+        Assertions.assertEquals("key0", keys.get(0));
+        Assertions.assertEquals("key1500", keys.get(1500));
+        Assertions.assertEquals("child", keys.get(2000));
+        Assertions.assertEquals("new", keys.get(2001));
+
+        // Unchanged values are shared
+        Assertions.assertSame(frozen.get("child"), updated.get("child"));
+        Assertions.assertSame(frozen.get("child"), new ConfigSection().with("child", frozen.get("child")).freeze().get("child"));
+
+        ConfigSection removed = updated.with("key0", (ConfigObject) null);
+        Assertions.assertEquals(2001, removed.size());
+        Assertions.assertFalse(removed.has("key0"));
+        Assertions.assertEquals("key1", removed.getKeys().iterator().next());
+        Assertions.assertEquals("updated", removed.getString("key1500"));
+
+        // Keys with colliding hashes
+        ConfigSection colliding = removed.with("Aa", 1).with("BB", 2).with("Aa", 3);
+        Assertions.assertEquals(3, colliding.getInt("Aa"));
+
+        // Empty frozen sections are separate objects, so meta properties set on one do not leak into others
+        ConfigSection empty = new ConfigSection().freeze();
+        empty.setMetaProperty("comment", "value");
+        Assertions.assertNull(new ConfigSection().freeze().getMetaProperty("comment"));
+        Assertions.assertEquals(2, colliding.getInt("BB"));
+        Assertions.assertEquals(2003, colliding.size());
+
+    }
+
+    @Test
+    public void testForEach() {
+
+        ConfigSection section = new ConfigSection();
+        for(int i = 0 ; i < 100 ; i++) {
+            section.set("key" + i, i);
+        }
+        for(int i = 0 ; i < 100 ; i += 2) {
+            section.remove("key" + i);
+        }
+
+        List<String> keys = new ArrayList<>();
+        AtomicInteger sum = new AtomicInteger();
+        section.forEach((key, value) -> {
+            keys.add(key);
+            sum.addAndGet(value.asNumber().intValue());
+        });
+        Assertions.assertEquals(new ArrayList<>(section.getKeys()), keys);
+        Assertions.assertEquals(2500, sum.get());
+
+        Assertions.assertEquals(50, section.size());
+        for(int i = 0 ; i < section.size() ; i++) {
+            Assertions.assertEquals("key" + (i * 2 + 1), section.keyAt(i));
+            Assertions.assertEquals(i * 2 + 1, section.valueAt(i).asNumber().intValue());
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> section.keyAt(50));
+
+        ConfigSection frozen = section.freeze();
+        Assertions.assertEquals("key99", frozen.keyAt(49));
+
+        // Positions skip the tombstones of removed entries which have not been compacted yet
+        ConfigSection few = new ConfigSection();
+        for(int i = 0 ; i < 10 ; i++) {
+            few.set("k" + i, i);
+        }
+        few.remove("k3");
+        Assertions.assertEquals("k2", few.keyAt(2));
+        Assertions.assertEquals("k4", few.keyAt(3));
+        Assertions.assertEquals(9, few.valueAt(8).asNumber().intValue());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> few.valueAt(9));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> few.keyAt(-1));
+
+        Assertions.assertEquals(new ArrayList<>(section.getKeys()), new ArrayList<>(ConfigContext.INSTANCE.asOrderedMap(section).getOrThrow().keySet()));
+        Assertions.assertEquals(50, ConfigContext.INSTANCE.getMapSize(section));
+
+    }
+
+    @Test
+    public void testBuilder() {
+
+        ConfigSection.Builder builder = ConfigSection.builder(4);
+        builder.add("key1", ConfigPrimitive.of("Hello"))
+                .add("key2", ConfigPrimitive.of(12))
+                .add("key3", null)
+                .add("key1", ConfigPrimitive.of("World"));
+
+        ConfigSection section = builder.build();
+        Assertions.assertEquals(2, section.size());
+        Assertions.assertEquals("World", section.getString("key1"));
+        Assertions.assertEquals("key1", section.keyAt(0));
+        Assertions.assertEquals("key2", section.keyAt(1));
+        Assertions.assertFalse(section.has("key3"));
+
+        section.set("key3", 3);
+        Assertions.assertEquals(3, section.size());
+        Assertions.assertEquals(3, section.getInt("key3"));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> builder.add("key4", ConfigPrimitive.of(1)));
+        Assertions.assertThrows(IllegalStateException.class, builder::build);
+
+    }
+
+    @Test
+    public void testLazy() {
+
+        AtomicInteger loads = new AtomicInteger();
+        ConfigSection section = ConfigSection.lazy(Arrays.asList("a", "b", "c"), i -> {
+            loads.incrementAndGet();
+            return ConfigPrimitive.of(i);
+        });
+
+        Assertions.assertEquals(3, section.size());
+        Assertions.assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(section.getKeys()));
+        Assertions.assertEquals(0, loads.get());
+
+        Assertions.assertEquals(1, section.getInt("b"));
+        Assertions.assertEquals(1, section.getInt("b"));
+        Assertions.assertEquals(1, loads.get());
+
+        section.set("d", 3);
+        section.remove("a");
+        Assertions.assertEquals(new ConfigSection().with("b", 1).with("c", 2).with("d", 3), section);
+        Assertions.assertEquals(3, loads.get());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigSection.lazy(Arrays.asList("a", "a"), ConfigPrimitive::of));
+    }
+
 }
@@ -78,6 +78,15 @@ public class TestContextMap {
         Assertions.assertEquals("Hello", ctx.getFirst(String.class).get());
     }
 
+    @Test
+    public void andSelfWorks() {
+
+        ContextMap ctx = ContextMap.of("Hello", 3);
+
+        Assertions.assertSame(ctx, ctx.and(ctx));
+        Assertions.assertEquals(2, ctx.and(ctx).values().size());
+    }
+
     @Test
     public void andStreamWorks() {
 
@@ -98,4 +107,27 @@ public class TestContextMap {
         Assertions.assertEquals(2, ctx.getFirst(Integer.class).get());
     }
 
+    @Test
+    public void andChainWorks() {
+
+        ContextMap ctx = ContextMap.EMPTY;
+        for(int i = 0 ; i < 10 ; i++) {
+            ctx = ctx.and(ContextMap.of(i, "Value" + i));
+        }
+
+        Assertions.assertEquals(20, ctx.values().size());
+        Assertions.assertEquals(0, ctx.values().get(0));
+        Assertions.assertEquals("Value9", ctx.values().get(19));
+
+        Assertions.assertEquals(0, ctx.getFirst(Integer.class).get());
+        Assertions.assertEquals(0, ctx.getFirst(Number.class).get());
+        Assertions.assertEquals("Value0", ctx.getFirst(CharSequence.class).get());
+        Assertions.assertEquals(10, ctx.getByClass(Number.class).count());
+        Assertions.assertFalse(ctx.getFirst(Double.class).isPresent());
+
+        // Lookups are cached, so repeated lookups should not allocate new results
+        Assertions.assertSame(ctx.getFirst(Integer.class), ctx.getFirst(Integer.class));
+        Assertions.assertSame(ctx.getFirst(Double.class), ctx.getFirst(Double.class));
+    }
+
 }
@@ -1,6 +1,7 @@
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.wallentines.mdcfg.*;
+import org.wallentines.mdcfg.registry.Identifier;
 import org.wallentines.mdcfg.serializer.*;
 
 import java.util.*;
@@ -538,4 +539,232 @@ public class TestSerializer {
 
     }
 
+    @Test
+    public void testCompiled() {
+
+        ObjectSerializer<TestSerializableMulti> base = ObjectSerializer.<TestSerializableMulti>builder()
+                .withEntry(Serializer.STRING.entry("string", TestSerializableMulti::getStrValue).acceptKey("str"))
+                .withEntry(Serializer.INT.entry("int", TestSerializableMulti::getIntValue).orElse(12))
+                .withEntry(Serializer.BOOLEAN.entry("bool", TestSerializableMulti::getBoolValue).optional())
+                .build(set -> SerializeResult.success(new TestSerializableMulti(set.get(0), set.get(1), set.get(2))));
+        Serializer<TestSerializableMulti> compiled = base.compile();
+
+        // Fields are written in declaration order
+        TestSerializableMulti multi = new TestSerializableMulti("Hello", 42, true);
+        ConfigSection serialized = compiled.serialize(ConfigContext.INSTANCE, multi).getOrThrow().asSection();
+        Assertions.assertEquals(Arrays.asList("string", "int", "bool"), new ArrayList<>(serialized.getKeys()));
+        Assertions.assertEquals(multi, compiled.deserialize(ConfigContext.INSTANCE, serialized).getOrThrow());
+        Assertions.assertEquals(base.serialize(ConfigContext.INSTANCE, multi).getOrThrow(), serialized);
+
+        // Optional and default values
+        ConfigSection partial = compiled.serialize(ConfigContext.INSTANCE, new TestSerializableMulti("Hello", null, null)).getOrThrow().asSection();
+        Assertions.assertEquals(2, partial.size());
+        Assertions.assertEquals(12, partial.getInt("int"));
+
+        // Alternate keys
+        ConfigSection alternate = new ConfigSection().with("str", "World");
+        TestSerializableMulti parsed = compiled.deserialize(ConfigContext.INSTANCE, alternate).getOrThrow();
+        Assertions.assertEquals(new TestSerializableMulti("World", 12, null), parsed);
+        Assertions.assertEquals(parsed, base.deserialize(ConfigContext.INSTANCE, alternate).getOrThrow());
+
+        // Failures
+        Assertions.assertFalse(compiled.deserialize(ConfigContext.INSTANCE, new ConfigSection().with("int", 3)).isComplete());
+        Assertions.assertFalse(compiled.deserialize(ConfigContext.INSTANCE, new ConfigSection().with("string", "Hello").with("int", "three")).isComplete());
+        Assertions.assertFalse(compiled.serialize(ConfigContext.INSTANCE, new TestSerializableMulti(null, 1, true)).isComplete());
+
+    }
+
+    @Test
+    public void testStacklessFailures() {
+
+        SerializeResult<String> stackless = SerializeResult.stacklessFailure("Failed");
+        Assertions.assertFalse(stackless.isComplete());
+        Assertions.assertEquals("Failed", stackless.getErrorMessage());
+        Assertions.assertEquals(0, stackless.getError().getStackTrace().length);
+        Assertions.assertThrows(SerializeException.class, stackless::getOrThrow);
+
+        Assertions.assertSame(SerializeResult.constantFailure("Failed"), SerializeResult.constantFailure("Failed"));
+        Assertions.assertSame(SerializeResult.success(null), SerializeResult.success(null));
+
+        // Failures are propagated without being copied
+        Assertions.assertSame(stackless.getError(), stackless.map(str -> SerializeResult.success(str.length())).getError());
+        Assertions.assertSame(stackless.getError(), stackless.flatMap(String::length).getError());
+
+        // Type mismatches in ConfigContext are shared and stackless
+        SerializeResult<String> notString = ConfigContext.INSTANCE.asString(new ConfigPrimitive(12));
+        Assertions.assertFalse(notString.isComplete());
+        Assertions.assertSame(notString, ConfigContext.INSTANCE.asString(new ConfigPrimitive(13)));
+        Assertions.assertEquals(0, notString.getError().getStackTrace().length);
+
+        // or() falls back on failure
+        Serializer<String> or = Serializer.STRING.or(Serializer.INT.map(
+                str -> SerializeResult.success(Integer.parseInt(str)),
+                num -> SerializeResult.success(num.toString())));
+        Assertions.assertEquals("12", or.deserialize(ConfigContext.INSTANCE, new ConfigPrimitive(12)).getOrThrow());
+        Assertions.assertEquals("Hello", or.deserialize(ConfigContext.INSTANCE, new ConfigPrimitive("Hello")).getOrThrow());
+        Assertions.assertFalse(or.deserialize(ConfigContext.INSTANCE, new ConfigPrimitive(true)).isComplete());
+
+    }
+
+    @Test
+    public void testParallel() {
+
+        ConfigList list = new ConfigList();
+        for(int i = 0 ; i < 10000 ; i++) {
+            list.add(i);
+        }
+
+        ListSerializer<Integer> serializer = Serializer.INT.listOf().parallel(100);
+        List<Integer> out = new ArrayList<>(serializer.deserialize(ConfigContext.INSTANCE, list).getOrThrow());
+        Assertions.assertEquals(10000, out.size());
+        for(int i = 0 ; i < 10000 ; i++) {
+            Assertions.assertEquals(i, out.get(i));
+        }
+
+        ConfigSection section = new ConfigSection();
+        for(int i = 0 ; i < 10000 ; i++) {
+            section.set("key" + i, i);
+        }
+        Map<String, Integer> map = Serializer.INT.mapOf().parallel(100).deserialize(ConfigContext.INSTANCE, section).getOrThrow();
+        Assertions.assertEquals(10000, map.size());
+        Assertions.assertEquals(5000, map.get("key5000"));
+
+        // Errors are reported in order
+        ConfigList invalid = list.copy();
+        invalid.add("Invalid 1");
+        invalid.add("Invalid 2");
+        List<String> errors = new ArrayList<>();
+        Collection<Integer> filtered = Serializer.INT.filteredListOf(err -> errors.add(err.getMessage())).parallel(100)
+                .deserialize(ConfigContext.INSTANCE, invalid).getOrThrow();
+        Assertions.assertEquals(10000, filtered.size());
+        Assertions.assertEquals(2, errors.size());
+        Assertions.assertFalse(serializer.deserialize(ConfigContext.INSTANCE, invalid).isComplete());
+
+        // Contexts which are not thread-safe are read sequentially
+        Assertions.assertTrue(ConfigContext.INSTANCE.isThreadSafe());
+        Thread caller = Thread.currentThread();
+        SerializeContext<ConfigObject> unsafe = new DelegatedContext<ConfigObject, Void>(ConfigContext.INSTANCE, null) {
+            @Override
+            public boolean isThreadSafe() {
+                return false;
+            }
+        };
+        Serializer<Integer> checked = Serializer.INT.flatMap(i -> i, i -> {
+            Assertions.assertSame(caller, Thread.currentThread());
+            return i;
+        });
+        Assertions.assertEquals(10000, checked.listOf().parallel(100).deserialize(unsafe, list).getOrThrow().size());
+    }
+
+    @Test
+    public void testMemoize() {
+
+        int[] calls = new int[1];
+        InlineSerializer<Identifier> base = InlineSerializer.of(Identifier::toString, str -> {
+            calls[0]++;
+            return Identifier.parseOrDefault(str, "test");
+        });
+        MemoizedInlineSerializer<Identifier> memoized = base.memoize(2);
+
+        ConfigPrimitive id = new ConfigPrimitive("test:one");
+        Assertions.assertEquals(new Identifier("test", "one"), memoized.deserialize(ConfigContext.INSTANCE, id).getOrThrow());
+        Assertions.assertEquals(new Identifier("test", "one"), memoized.deserialize(ConfigContext.INSTANCE, id).getOrThrow());
+        Assertions.assertEquals(1, calls[0]);
+        Assertions.assertEquals(1, memoized.getHits());
+        Assertions.assertEquals(1, memoized.getMisses());
+
+        // Results are cached separately for each context
+        memoized.deserialize(ConfigContext.INSTANCE.withContextValue(1), id);
+        Assertions.assertEquals(2, calls[0]);
+
+        // Results which have not been used recently are evicted first
+        memoized.readString(ConfigContext.INSTANCE, "test:two");
+        memoized.readString(ConfigContext.INSTANCE, "test:three");
+        memoized.readString(ConfigContext.INSTANCE, "test:one");
+        Assertions.assertEquals(4, calls[0]);
+        memoized.readString(ConfigContext.INSTANCE, "test:two");
+        Assertions.assertEquals(5, calls[0]);
+        Assertions.assertEquals("test:two", memoized.writeString(ConfigContext.INSTANCE, new Identifier("test", "two")).getOrThrow());
+
+        // Only primitives are cached
+        MemoizedSerializer<Collection<Integer>> list = Serializer.INT.listOf().memoize(10);
+        ConfigList values = new ConfigList().append(1).append(2);
+        Assertions.assertNotSame(list.deserialize(ConfigContext.INSTANCE, values).getOrThrow(), list.deserialize(ConfigContext.INSTANCE, values).getOrThrow());
+        Assertions.assertEquals(0, list.getHits());
+
+        MemoizedSerializer<Integer> ints = Serializer.INT.memoize(10);
+        Assertions.assertEquals(12, ints.deserialize(ConfigContext.INSTANCE, new ConfigPrimitive(12)).getOrThrow());
+        Assertions.assertEquals(12, ints.deserialize(ConfigContext.INSTANCE, new ConfigPrimitive(12)).getOrThrow());
+        Assertions.assertFalse(ints.deserialize(ConfigContext.INSTANCE, new ConfigPrimitive("Hello")).isComplete());
+        Assertions.assertEquals(1, ints.getHits());
+
+        // Cached serialized values are copied, so modifying one result does not affect later results
+        ConfigObject first = ints.serialize(ConfigContext.INSTANCE, 300).getOrThrow();
+        ConfigObject second = ints.serialize(ConfigContext.INSTANCE, 300).getOrThrow();
+        Assertions.assertEquals(first, second);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(2, ints.getHits());
+    }
+
+    @Test
+    public void testDispatchTable() {
+
+        Map<String, Serializer<Typed>> table = new HashMap<>();
+        table.put("t1", Typed.s1);
+        table.put("t2", Typed.s2);
+        Serializer<Typed> serializer = InlineSerializer.RAW.dispatchTable("type", table, (Typed typed) -> typed.type);
+
+        ConfigSection e1 = new ConfigSection()
+                .with("value", "v1")
+                .with("type", "t1");
+
+        Typed d1 = serializer.deserialize(ConfigContext.INSTANCE, e1).getOrThrow();
+        Assertions.assertEquals("t1", d1.type);
+        Assertions.assertEquals("v1", d1.value);
+        Assertions.assertEquals(e1, serializer.serialize(ConfigContext.INSTANCE, d1).getOrThrow());
+
+        Typed d2 = serializer.deserialize(ConfigContext.INSTANCE, new ConfigSection().with("type", "t2").with("value", "v2")).getOrThrow();
+        Assertions.assertEquals("t2", d2.type);
+
+        Assertions.assertFalse(serializer.deserialize(ConfigContext.INSTANCE, new ConfigSection().with("type", "t3").with("value", "v3")).isComplete());
+        Assertions.assertFalse(serializer.deserialize(ConfigContext.INSTANCE, new ConfigSection().with("value", "v3")).isComplete());
+        Assertions.assertFalse(serializer.serialize(ConfigContext.INSTANCE, new Typed("t3", "v3")).isComplete());
+
+        // Maps returned by value serializers are never modified, whether they are frozen or owned by someone else
+        ConfigSection cached = new ConfigSection().with("value", "v4").freeze();
+        ConfigSection owned = new ConfigSection().with("value", "v5");
+        Serializer<Typed> frozen = new Serializer<Typed>() {
+            @Override
+            public <O> SerializeResult<O> serialize(SerializeContext<O> context, Typed value) {
+                return SerializeResult.success(ConfigContext.INSTANCE.convert(context, cached));
+            }
+
+            @Override
+            public <O> SerializeResult<Typed> deserialize(SerializeContext<O> context, O value) {
+                return Typed.s1.deserialize(context, value);
+            }
+        };
+        Serializer<Typed> frozenDispatch = InlineSerializer.RAW.dispatchTable("type", Collections.singletonMap("t4", frozen), (Typed typed) -> typed.type);
+        ConfigObject out = frozenDispatch.serialize(ConfigContext.INSTANCE, new Typed("t4", "v4")).getOrThrow();
+        Assertions.assertEquals(new ConfigSection().with("value", "v4").with("type", "t4"), out);
+        Assertions.assertFalse(cached.has("type"));
+
+        Serializer<Typed> shared = new Serializer<Typed>() {
+            @Override
+            public <O> SerializeResult<O> serialize(SerializeContext<O> context, Typed value) {
+                return SerializeResult.success(ConfigContext.INSTANCE.convert(context, owned));
+            }
+
+            @Override
+            public <O> SerializeResult<Typed> deserialize(SerializeContext<O> context, O value) {
+                return Typed.s1.deserialize(context, value);
+            }
+        };
+        Serializer<Typed> sharedDispatch = InlineSerializer.RAW.dispatchTable("type", Collections.singletonMap("t5", shared), (Typed typed) -> typed.type);
+        out = sharedDispatch.serialize(ConfigContext.INSTANCE, new Typed("t5", "v5")).getOrThrow();
+        Assertions.assertEquals(new ConfigSection().with("value", "v5").with("type", "t5"), out);
+        Assertions.assertNotSame(owned, out);
+        Assertions.assertEquals(new ConfigSection().with("value", "v5"), owned);
+    }
+
 }
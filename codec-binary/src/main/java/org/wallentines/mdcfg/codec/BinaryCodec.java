@@ -4,6 +4,8 @@ import org.jetbrains.annotations.NotNull;
 import org.wallentines.mdcfg.ByteBufferInputStream;
 import org.wallentines.mdcfg.ConfigPrimitive;
 import org.wallentines.mdcfg.serializer.SerializeContext;
+import org.wallentines.mdcfg.serializer.ValueReader;
+import org.wallentines.mdcfg.serializer.ValueWriter;
 
 import java.io.*;
 import java.math.BigDecimal;
@@ -22,6 +24,7 @@ import java.util.zip.InflaterInputStream;
 public class BinaryCodec implements Codec {
 
     private static final String HEADER = "MDCB";
+    private static final int MAX_SIZE_HINT = 65536;
 
     private final Compression compression;
 
@@ -61,6 +64,15 @@ public class BinaryCodec implements Codec {
 
     }
 
+    @Override
+    public ValueWriter createWriter(@NotNull OutputStream stream, Charset charset) throws IOException {
+
+        stream.write(HEADER.getBytes(StandardCharsets.US_ASCII));
+        stream.write(compression.index());
+
+        return new Writer(compression.createOutputStream(stream));
+    }
+
     private <T> void encodeValue(SerializeContext<T> context, T input, DataOutputStream dos) throws IOException {
 
         switch (context.getType(input)) {
@@ -82,14 +94,10 @@ public class BinaryCodec implements Codec {
             case BLOB:
                 ByteBuffer buffer = context.asBlob(input).getOrThrow();
                 dos.writeByte(Type.BLOB.index());
-                dos.write(buffer.limit());
+                dos.writeInt(buffer.limit());
 
-                try(InputStream is = new ByteBufferInputStream(buffer)) {
-                    byte[] copyBuffer = new byte[1024];
-                    int read;
-                    while ((read = is.read(copyBuffer)) > 0) {
-                        dos.write(copyBuffer, 0, read);
-                    }
+                try(ByteBufferInputStream is = new ByteBufferInputStream(buffer)) {
+                    is.writeTo(dos);
                 } catch (IOException ex) {
                     throw new EncodeException("An IOException occurred while writing a blob!", ex);
                 }
@@ -107,13 +115,20 @@ public class BinaryCodec implements Codec {
                 break;
 
             case MAP:
-                Map<String, T> entries = context.asOrderedMap(input).getOrThrow();
+                int size = context.getMapSize(input);
                 dos.writeByte(Type.SECTION.index());
-                dos.writeInt(entries.size());
+                dos.writeInt(size);
 
-                for(String s : entries.keySet()) {
-                    writeString(s, dos);
-                    encodeValue(context, entries.get(s), dos);
+                int[] count = new int[1];
+                context.forEachEntry(input, (key, entry) -> {
+                    if(count[0]++ == size) {
+                        throw new EncodeException("A map was modified while it was being encoded!");
+                    }
+                    writeString(key, dos);
+                    encodeValue(context, entry, dos);
+                });
+                if(count[0] != size) {
+                    throw new EncodeException("A map was modified while it was being encoded!");
                 }
                 break;
 
@@ -181,12 +196,156 @@ public class BinaryCodec implements Codec {
     }
 
 
+    private class Writer implements ValueWriter {
+
+        private final DataOutputStream dos;
+        private int[] remaining = new int[16];
+        private boolean[] maps = new boolean[16];
+        private int depth;
+        private boolean hasKey;
+
+        public Writer(DataOutputStream dos) {
+            this.dos = dos;
+        }
+
+        private void beforeValue() {
+            if(depth == 0) return;
+            if(maps[depth - 1]) {
+                if(!hasKey) throw new EncodeException("Expected a key before a map value!");
+                hasKey = false;
+            } else if(remaining[depth - 1]-- == 0) {
+                throw new EncodeException("Too many values were written to a list!");
+            }
+        }
+
+        private void begin(boolean map, int size) throws IOException {
+            beforeValue();
+            dos.writeByte(map ? Type.SECTION.index() : Type.LIST.index());
+            dos.writeInt(size);
+            if(depth == remaining.length) {
+                remaining = Arrays.copyOf(remaining, depth * 2);
+                maps = Arrays.copyOf(maps, depth * 2);
+            }
+            remaining[depth] = size;
+            maps[depth] = map;
+            depth++;
+        }
+
+        private void end(boolean map) {
+            if(depth == 0 || maps[depth - 1] != map) {
+                throw new EncodeException(map ? "Not writing a map!" : "Not writing a list!");
+            }
+            if(hasKey) throw new EncodeException("Expected a value after key!");
+            if(remaining[depth - 1] != 0) {
+                throw new EncodeException("Too few values were written to a " + (map ? "map!" : "list!"));
+            }
+            depth--;
+        }
+
+        @Override
+        public void writeNull() throws IOException {
+            beforeValue();
+            dos.writeByte(Type.NONE.index());
+        }
+
+        @Override
+        public void writeString(String value) throws IOException {
+            beforeValue();
+            dos.writeByte(Type.STRING.index());
+            BinaryCodec.this.writeString(value, dos);
+        }
+
+        @Override
+        public void writeNumber(Number value) throws IOException {
+            beforeValue();
+            encodeNumber(value, dos);
+        }
+
+        @Override
+        public void writeBoolean(boolean value) throws IOException {
+            beforeValue();
+            dos.writeByte(Type.BOOLEAN.index());
+            dos.writeBoolean(value);
+        }
+
+        @Override
+        public void writeBlob(ByteBuffer value) throws IOException {
+            beforeValue();
+            dos.writeByte(Type.BLOB.index());
+            dos.writeInt(value.limit());
+            try(ByteBufferInputStream is = new ByteBufferInputStream(value)) {
+                is.writeTo(dos);
+            }
+        }
+
+        @Override
+        public void beginList(int size) throws IOException {
+            begin(false, size);
+        }
+
+        @Override
+        public void endList() {
+            end(false);
+        }
+
+        @Override
+        public void beginMap(int size) throws IOException {
+            begin(true, size);
+        }
+
+        @Override
+        public void key(String key) throws IOException {
+            if(depth == 0 || !maps[depth - 1]) throw new EncodeException("Not writing a map!");
+            if(hasKey) throw new EncodeException("Expected a value after key!");
+            if(remaining[depth - 1]-- == 0) {
+                throw new EncodeException("Too many entries were written to a map!");
+            }
+            BinaryCodec.this.writeString(key, dos);
+            hasKey = true;
+        }
+
+        @Override
+        public void endMap() {
+            end(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if(depth != 0) throw new EncodeException("A list or map was not finished!");
+            } finally {
+                dos.close();
+            }
+        }
+    }
+
+
     @Override
     public <T> T decode(@NotNull SerializeContext<T> context, @NotNull InputStream stream, Charset charset) throws DecodeException, IOException {
 
         return new Decoder<>(context).decode(stream);
     }
 
+    @Override
+    public ValueReader createReader(@NotNull InputStream stream, Charset charset) throws IOException {
+        return new TokenReader(openInputStream(stream));
+    }
+
+    private static DataInputStream openInputStream(InputStream stream) throws IOException {
+
+        byte[] headerBytes = new byte[HEADER.length()];
+        if(stream.read(headerBytes) != headerBytes.length || !new String(headerBytes, StandardCharsets.US_ASCII).equals(HEADER)) {
+            throw new DecodeException("Unable to decode config binary! Missing or invalid header!");
+        }
+
+        Compression compression = Compression.byIndex(stream.read());
+        if(compression == null) {
+            throw new DecodeException("Unable to decode config binary! Unknown compression type!");
+        }
+
+        return compression.createInputStream(stream);
+    }
+
     private static class Decoder<T> {
 
         private final SerializeContext<T> context;
@@ -198,17 +357,7 @@ public class BinaryCodec implements Codec {
 
         private T decode(InputStream stream) throws DecodeException, IOException {
 
-            byte[] headerBytes = new byte[HEADER.length()];
-            if(stream.read(headerBytes) != headerBytes.length || !new String(headerBytes, StandardCharsets.US_ASCII).equals(HEADER)) {
-                throw new DecodeException("Unable to decode config binary! Missing or invalid header!");
-            }
-
-            Compression compression = Compression.byIndex(stream.read());
-            if(compression == null) {
-                throw new DecodeException("Unable to decode config binary! Unknown compression type!");
-            }
-
-            try(DataInputStream dis = compression.createInputStream(stream)) {
+            try(DataInputStream dis = openInputStream(stream)) {
                 return decodeValue(context, dis);
             }
         }
@@ -227,16 +376,22 @@ public class BinaryCodec implements Codec {
                     return context.nullValue();
 
                 case INTEGER:
+                    return context.toInt(stream.readInt());
+
                 case LONG:
+                    return context.toLong(stream.readLong());
+
+                case DOUBLE:
+                    return context.toDouble(stream.readDouble());
+
                 case SHORT:
                 case BYTE:
                 case FLOAT:
-                case DOUBLE:
                 case BIG_DECIMAL:
-                    return context.toNumber(decodeNumber(t, stream));
+                    return context.toNumber(decodeNumber(t, stream, copyBuffer));
 
                 case STRING:
-                    return context.toString(readString(stream));
+                    return context.toString(readString(stream, copyBuffer));
 
                 case BOOLEAN:
                     return context.toBoolean(stream.readBoolean());
@@ -247,23 +402,18 @@ public class BinaryCodec implements Codec {
                         throw new DecodeException("Unable to decode empty blob!");
                     }
 
-                    ByteBuffer buf = ByteBuffer.allocate(bytes);
-                    int remaining = bytes;
-                    while(remaining > 0) {
-
-                        int read = stream.read(copyBuffer, 0, Math.min(remaining, copyBuffer.length));
-                        if(read <= 0) {
-                            throw new DecodeException("Unexpected EOF encountered while reading a blob!");
-                        }
-                        remaining -= read;
-                        buf.put(copyBuffer, 0, read);
+                    byte[] blob = new byte[bytes];
+                    try {
+                        stream.readFully(blob);
+                    } catch (EOFException ex) {
+                        throw new DecodeException("Unexpected EOF encountered while reading a blob!", ex);
                     }
-                    return context.toBlob(buf);
+                    return context.toBlob(ByteBuffer.wrap(blob));
 
                 case LIST: {
 
                     int length = stream.readInt();
-                    List<T> out = new ArrayList<>();
+                    List<T> out = new ArrayList<>(sizeHint(length));
                     for (int i = 0; i < length; i++) {
                         out.add(decodeValue(context, stream));
                     }
@@ -272,62 +422,265 @@ public class BinaryCodec implements Codec {
                 case SECTION: {
 
                     int length = stream.readInt();
-                    Map<String, T> out = new LinkedHashMap<>();
+                    T out = context.toMap(sizeHint(length));
                     for (int i = 0; i < length; i++) {
-                        out.put(readString(stream), decodeValue(context, stream));
+                        String key = readString(stream, copyBuffer);
+                        out = context.set(key, decodeValue(context, stream), out);
                     }
-                    return context.toMap(out);
+                    return out;
                 }
             }
 
             throw new DecodeException("Don't know how to decode type " + t.name() + "!");
         }
 
-        private Number decodeNumber(Type type, DataInputStream stream) throws IOException {
+        // Lengths are read from the stream, so a corrupt length should not be able to allocate huge containers up front
+        private int sizeHint(int length) {
+            return Math.max(0, Math.min(length, MAX_SIZE_HINT));
+        }
+    }
 
-            switch (type) {
-                case INTEGER:
-                    return stream.readInt();
-                case LONG:
-                    return stream.readLong();
-                case SHORT:
-                    return stream.readShort();
-                case BYTE:
-                    return stream.readByte();
-                case FLOAT:
-                    return stream.readFloat();
-                case DOUBLE:
-                    return stream.readDouble();
-                case BIG_DECIMAL:
-                    return new BigDecimal(readString(stream));
+    private static class TokenReader implements ValueReader {
+
+        private final DataInputStream dis;
+        private final byte[] copyBuffer = new byte[1024];
+        private int[] remaining = new int[16];
+        private boolean[] maps = new boolean[16];
+        private int depth;
+        private boolean expectKey;
+        private boolean finished;
+        private Type next;
+
+        public TokenReader(DataInputStream dis) {
+            this.dis = dis;
+        }
+
+        @Override
+        public Token peek() throws IOException {
+
+            if(next == null) {
+                if(depth == 0) {
+                    if(finished) return Token.END;
+                } else if(maps[depth - 1]) {
+                    if(expectKey) return remaining[depth - 1] == 0 ? Token.END : Token.KEY;
+                } else if(remaining[depth - 1] == 0) {
+                    return Token.END;
+                }
+
+                int typeIndex = dis.readByte();
+                next = Type.byIndex(typeIndex);
+                if(next == null) {
+                    throw new DecodeException("Found invalid type " + typeIndex + "!");
+                }
             }
 
-            throw new DecodeException("Invalid number type!");
+            switch (next) {
+                case NONE:
+                    return Token.NULL;
+                case STRING:
+                    return Token.STRING;
+                case BOOLEAN:
+                    return Token.BOOLEAN;
+                case BLOB:
+                    return Token.BLOB;
+                case LIST:
+                    return Token.LIST;
+                case SECTION:
+                    return Token.MAP;
+                default:
+                    return Token.NUMBER;
+            }
         }
 
-        private String readString(DataInputStream stream) throws IOException {
+        private void take(Token token) throws IOException {
+            Token found = peek();
+            if(found != token) {
+                throw new DecodeException("Expected " + token + ", found " + found + "!");
+            }
+            next = null;
 
-            int length = stream.readInt();
-            if(length == 0) {
-                return "";
+            if(depth == 0) {
+                finished = true;
+            } else if(maps[depth - 1]) {
+                expectKey = true;
+            } else {
+                remaining[depth - 1]--;
             }
+        }
 
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        private void begin(Token token, boolean map) throws IOException {
+            take(token);
+            int length = dis.readInt();
+            if(length < 0) {
+                throw new DecodeException("Found negative length " + length + "!");
+            }
+            if(depth == remaining.length) {
+                remaining = Arrays.copyOf(remaining, depth * 2);
+                maps = Arrays.copyOf(maps, depth * 2);
+            }
+            remaining[depth] = length;
+            maps[depth] = map;
+            depth++;
+            expectKey = map;
+        }
 
-            int remaining = length;
-            while(remaining > 0) {
+        private void end(boolean map) throws IOException {
+            if(depth == 0 || maps[depth - 1] != map) {
+                throw new DecodeException(map ? "Not reading a map!" : "Not reading a list!");
+            }
+            if(remaining[depth - 1] != 0 || (map && !expectKey)) {
+                throw new DecodeException(map ? "There are entries left in the map!" : "There are values left in the list!");
+            }
+            depth--;
+            expectKey = depth > 0 && maps[depth - 1];
+        }
 
-                int bytesRead = stream.read(copyBuffer, 0, Math.min(remaining, copyBuffer.length));
-                if(bytesRead <= 0) {
-                    throw new DecodeException("Unexpected EOF encountered while reading a String!");
+        private void skipBytes(int length) throws IOException {
+            while(length > 0) {
+                int skipped = dis.skipBytes(length);
+                if(skipped <= 0) {
+                    // skipBytes() may return 0 before EOF, so fall back to a read
+                    if(dis.read() == -1) throw new DecodeException("Unexpected EOF encountered while skipping a value!");
+                    skipped = 1;
                 }
+                length -= skipped;
+            }
+        }
+
+        @Override
+        public void readNull() throws IOException {
+            take(Token.NULL);
+        }
+
+        @Override
+        public String readString() throws IOException {
+            take(Token.STRING);
+            return BinaryCodec.readString(dis, copyBuffer);
+        }
+
+        @Override
+        public Number readNumber() throws IOException {
+            Type type = next;
+            take(Token.NUMBER);
+            return decodeNumber(type, dis, copyBuffer);
+        }
 
-                remaining -= bytesRead;
-                bos.write(copyBuffer, 0, bytesRead);
+        @Override
+        public boolean readBoolean() throws IOException {
+            take(Token.BOOLEAN);
+            return dis.readBoolean();
+        }
+
+        @Override
+        public ByteBuffer readBlob() throws IOException {
+            take(Token.BLOB);
+            int bytes = dis.readInt();
+            if(bytes < 1) {
+                throw new DecodeException("Unable to decode empty blob!");
+            }
+
+            byte[] blob = new byte[bytes];
+            try {
+                dis.readFully(blob);
+            } catch (EOFException ex) {
+                throw new DecodeException("Unexpected EOF encountered while reading a blob!", ex);
+            }
+            return ByteBuffer.wrap(blob);
+        }
+
+        @Override
+        public void beginList() throws IOException {
+            begin(Token.LIST, false);
+        }
+
+        @Override
+        public void endList() throws IOException {
+            end(false);
+        }
+
+        @Override
+        public void beginMap() throws IOException {
+            begin(Token.MAP, true);
+        }
+
+        @Override
+        public String nextKey() throws IOException {
+            if(peek() != Token.KEY) {
+                throw new DecodeException("Not expecting a map key!");
+            }
+            remaining[depth - 1]--;
+            expectKey = false;
+            return BinaryCodec.readString(dis, copyBuffer);
+        }
+
+        @Override
+        public void endMap() throws IOException {
+            end(true);
+        }
+
+        @Override
+        public void skip() throws IOException {
+
+            // Strings and blobs are length-prefixed, so they can be skipped without reading them
+            Token token = peek();
+            if(token == Token.STRING || token == Token.BLOB) {
+                take(token);
+                skipBytes(dis.readInt());
+            } else {
+                ValueReader.super.skip();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            dis.close();
+        }
+    }
+
+    private static Number decodeNumber(Type type, DataInputStream stream, byte[] copyBuffer) throws IOException {
+
+        switch (type) {
+            case INTEGER:
+                return stream.readInt();
+            case LONG:
+                return stream.readLong();
+            case SHORT:
+                return stream.readShort();
+            case BYTE:
+                return stream.readByte();
+            case FLOAT:
+                return stream.readFloat();
+            case DOUBLE:
+                return stream.readDouble();
+            case BIG_DECIMAL:
+                return new BigDecimal(readString(stream, copyBuffer));
+        }
+
+        throw new DecodeException("Invalid number type!");
+    }
+
+    private static String readString(DataInputStream stream, byte[] copyBuffer) throws IOException {
+
+        int length = stream.readInt();
+        if(length == 0) {
+            return "";
+        }
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        int remaining = length;
+        while(remaining > 0) {
+
+            int bytesRead = stream.read(copyBuffer, 0, Math.min(remaining, copyBuffer.length));
+            if(bytesRead <= 0) {
+                throw new DecodeException("Unexpected EOF encountered while reading a String!");
             }
 
-            return bos.toString(StandardCharsets.UTF_8);
+            remaining -= bytesRead;
+            bos.write(copyBuffer, 0, bytesRead);
         }
+
+        return bos.toString(StandardCharsets.UTF_8);
     }
 
 
@@ -6,12 +6,18 @@ import org.wallentines.mdcfg.ConfigSection;
 import org.wallentines.mdcfg.codec.BinaryCodec;
 import org.wallentines.mdcfg.codec.FileCodec;
 import org.wallentines.mdcfg.serializer.ConfigContext;
+import org.wallentines.mdcfg.serializer.ObjectSerializer;
+import org.wallentines.mdcfg.serializer.Serializer;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Random;
 
 public class TestBinary {
@@ -141,4 +147,33 @@ public class TestBinary {
             Assertions.fail("An exception occurred while reading binary data!", ex);
         }
     }
+
+    @Test
+    public void testStreaming() throws IOException {
+
+        Serializer<Collection<Integer>> inner = Serializer.INT.listOf();
+        Serializer<Collection<Collection<Integer>>> serializer = ObjectSerializer.create(
+                Serializer.STRING.entry("name", (Collection<Collection<Integer>> lists) -> "Lists"),
+                inner.listOf().entry("lists", (Collection<Collection<Integer>> lists) -> lists),
+                (String name, Collection<Collection<Integer>> lists) -> lists
+        );
+
+        Collection<Collection<Integer>> value = Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(), Arrays.asList(-4));
+        BinaryCodec codec = new BinaryCodec(BinaryCodec.Compression.NONE);
+
+        ByteArrayOutputStream tree = new ByteArrayOutputStream();
+        codec.encode(ConfigContext.INSTANCE, serializer.serialize(ConfigContext.INSTANCE, value).getOrThrow(), tree);
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        codec.encode(ConfigContext.INSTANCE, serializer, value, streamed);
+
+        Assertions.assertArrayEquals(tree.toByteArray(), streamed.toByteArray());
+
+        ConfigObject decoded = codec.decode(ConfigContext.INSTANCE, new ByteArrayInputStream(streamed.toByteArray()));
+        Assertions.assertEquals(value, serializer.deserialize(ConfigContext.INSTANCE, decoded).getOrThrow());
+
+        Collection<Collection<Integer>> read = codec.decode(ConfigContext.INSTANCE, serializer, new ByteArrayInputStream(streamed.toByteArray())).getOrThrow();
+        Assertions.assertEquals(value, read);
+    }
+
 }
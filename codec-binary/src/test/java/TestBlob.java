@@ -5,7 +5,11 @@ import org.wallentines.mdcfg.codec.BinaryCodec;
 import org.wallentines.mdcfg.serializer.ConfigContext;
 import org.wallentines.mdcfg.serializer.Serializer;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.Random;
 
 public class TestBlob {
 
@@ -43,4 +47,29 @@ public class TestBlob {
 
     }
 
+    @Test
+    public void testBlobValue() {
+
+        byte[] data = new byte[5000];
+        new Random().nextBytes(data);
+
+        ConfigSection sec = new ConfigSection()
+                .with("blob", new ConfigBlob(data))
+                .with("direct", new ConfigBlob(ByteBuffer.allocateDirect(300)))
+                .with("after", "value");
+
+        BinaryCodec codec = new BinaryCodec(BinaryCodec.Compression.NONE);
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            codec.encode(ConfigContext.INSTANCE, sec, bos, Charset.defaultCharset());
+
+            ConfigSection decoded = codec.decode(ConfigContext.INSTANCE, new ByteArrayInputStream(bos.toByteArray()), Charset.defaultCharset()).asSection();
+            Assertions.assertEquals(sec, decoded);
+            Assertions.assertEquals("value", decoded.getString("after"));
+        } catch (Exception e) {
+            Assertions.fail(e);
+        }
+
+    }
+
 }
@@ -17,6 +17,13 @@ public class GsonContext implements SerializeContext<JsonElement> {
      */
     public static final GsonContext INSTANCE = new GsonContext();
 
+    private static final SerializeResult<String> NOT_A_STRING = SerializeResult.stacklessFailure("Not a string");
+    private static final SerializeResult<Number> NOT_A_NUMBER = SerializeResult.stacklessFailure("Not a number");
+    private static final SerializeResult<Boolean> NOT_A_BOOLEAN = SerializeResult.stacklessFailure("Not a boolean");
+    private static final SerializeResult<ByteBuffer> BLOBS_UNSUPPORTED = SerializeResult.stacklessFailure("Blobs are not supported in Gson");
+    private static final SerializeResult<Collection<JsonElement>> NOT_A_LIST = SerializeResult.stacklessFailure("Not a list");
+    private static final SerializeResult<Map<String, JsonElement>> NOT_A_MAP = SerializeResult.stacklessFailure("Not a map");
+
     private final boolean hasKeySet;
     private final boolean hasAsMap;
 
@@ -37,30 +44,30 @@ public class GsonContext implements SerializeContext<JsonElement> {
 
     @Override
     public SerializeResult<String> asString(JsonElement object) {
-        if(!isString(object)) return SerializeResult.failure("Not a string");
+        if(!isString(object)) return NOT_A_STRING;
         return SerializeResult.success(object.getAsString());
     }
 
     @Override
     public SerializeResult<Number> asNumber(JsonElement object) {
-        if(!isNumber(object)) return SerializeResult.failure("Not a number");
+        if(!isNumber(object)) return NOT_A_NUMBER;
         return SerializeResult.success(object.getAsNumber());
     }
 
     @Override
     public SerializeResult<Boolean> asBoolean(JsonElement object) {
-        if(!isBoolean(object)) return SerializeResult.failure("Not a boolean");
+        if(!isBoolean(object)) return NOT_A_BOOLEAN;
         return SerializeResult.success(object.getAsBoolean());
     }
 
     @Override
     public SerializeResult<ByteBuffer> asBlob(JsonElement object) {
-        return SerializeResult.failure("Blobs are not supported in Gson");
+        return BLOBS_UNSUPPORTED;
     }
 
     @Override
     public SerializeResult<Collection<JsonElement>> asList(JsonElement object) {
-        if(!isList(object)) return SerializeResult.failure("Not a string");
+        if(!isList(object)) return NOT_A_LIST;
         if(hasAsMap) {
             return SerializeResult.success(object.getAsJsonArray().asList());
         }
@@ -73,7 +80,7 @@ public class GsonContext implements SerializeContext<JsonElement> {
 
     @Override
     public SerializeResult<Map<String, JsonElement>> asMap(JsonElement object) {
-        if(!isMap(object)) return SerializeResult.failure("Not a map");
+        if(!isMap(object)) return NOT_A_MAP;
         if(hasAsMap) {
             return SerializeResult.success(object.getAsJsonObject().asMap());
         }
@@ -139,6 +146,20 @@ public class GsonContext implements SerializeContext<JsonElement> {
         return object.getAsJsonObject().entrySet().stream().map(Map.Entry::getKey).collect(Collectors.toList());
     }
 
+    @Override
+    public int getMapSize(JsonElement object) {
+        if(!isMap(object)) return 0;
+        return object.getAsJsonObject().entrySet().size();
+    }
+
+    @Override
+    public <E extends Exception> void forEachEntry(JsonElement object, EntryConsumer<JsonElement, E> consumer) throws E {
+        if(!isMap(object)) return;
+        for(Map.Entry<String, JsonElement> e : object.getAsJsonObject().entrySet()) {
+            consumer.accept(e.getKey(), e.getValue());
+        }
+    }
+
     @Override
     public JsonElement get(String key, JsonElement object) {
         if(!isMap(object)) return null;
@@ -188,6 +209,13 @@ public class GsonContext implements SerializeContext<JsonElement> {
         return JsonNull.INSTANCE;
     }
 
+    @Override
+    public JsonElement add(JsonElement value, JsonElement object) {
+        if(!isList(object)) return nullValue();
+        object.getAsJsonArray().add(value);
+        return object;
+    }
+
     @Override
     public JsonElement mergeList(Collection<JsonElement> list, JsonElement object) {
         if(!isList(object)) return nullValue();
@@ -237,6 +265,11 @@ public class GsonContext implements SerializeContext<JsonElement> {
         return object;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public boolean supportsMeta(JsonElement object) {
         return false;
@@ -14,3 +14,20 @@ dependencies {
 
     testRuntimeOnly(libs.slf4j.simple)
 }
+
+// The vector JSON scanner uses the incubating Vector API, which is only compiled into Java 21+ builds. Older builds
+// remove it using the patch sets in patch/main
+tasks.withType<JavaCompile>().configureEach {
+    val compiler = javaCompiler
+    options.compilerArgumentProviders.add(CommandLineArgumentProvider {
+        if(compiler.get().metadata.languageVersion.asInt() >= 21) {
+            listOf("--add-modules", "jdk.incubator.vector")
+        } else {
+            listOf()
+        }
+    })
+}
+
+tasks.named<Test>("test") {
+    jvmArgs("--add-modules", "jdk.incubator.vector")
+}
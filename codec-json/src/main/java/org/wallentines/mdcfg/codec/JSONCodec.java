@@ -2,15 +2,20 @@ package org.wallentines.mdcfg.codec;
 
 import org.jetbrains.annotations.NotNull;
 import org.wallentines.mdcfg.ByteBufferInputStream;
+import org.wallentines.mdcfg.ConfigList;
 import org.wallentines.mdcfg.ConfigObject;
+import org.wallentines.mdcfg.ConfigSection;
 import org.wallentines.mdcfg.serializer.ConfigContext;
 import org.wallentines.mdcfg.serializer.SerializeContext;
 import org.wallentines.mdcfg.serializer.SerializeResult;
+import org.wallentines.mdcfg.serializer.ValueReader;
+import org.wallentines.mdcfg.serializer.ValueWriter;
 
 import java.io.*;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -87,6 +92,38 @@ public class JSONCodec implements Codec {
         return minified().decode(ConfigContext.INSTANCE, stream);
     }
 
+    /**
+     * Loads UTF-8 data as a ConfigObject from the given input stream, without decoding all of it up front. The stream
+     * is read fully and indexed, then the values in each section or list are only decoded when they are first
+     * accessed. Malformed data is only reported once the part of the document containing it is accessed
+     * @param stream The encoded data to read
+     * @return A ConfigObject which decodes its values on demand
+     * @throws DecodeException If the data could not be indexed
+     * @throws IOException If reading from the stream fails
+     */
+    public static ConfigObject loadConfigLazy(InputStream stream) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while((read = stream.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return loadConfigLazy(out.toByteArray());
+    }
+
+    /**
+     * Loads UTF-8 data as a ConfigObject from the given array, without decoding all of it up front. The values in each
+     * section or list are only decoded when they are first accessed, directly from the array, so it must not be
+     * modified afterward. Malformed data is only reported once the part of the document containing it is accessed
+     * @param data The encoded data to read
+     * @return A ConfigObject which decodes its values on demand
+     * @throws DecodeException If the data could not be indexed
+     */
+    public static ConfigObject loadConfigLazy(byte[] data) {
+        return new LazyDocument(data).root();
+    }
+
     @Override
     public <T> void encode(@NotNull SerializeContext<T> context, T input, @NotNull OutputStream stream, Charset charset) throws EncodeException, IOException {
         new Encoder<>(context).encode(input, stream, charset);
@@ -94,98 +131,328 @@ public class JSONCodec implements Codec {
 
     @Override
     public <T> T decode(@NotNull SerializeContext<T> context, @NotNull InputStream stream, Charset charset) throws DecodeException, IOException {
-        return new Decoder<>(context).decode(stream, charset);
+        return new Decoder<>(context, stream, charset).decode();
     }
 
 
-    private class Encoder<T> {
-        private final SerializeContext<T> context;
+    @Override
+    public ValueWriter createWriter(@NotNull OutputStream stream, Charset charset) {
+        return new Writer(new Output(stream, charset, indent));
+    }
 
-        public Encoder(SerializeContext<T> context) {
-            this.context = context;
+    @Override
+    public ValueReader createReader(@NotNull InputStream stream, Charset charset) {
+        return new TokenReader(stream, charset);
+    }
+
+    private static String encodeBlob(ByteBuffer value) {
+
+        ByteBuffer blob = value.duplicate();
+        blob.rewind();
+
+        byte[] bytes;
+        if(blob.hasArray() && blob.arrayOffset() == 0 && blob.limit() == blob.array().length) {
+            bytes = blob.array();
+        } else {
+            bytes = new byte[blob.remaining()];
+            blob.get(bytes);
         }
 
-        public void encode(T section, OutputStream stream, Charset charset) throws IOException {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    /**
+     * Buffers encoded JSON before writing it to a stream. UTF-8 output is encoded inline into a byte window, and other
+     * charsets are written to a char window which is passed to an OutputStreamWriter
+     */
+    private static class Output {
+
+        private static final int BUFFER_SIZE = 8192;
 
-            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(stream, charset));
-            encode(section, "", writer);
-            writer.close();
+        // The character written after a backslash for each ASCII character which must be escaped, or 0 otherwise
+        private static final byte[] ESCAPES = new byte[128];
 
+        static {
+            ESCAPES['\\'] = '\\';
+            ESCAPES['"'] = '"';
+            ESCAPES['\n'] = 'n';
+            ESCAPES['\r'] = 'r';
+            ESCAPES['\f'] = 'f';
+            ESCAPES['\b'] = 'b';
+            ESCAPES['\t'] = 't';
         }
 
-        private void encodeMap(T section, String prefix, BufferedWriter writer) throws IOException {
+        private final OutputStream stream;
+        private final byte[] bytes;
+        private final java.io.Writer writer;
+        private final char[] chars;
+        private int position;
+
+        // Numbers are formatted here before being copied to the char window
+        private final byte[] number = new byte[JSONNumbers.MAX_LENGTH];
+
+        // A newline followed by enough indentation for the deepest level written so far
+        private final String indent;
+        private byte[] indents;
+
+        Output(OutputStream stream, Charset charset, String indent) {
+            if(charset.equals(StandardCharsets.UTF_8)) {
+                this.stream = stream;
+                this.bytes = new byte[BUFFER_SIZE];
+                this.writer = null;
+                this.chars = null;
+            } else {
+                this.stream = null;
+                this.bytes = null;
+                this.writer = new OutputStreamWriter(stream, charset);
+                this.chars = new char[BUFFER_SIZE];
+            }
+            this.indent = indent;
+            this.indents = new byte[0];
+        }
 
-            if (!context.isMap(section)) throw new IllegalArgumentException("Not a map: " + section);
+        private int capacity() {
+            return bytes == null ? chars.length : bytes.length;
+        }
+
+        private void flush() throws IOException {
+            if(bytes == null) {
+                writer.write(chars, 0, position);
+            } else {
+                stream.write(bytes, 0, position);
+            }
+            position = 0;
+        }
+
+        private void require(int length) throws IOException {
+            if(position + length > capacity()) {
+                flush();
+            }
+        }
 
-            Collection<String> keys = context.getOrderedKeys(section);
-            String nextPrefix = prefix + indent;
+        /**
+         * Writes a single ASCII character
+         */
+        void write(char c) throws IOException {
+            require(1);
+            if(bytes == null) {
+                chars[position++] = c;
+            } else {
+                bytes[position++] = (byte) c;
+            }
+        }
 
-            writer.write("{");
-            if(keys.isEmpty()) {
-                if(shouldIndent) writer.write(" ");
-                writer.write("}");
+        /**
+         * Writes a string which only contains ASCII characters
+         */
+        @SuppressWarnings("deprecation")
+        void writeAscii(String value) throws IOException {
+            int index = 0;
+            int length = value.length();
+            while(index < length) {
+                if(position == capacity()) flush();
+                int end = Math.min(length, index + capacity() - position);
+                if(bytes == null) {
+                    value.getChars(index, end, chars, position);
+                } else {
+                    value.getBytes(index, end, bytes, position);
+                }
+                position += end - index;
+                index = end;
+            }
+        }
+
+        /**
+         * Writes a number. Integers and finite doubles are formatted straight into the output buffer
+         */
+        void writeNumber(Number value) throws IOException {
+
+            boolean integer = value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+            if(!integer && !(value instanceof Double && Double.isFinite(value.doubleValue()))) {
+                writeAscii(value.toString());
                 return;
             }
 
-            if(shouldIndent) writer.write("\n");
+            require(JSONNumbers.MAX_LENGTH);
+            byte[] out = bytes == null ? number : bytes;
+            int start = bytes == null ? 0 : position;
+            int end = integer
+                    ? JSONNumbers.writeLong(value.longValue(), out, start)
+                    : JSONNumbers.writeDouble(value.doubleValue(), out, start);
+
+            if(bytes == null) {
+                for(int i = 0 ; i < end ; i++) {
+                    chars[position++] = (char) number[i];
+                }
+            } else {
+                position = end;
+            }
+        }
+
+        /**
+         * Writes a newline followed by indentation for the given depth, if this output is indented
+         */
+        void newLine(int depth) throws IOException {
+            if(indent.isEmpty()) return;
+
+            int length = 1 + depth * indent.length();
+            if(length > indents.length) {
+                indents = new byte[Math.max(length, indents.length * 2)];
+                Arrays.fill(indents, (byte) ' ');
+                indents[0] = '\n';
+            }
+
             int index = 0;
+            while(index < length) {
+                if(position == capacity()) flush();
+                int count = Math.min(length - index, capacity() - position);
+                if(bytes == null) {
+                    for(int i = 0 ; i < count ; i++) {
+                        chars[position + i] = (char) indents[index + i];
+                    }
+                } else {
+                    System.arraycopy(indents, index, bytes, position, count);
+                }
+                position += count;
+                index += count;
+            }
+        }
 
-            for (String key : keys) {
+        /**
+         * Writes a quoted, escaped string
+         */
+        @SuppressWarnings("deprecation")
+        void writeQuoted(String value) throws IOException {
 
-                if (index++ > 0) {
-                    writer.write(",");
-                    if(shouldIndent) writer.write("\n");
+            write('"');
+            int index = 0;
+            int length = value.length();
+            while(index < length) {
+
+                // Copy runs of characters which do not need to be escaped or encoded in bulk
+                if(position == capacity()) flush();
+                int limit = Math.min(length, index + capacity() - position);
+                int end = index;
+                if(bytes == null) {
+                    while(end < limit) {
+                        char c = value.charAt(end);
+                        if(c < 128 && ESCAPES[c] != 0) break;
+                        end++;
+                    }
+                    value.getChars(index, end, chars, position);
+                } else {
+                    while(end < limit) {
+                        char c = value.charAt(end);
+                        if(c >= 128 || ESCAPES[c] != 0) break;
+                        end++;
+                    }
+                    value.getBytes(index, end, bytes, position);
                 }
+                position += end - index;
+                index = end;
+                if(index == limit) continue;
+
+                char c = value.charAt(index++);
+                if(c < 128) {
+                    require(2);
+                    put('\\');
+                    put(ESCAPES[c]);
+                } else {
+                    index = writeMultiByte(value, c, index);
+                }
+            }
+            write('"');
+        }
+
+        private void put(int b) {
+            if(bytes == null) {
+                chars[position++] = (char) b;
+            } else {
+                bytes[position++] = (byte) b;
+            }
+        }
 
-                T value = context.get(key, section);
-                writer.write(nextPrefix + "\"" + encodeString(key) + "\":");
-                if(shouldIndent) writer.write(" ");
-                encode(value, nextPrefix, writer);
+        private int writeMultiByte(String value, char c, int index) throws IOException {
+
+            require(4);
+            byte[] out = bytes;
+            if(c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if(Character.isSurrogate(c)) {
+                if(Character.isHighSurrogate(c) && index < value.length() && Character.isLowSurrogate(value.charAt(index))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(index++));
+                    out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    // Unpaired surrogates are replaced the same way the UTF-8 charset encoder replaces them
+                    out[position++] = '?';
+                }
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+            return index;
+        }
+
+        void close() throws IOException {
+            flush();
+            if(bytes == null) {
+                writer.close();
+            } else {
+                stream.close();
             }
-            if(shouldIndent) writer.write("\n");
-            writer.write(prefix + "}");
+        }
+    }
+
+    private class Encoder<T> {
+        private final SerializeContext<T> context;
+
+        public Encoder(SerializeContext<T> context) {
+            this.context = context;
+        }
+
+        public void encode(T section, OutputStream stream, Charset charset) throws IOException {
+
+            Output output = new Output(stream, charset, indent);
+            encode(section, 0, output);
+            output.close();
+
         }
 
-        private String encodeString(String s) {
+        private void encodeMap(T section, int depth, Output output) throws IOException {
 
-            StringBuilder builder = new StringBuilder();
-            if(s == null) return builder.toString();
+            if (!context.isMap(section)) throw new IllegalArgumentException("Not a map: " + section);
 
-            PrimitiveIterator.OfInt it = ((CharSequence) s).chars().iterator();
+            output.write('{');
+            int[] count = new int[1];
+            context.forEachEntry(section, (key, value) -> {
 
-            while(it.hasNext()) {
-                int c = it.nextInt();
-                switch (c) {
-                    case '\\':
-                        builder.append("\\\\");
-                        break;
-                    case '"':
-                        builder.append("\\\"");
-                        break;
-                    case '\n':
-                        builder.append("\\n");
-                        break;
-                    case '\r':
-                        builder.append("\\r");
-                        break;
-                    case '\f':
-                        builder.append("\\f");
-                        break;
-                    case '\b':
-                        builder.append("\\b");
-                        break;
-                    case '\t':
-                        builder.append("\\t");
-                        break;
-                    default:
-                        builder.appendCodePoint(c);
+                if (count[0]++ > 0) {
+                    output.write(',');
                 }
+                output.newLine(depth + 1);
+
+                output.writeQuoted(key);
+                output.write(':');
+                if(shouldIndent) output.write(' ');
+                encode(value, depth + 1, output);
+            });
+
+            if(count[0] == 0) {
+                if(shouldIndent) output.write(' ');
+                output.write('}');
+                return;
             }
 
-            return builder.toString();
+            output.newLine(depth);
+            output.write('}');
         }
 
-        private void encodeList(T value, String prefix, BufferedWriter writer) throws IOException {
+        private void encodeList(T value, int depth, Output output) throws IOException {
 
             SerializeResult<Collection<T>> collectionResult = context.asList(value);
             if(!collectionResult.isComplete()) {
@@ -193,70 +460,55 @@ public class JSONCodec implements Codec {
             }
 
             Collection<T> collection = collectionResult.getOrThrow(EncodeException::new);
-            String nextPrefix = prefix + indent;
 
-            writer.write("[");
+            output.write('[');
             if(collection.isEmpty()) {
-                if(shouldIndent) writer.write(" ");
-                writer.write("]");
+                if(shouldIndent) output.write(' ');
+                output.write(']');
                 return;
             }
 
-            if(shouldIndent) writer.write("\n");
-
             int index = 0;
             for (T t : collection) {
 
                 if (index++ > 0) {
-                    writer.write(",");
-                    if(shouldIndent) writer.write("\n");
+                    output.write(',');
                 }
-                writer.write(nextPrefix);
-                encode(t, nextPrefix, writer);
+                output.newLine(depth + 1);
+                encode(t, depth + 1, output);
             }
-            if(shouldIndent) writer.write("\n");
-            writer.write(prefix + "]");
+            output.newLine(depth);
+            output.write(']');
         }
 
-        private void encode(T value, String prefix, BufferedWriter writer) throws IOException {
+        private void encode(T value, int depth, Output output) throws IOException {
 
             switch (context.getType(value)) {
                 case STRING:
-                    writer.write("\"");
-                    writer.write(encodeString(context.asString(value).getOrThrow(EncodeException::new)));
-                    writer.write("\"");
+                    output.writeQuoted(context.asString(value).getOrThrow(EncodeException::new));
                     break;
                 case NUMBER:
-                    writer.write(context.asNumber(value).getOrThrow(EncodeException::new).toString());
+                    output.writeNumber(context.asNumber(value).getOrThrow(EncodeException::new));
                     break;
                 case BOOLEAN:
-                    writer.write(context.asBoolean(value).getOrThrow(EncodeException::new).toString());
+                    output.writeAscii(context.asBoolean(value).getOrThrow(EncodeException::new).toString());
                     break;
                 case BLOB: {
 
-                    ByteBuffer blob = context.asBlob(value).getOrThrow(EncodeException::new);
-                    byte[] bytes;
-                    if(blob.hasArray()) {
-                        bytes = blob.array();
-                    } else { 
-                        bytes = new byte[blob.remaining()];
-                        blob.get(bytes);                        
-                    }
-
-                    String str = Base64.getEncoder().encodeToString(bytes);
-                    writer.write("\"");
-                    writer.write(str);
-                    writer.write("\"");
+                    String str = encodeBlob(context.asBlob(value).getOrThrow(EncodeException::new));
+                    output.write('"');
+                    output.writeAscii(str);
+                    output.write('"');
                     break;
                 }
                 case LIST:
-                    encodeList(value, prefix, writer);
+                    encodeList(value, depth, output);
                     break;
                 case MAP:
-                    encodeMap(value, prefix, writer);
+                    encodeMap(value, depth, output);
                     break;
                 case NULL:
-                    writer.write("null");
+                    output.writeAscii("null");
                     break;
                 default:
                     throw new EncodeException("Unable to serialize " + value + "!");
@@ -265,128 +517,595 @@ public class JSONCodec implements Codec {
         }
     }
 
-    private static class Decoder<T> {
+    private class Writer implements ValueWriter {
 
-        private final SerializeContext<T> context;
-        private int lastReadChar;
+        private final Output output;
+        private int[] counts = new int[16];
+        private boolean[] maps = new boolean[16];
+        private int depth;
+        private boolean hasKey;
 
-        public Decoder(SerializeContext<T> context) {
-            this.context = context;
+        public Writer(Output output) {
+            this.output = output;
         }
 
-        public T decode(InputStream data, Charset charset) throws IOException {
+        private void separate() throws IOException {
+            if(counts[depth - 1]++ > 0) {
+                output.write(',');
+            }
+            output.newLine(depth);
+        }
 
-            BufferedReader reader = new BufferedReader(new InputStreamReader(data, charset.newDecoder()));
-            T out = decodeElement(reader);
-            reader.close();
-            return out;
+        private void beforeValue() throws IOException {
+            if(depth == 0) return;
+            if(maps[depth - 1]) {
+                if(!hasKey) throw new EncodeException("Expected a key before a map value!");
+                hasKey = false;
+            } else {
+                separate();
+            }
         }
 
-        public T decode(Reader reader) throws IOException {
+        private void begin(boolean map) throws IOException {
+            beforeValue();
+            output.write(map ? '{' : '[');
+            if(depth == counts.length) {
+                counts = Arrays.copyOf(counts, depth * 2);
+                maps = Arrays.copyOf(maps, depth * 2);
+            }
+            counts[depth] = 0;
+            maps[depth] = map;
+            depth++;
+        }
 
-            T out = decodeElement(reader);
-            reader.close();
-            return out;
+        private void end(boolean map) throws IOException {
+            if(depth == 0 || maps[depth - 1] != map) {
+                throw new EncodeException(map ? "Not writing a map!" : "Not writing a list!");
+            }
+            if(hasKey) throw new EncodeException("Expected a value after key!");
+
+            depth--;
+            char close = map ? '}' : ']';
+            if(counts[depth] == 0) {
+                if(shouldIndent) output.write(' ');
+                output.write(close);
+                return;
+            }
+
+            output.newLine(depth);
+            output.write(close);
         }
 
-        private void skipWhitespace(Reader reader) throws IOException {
-            while(lastReadChar <= 32) {
-                lastReadChar = reader.read();
-                if(lastReadChar == -1) {
-                    throw new DecodeException("Found EOF while attempting to parse JSON!");
-                }
+        @Override
+        public void writeNull() throws IOException {
+            beforeValue();
+            output.writeAscii("null");
+        }
+
+        @Override
+        public void writeString(String value) throws IOException {
+            beforeValue();
+            output.writeQuoted(value);
+        }
+
+        @Override
+        public void writeNumber(Number value) throws IOException {
+            beforeValue();
+            output.writeNumber(value);
+        }
+
+        @Override
+        public void writeBoolean(boolean value) throws IOException {
+            beforeValue();
+            output.writeAscii(Boolean.toString(value));
+        }
+
+        @Override
+        public void writeBlob(ByteBuffer value) throws IOException {
+            beforeValue();
+            output.write('"');
+            output.writeAscii(encodeBlob(value));
+            output.write('"');
+        }
+
+        @Override
+        public void beginList(int size) throws IOException {
+            begin(false);
+        }
+
+        @Override
+        public void endList() throws IOException {
+            end(false);
+        }
+
+        @Override
+        public void beginMap(int size) throws IOException {
+            begin(true);
+        }
+
+        @Override
+        public void key(String key) throws IOException {
+            if(depth == 0 || !maps[depth - 1]) throw new EncodeException("Not writing a map!");
+            if(hasKey) throw new EncodeException("Expected a value after key!");
+
+            separate();
+            output.writeQuoted(key);
+            output.write(':');
+            if(shouldIndent) output.write(' ');
+            hasKey = true;
+        }
+
+        @Override
+        public void endMap() throws IOException {
+            end(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if(depth != 0) throw new EncodeException("A list or map was not finished!");
+            } finally {
+                output.close();
             }
         }
+    }
 
-        private int nextReal(Reader reader) throws IOException {
-            do {
-                lastReadChar = reader.read();
-            } while(lastReadChar <= 32 && lastReadChar > -1);
-            return lastReadChar;
+    private static class Lexer {
+
+        private static final int BUFFER_SIZE = 8192;
+
+        // Input is read from a byte window and decoded inline when it is UTF-8, or from a char window otherwise
+        private final InputStream stream;
+        private final byte[] bytes;
+        private final Reader reader;
+        private final char[] chars;
+        private int position;
+        private int limit;
+        private int pendingLowSurrogate = -1;
+        private final JSONScanner scanner = JSONScanner.get();
+
+        // Strings and primitives are collected here before being converted
+        private char[] text = new char[64];
+        private int textLength;
+
+        protected int lastReadChar;
+
+        protected Lexer(InputStream stream, Charset charset) {
+            if(charset.equals(StandardCharsets.UTF_8)) {
+                this.stream = stream;
+                this.bytes = new byte[BUFFER_SIZE];
+                this.reader = null;
+                this.chars = null;
+            } else {
+                this.stream = null;
+                this.bytes = null;
+                this.reader = new InputStreamReader(stream, charset.newDecoder());
+                this.chars = new char[BUFFER_SIZE];
+            }
         }
 
-        private T decodeElement(Reader reader) throws IOException {
+        /**
+         * Creates a lexer which reads UTF-8 data from part of the given array, without copying it
+         */
+        protected Lexer(byte[] data, int offset, int length) {
+            this.stream = null;
+            this.bytes = data;
+            this.reader = null;
+            this.chars = null;
+            this.position = offset;
+            this.limit = offset + length;
+        }
 
-            skipWhitespace(reader);
+        private boolean fill() throws IOException {
+            if(stream == null && reader == null) return false;
+            int read = bytes == null ? reader.read(chars) : stream.read(bytes);
+            if(read <= 0) return false;
+            position = 0;
+            limit = read;
+            return true;
+        }
 
-            if(lastReadChar == '{') {
-                return decodeMap(reader);
+        protected int read() throws IOException {
+
+            if(pendingLowSurrogate != -1) {
+                int out = pendingLowSurrogate;
+                pendingLowSurrogate = -1;
+                return out;
             }
-            if(lastReadChar == '[') {
-                return decodeList(reader);
+            if(position == limit && !fill()) {
+                return -1;
             }
-            if(lastReadChar == '"') {
-                return decodeString(reader);
+            if(bytes == null) {
+                return chars[position++];
             }
-            if(lastReadChar == '}' || lastReadChar == ']') { // Illegal Characters (in this context)
-                throw new DecodeException("Found illegal character " + lastReadChar);
+
+            int b = bytes[position++];
+            return b >= 0 ? b : readMultiByte(b & 0xFF);
+        }
+
+        private int readMultiByte(int lead) throws IOException {
+
+            int codePoint;
+            int extra;
+            int min;
+            if((lead & 0xE0) == 0xC0) {
+                codePoint = lead & 0x1F;
+                extra = 1;
+                min = 0x80;
+            } else if((lead & 0xF0) == 0xE0) {
+                codePoint = lead & 0x0F;
+                extra = 2;
+                min = 0x800;
+            } else if((lead & 0xF8) == 0xF0) {
+                codePoint = lead & 0x07;
+                extra = 3;
+                min = 0x10000;
+            } else {
+                throw new DecodeException("Found malformed UTF-8 data!");
+            }
+
+            for(int i = 0 ; i < extra ; i++) {
+                if(position == limit && !fill()) {
+                    throw new DecodeException("Found malformed UTF-8 data!");
+                }
+                int next = bytes[position++];
+                if((next & 0xC0) != 0x80) {
+                    throw new DecodeException("Found malformed UTF-8 data!");
+                }
+                codePoint = (codePoint << 6) | (next & 0x3F);
+            }
+
+            if(codePoint < min || codePoint > Character.MAX_CODE_POINT || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+                throw new DecodeException("Found malformed UTF-8 data!");
+            }
+            if(codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                pendingLowSurrogate = Character.lowSurrogate(codePoint);
+                return Character.highSurrogate(codePoint);
+            }
+            return codePoint;
+        }
+
+        protected void close() throws IOException {
+            if(reader != null) {
+                reader.close();
+            } else if(stream != null) {
+                stream.close();
             }
+        }
 
-            return decodePrimitive(reader);
+        /**
+         * Gets the offset of the next byte to be read from a byte window
+         */
+        protected int offset() {
+            return position;
         }
 
-        private T decodeString(Reader reader) throws IOException {
+        /**
+         * Moves to the given offset in a byte window which will not be refilled
+         */
+        protected void seek(int offset) {
+            position = offset;
+        }
 
-            return context.toString(readString(reader));
+        private void ensureText(int length) {
+            if(length > text.length) {
+                text = Arrays.copyOf(text, Math.max(length, text.length * 2));
+            }
         }
 
-        private T decodePrimitive(Reader reader) throws IOException {
+        private void appendText(int c) {
+            if(textLength == text.length) {
+                ensureText(textLength + 1);
+            }
+            text[textLength++] = (char) c;
+        }
 
-            StringBuilder output = new StringBuilder();
+        private boolean textEqualsIgnoreCase(String word) {
+            if(textLength != word.length()) return false;
+            for(int i = 0 ; i < textLength ; i++) {
+                // Primitives only contain ASCII characters, so setting the lowercase bit is enough to ignore case
+                if((text[i] | 0x20) != word.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        // Skips ahead to the next byte in the window which is not whitespace
+        private void skipWhitespaceRun() {
+            if(bytes != null && pendingLowSurrogate == -1 && position < limit) {
+                byte b = bytes[position];
+                if(b >= 0 && b <= 32) {
+                    position = scanner.skipWhitespace(bytes, position, limit);
+                }
+            }
+        }
 
+        protected void skipWhitespace() throws IOException {
+            if(lastReadChar <= 32) skipWhitespaceRun();
+            while(lastReadChar <= 32) {
+                lastReadChar = read();
+                if(lastReadChar == -1) {
+                    throw new DecodeException("Found EOF while attempting to parse JSON!");
+                }
+            }
+        }
+
+        protected int nextReal() throws IOException {
+            skipWhitespaceRun();
+            do {
+                lastReadChar = read();
+            } while(lastReadChar <= 32 && lastReadChar > -1);
+            return lastReadChar;
+        }
+
+        /**
+         * Reads a JSON primitive which is not a string
+         * @return A Boolean, a Number, or null if the primitive was null
+         */
+        protected Object readPrimitive() throws IOException {
+
+            textLength = 0;
             do {
                 if(lastReadChar > 127) {
                     throw new DecodeException("Found invalid character while reading a primitive!");
                 }
-                output.append((char) lastReadChar);
+                appendText(lastReadChar);
             }
-            while((lastReadChar = reader.read()) > 32
+            while((lastReadChar = read()) > 32
                     && lastReadChar != '}'
                     && lastReadChar != ','
                     && lastReadChar != ']');
 
-            String value = output.toString();
-
-            if(value.equalsIgnoreCase("true")) {
-                return context.toBoolean(true);
+            if(textEqualsIgnoreCase("true")) {
+                return Boolean.TRUE;
             }
-            if(value.equalsIgnoreCase("false")) {
-                return context.toBoolean(false);
+            if(textEqualsIgnoreCase("false")) {
+                return Boolean.FALSE;
             }
-            if(value.equalsIgnoreCase("null")) {
-                return context.nullValue();
+            if(textEqualsIgnoreCase("null")) {
+                return null;
             }
 
-            String validDigits = "0123456789.-E";
+            // Integers which certainly fit in a long are parsed without creating a String
+            int start = text[0] == '-' ? 1 : 0;
+            if(textLength > start && textLength - start <= 18) {
+                long val = 0;
+                int index = start;
+                while(index < textLength && text[index] >= '0' && text[index] <= '9') {
+                    val = val * 10 + (text[index++] - '0');
+                }
+                if(index == textLength) {
+                    if(start == 1) val = -val;
+                    if(val >= Integer.MIN_VALUE && val <= Integer.MAX_VALUE) {
+                        return (int) val;
+                    }
+                    return val;
+                }
+            }
 
             // Number
-            if(value.endsWith(".") || value.split("\\.").length > 2 || hasInvalidChars(value, validDigits)) {
-                throw new DecodeException("Unable to parse " + value + " as a number!");
+            int dots = 0;
+            boolean invalid = false;
+            for(int i = 0 ; i < textLength ; i++) {
+                char c = text[i];
+                if(c == '.') {
+                    dots++;
+                } else if((c < '0' || c > '9') && c != '-' && c != 'E') {
+                    invalid = true;
+                }
+            }
+            if(text[textLength - 1] == '.' || dots > 1 || invalid) {
+                throw new DecodeException("Unable to parse " + new String(text, 0, textLength) + " as a number!");
             }
 
-            Number out;
-            if(value.indexOf('.') == -1) {
+            if(dots == 0) {
 
+                String value = new String(text, 0, textLength);
                 try {
-                    out = Long.parseLong(value);
-                    long val = out.longValue();
+                    long val = Long.parseLong(value);
                     if(val >= Integer.MIN_VALUE && val <= Integer.MAX_VALUE) {
-                        out = out.intValue();
+                        return (int) val;
                     }
+                    return val;
 
                 } catch (NumberFormatException ex) {
-                    out = new BigInteger(value);
+                    return new BigInteger(value);
 
                 }
 
             } else {
-                out = Double.parseDouble(value);
+                return JSONNumbers.parseDouble(text, textLength);
             }
+        }
+
+        protected String readQuoted() throws IOException {
 
-            return context.toNumber(out);
+            textLength = 0;
+            while(true) {
+
+                // Copy runs of plain ASCII characters straight from the byte window
+                if(bytes != null && pendingLowSurrogate == -1) {
+                    byte[] buffer = bytes;
+                    int index = position;
+                    int end = limit;
+                    int stop = scanner.findStringEnd(buffer, index, end);
+                    ensureText(textLength + stop - index);
+                    char[] out = text;
+                    int length = textLength;
+                    while(index < stop) {
+                        out[length++] = (char) buffer[index++];
+                    }
+                    position = index;
+                    textLength = length;
+                }
+
+                lastReadChar = read();
+                if(lastReadChar == -1) {
+                    throw new DecodeException("Found EOF while reading a JSON String!");
+                }
+                if(lastReadChar == '"') {
+                    break;
+                }
+                if(lastReadChar == '\\') {
+                    readEscape();
+                } else {
+                    appendText(lastReadChar);
+                }
+            }
+
+            String out = new String(text, 0, textLength);
+            nextReal();
+            return out;
+        }
+
+        private void readEscape() throws IOException {
+
+            int next = read();
+            switch (next) {
+                case '\\':
+                case '/':
+                case '"':
+                    appendText(next);
+                    break;
+                case 'n':
+                    appendText('\n');
+                    break;
+                case 'r':
+                    appendText('\r');
+                    break;
+                case 'f':
+                    appendText('\f');
+                    break;
+                case 'b':
+                    appendText('\b');
+                    break;
+                case 't':
+                    appendText('\t');
+                    break;
+                case 'u': {
+
+                    int first;
+                    do {
+                        // Skip all additional u's
+                        first = read();
+                    } while (first == 'u');
+
+                    char[] digits = new char[4];
+                    digits[0] = (char) first;
+                    for(int i = 1 ; i < 4 ; i++) {
+                        int digit = read();
+                        if(digit == -1) break;
+                        digits[i] = (char) digit;
+                    }
+                    String codePointStr = new String(digits);
+
+                    try {
+                        appendText(Integer.parseUnsignedInt(codePointStr, 16));
+
+                    } catch (NumberFormatException nfe) {
+
+                        throw new DecodeException("Unable to decode unicode code point: " + codePointStr);
+                    }
+                    break;
+                }
+                case -1:
+                    throw new DecodeException("Found EOF while reading a JSON String!");
+
+                default:
+                    throw new DecodeException("Invalid escape character " + (char) next + "!");
+            }
+        }
+
+        /**
+         * Skips a string without unescaping or buffering it
+         */
+        protected void skipString() throws IOException {
+
+            boolean escaped = false;
+            while(true) {
+                if(!escaped && bytes != null && pendingLowSurrogate == -1) {
+                    position = scanner.findStringEnd(bytes, position, limit);
+                }
+                lastReadChar = read();
+                if(lastReadChar == -1) {
+                    throw new DecodeException("Found EOF while reading a JSON String!");
+                }
+                if(!escaped && lastReadChar == '"') {
+                    break;
+                }
+                escaped = !escaped && lastReadChar == '\\';
+            }
+            nextReal();
         }
+    }
+
+    private static class Decoder<T> extends Lexer {
 
-        private T decodeMap(Reader reader) throws IOException {
+        private final SerializeContext<T> context;
+
+        public Decoder(SerializeContext<T> context, InputStream data, Charset charset) {
+            super(data, charset);
+            this.context = context;
+        }
+
+        public Decoder(SerializeContext<T> context, byte[] data, int offset, int length) {
+            super(data, offset, length);
+            this.context = context;
+        }
+
+        public T decode() throws IOException {
+
+            T out = decodeElement();
+            close();
+            return out;
+        }
+
+        private T decodeElement() throws IOException {
+
+            skipWhitespace();
+
+            if(lastReadChar == '{') {
+                return decodeMap();
+            }
+            if(lastReadChar == '[') {
+                return decodeList();
+            }
+            if(lastReadChar == '"') {
+                return decodeString();
+            }
+            if(lastReadChar == '}' || lastReadChar == ']') { // Illegal Characters (in this context)
+                throw new DecodeException("Found illegal character " + lastReadChar);
+            }
+
+            return decodePrimitive();
+        }
+
+        private T decodeString() throws IOException {
+
+            return context.toString(readQuoted());
+        }
+
+        private T decodePrimitive() throws IOException {
+
+            Object value = readPrimitive();
+            if(value == null) {
+                return context.nullValue();
+            }
+            if(value instanceof Boolean) {
+                return context.toBoolean((Boolean) value);
+            }
+            if(value instanceof Integer) {
+                return context.toInt((Integer) value);
+            }
+            if(value instanceof Long) {
+                return context.toLong((Long) value);
+            }
+            if(value instanceof Double) {
+                return context.toDouble((Double) value);
+            }
+            return context.toNumber((Number) value);
+        }
+
+        private T decodeMap() throws IOException {
 
             if(lastReadChar != '{') {
                 throw new DecodeException("Expected object to start with '{'");
@@ -394,7 +1113,7 @@ public class JSONCodec implements Codec {
 
             Map<String, T> values = new LinkedHashMap<>();
 
-            nextReal(reader);
+            nextReal();
 
             String lastKey = null;
             while(lastReadChar != '}') {
@@ -405,165 +1124,457 @@ public class JSONCodec implements Codec {
                 }
 
                 try {
-                    lastKey = readString(reader);
+                    lastKey = readQuoted();
                 } catch (DecodeException ex) {
                     String suffix = lastKey == null ? "" : " (After key " + lastKey + ")";
                     throw new DecodeException("An error occurred while decoding an object key!" + suffix, ex);
                 }
 
-                skipWhitespace(reader);
+                skipWhitespace();
                 if(lastReadChar != ':') {
                     throw new DecodeException("Found junk data after key \"" + lastKey + "\"");
                 }
 
-                nextReal(reader);
+                nextReal();
                 try {
-                    T obj = decodeElement(reader);
+                    T obj = decodeElement();
                     values.put(lastKey, obj);
                 } catch (DecodeException ex) {
                     throw new DecodeException("An error occurred while decoding an object value with key \"" + lastKey + "\"!", ex);
                 }
 
-                skipWhitespace(reader);
+                skipWhitespace();
                 if(lastReadChar == ',') {
-                    if(nextReal(reader) == '}') {
+                    if(nextReal() == '}') {
                         throw new DecodeException("Found unexpected end of object after key " + lastKey + "!");
                     }
                 }
             }
 
-            nextReal(reader);
+            nextReal();
             return context.toMap(values);
         }
 
-        private T decodeList(Reader reader) throws IOException {
+        private T decodeList() throws IOException {
 
-            skipWhitespace(reader);
+            skipWhitespace();
             List<T> values = new ArrayList<>();
 
-            nextReal(reader);
+            nextReal();
             while (lastReadChar != ']') {
 
                 try {
-                    values.add(decodeElement(reader));
+                    values.add(decodeElement());
                 } catch (DecodeException ex) {
                     throw new DecodeException("An error occurred while decoding a list value at index " + values.size(), ex);
                 }
-                skipWhitespace(reader);
+                skipWhitespace();
 
                 if (lastReadChar == ',') {
-                    if(nextReal(reader) == ']') {
+                    if(nextReal() == ']') {
                         throw new DecodeException("Found unexpected end of list after index " + values.size());
                     }
                 }
             }
 
-            nextReal(reader);
+            nextReal();
             return context.toList(values);
         }
 
-        private String readString(Reader reader) throws IOException {
+    }
 
-            CharArrayWriter writer = new CharArrayWriter();
+    private static class TokenReader extends Lexer implements ValueReader {
 
-            boolean escaped = false;
-            while(true) {
+        private boolean[] maps = new boolean[16];
+        private int depth;
+        private boolean expectKey;
+        private boolean finished;
 
-                lastReadChar = reader.read();
-                if(lastReadChar == -1) {
-                    throw new DecodeException("Found EOF while reading a JSON String!");
+        private Object primitive;
+        private Token primitiveToken;
+
+        public TokenReader(InputStream stream, Charset charset) {
+            super(stream, charset);
+        }
+
+        @Override
+        public Token peek() throws IOException {
+
+            if(primitiveToken != null) return primitiveToken;
+            if(depth == 0 && finished) return Token.END;
+
+            skipWhitespace();
+            if(depth > 0) {
+                if(maps[depth - 1] && expectKey) {
+                    if(lastReadChar == '}') return Token.END;
+                    if(lastReadChar != '"') throw new DecodeException("Found unquoted key while parsing an object!");
+                    return Token.KEY;
                 }
-                if(!escaped && lastReadChar == '"') {
-                    break;
+                if(!maps[depth - 1] && lastReadChar == ']') {
+                    return Token.END;
                 }
+            }
 
-                escaped = !escaped && lastReadChar == '\\';
-                writer.write(lastReadChar);
+            switch (lastReadChar) {
+                case '{':
+                    return Token.MAP;
+                case '[':
+                    return Token.LIST;
+                case '"':
+                    return Token.STRING;
+                case '}':
+                case ']': // Illegal Characters (in this context)
+                    throw new DecodeException("Found illegal character " + lastReadChar);
             }
 
-            String unescaped = writer.toString();
+            primitive = readPrimitive();
+            primitiveToken = primitive == null ? Token.NULL : primitive instanceof Boolean ? Token.BOOLEAN : Token.NUMBER;
+            return primitiveToken;
+        }
 
-            StringBuilder output = new StringBuilder();
-            int prevIndex = 0;
-            int index = 0;
-            while((index = unescaped.indexOf('\\', index)) != -1) {
-
-                if(index > prevIndex) {
-                    output.append(unescaped, prevIndex, index);
-                }
-
-                char next = unescaped.charAt(++index);
-                switch (next) {
-                    case '\\':
-                    case '/':
-                    case '"':
-                        output.append(next);
-                        index++;
-                        break;
-                    case 'n':
-                        output.append('\n');
-                        index++;
-                        break;
-                    case 'r':
-                        output.append('\r');
-                        index++;
-                        break;
-                    case 'f':
-                        output.append('\f');
-                        index++;
-                        break;
-                    case 'b':
-                        output.append('\b');
-                        index++;
-                        break;
-                    case 't':
-                        output.append('\t');
-                        index++;
-                        break;
-                    case 'u':
-
-                        char lastRead;
-                        do {
-                            // Skip all additional u's
-                            lastRead = unescaped.charAt(index++);
-                        } while (lastRead == 'u');
-
-                        String codePointStr = lastRead + unescaped.substring(index, index + 3);
-                        index += 3;
-
-                        try {
-                            int codePointValue = Integer.parseUnsignedInt(codePointStr, 16);
-                            output.appendCodePoint(codePointValue);
-
-                        } catch (NumberFormatException nfe) {
-
-                            throw new DecodeException("Unable to decode unicode code point: " + codePointStr);
+        private void expect(Token token) throws IOException {
+            Token next = peek();
+            if(next != token) {
+                throw new DecodeException("Expected " + token + ", found " + next + "!");
+            }
+        }
+
+        private Object takePrimitive(Token token) throws IOException {
+            expect(token);
+            Object out = primitive;
+            primitive = null;
+            primitiveToken = null;
+            afterValue();
+            return out;
+        }
+
+        private void afterValue() throws IOException {
+
+            if(depth == 0) {
+                finished = true;
+                return;
+            }
+
+            boolean map = maps[depth - 1];
+            skipWhitespace();
+            if(lastReadChar == ',') {
+                if(nextReal() == (map ? '}' : ']')) {
+                    throw new DecodeException("Found unexpected end of " + (map ? "object!" : "list!"));
+                }
+            }
+            if(map) expectKey = true;
+        }
+
+        private void begin(Token token, boolean map) throws IOException {
+            expect(token);
+            if(depth == maps.length) {
+                maps = Arrays.copyOf(maps, depth * 2);
+            }
+            maps[depth++] = map;
+            expectKey = map;
+            nextReal();
+        }
+
+        private void end(boolean map) throws IOException {
+            if(depth == 0 || maps[depth - 1] != map) {
+                throw new DecodeException(map ? "Not reading an object!" : "Not reading a list!");
+            }
+            if(peek() != Token.END) {
+                throw new DecodeException(map ? "There are entries left in the object!" : "There are values left in the list!");
+            }
+            depth--;
+            nextReal();
+            afterValue();
+        }
+
+        @Override
+        public void readNull() throws IOException {
+            takePrimitive(Token.NULL);
+        }
+
+        @Override
+        public String readString() throws IOException {
+            expect(Token.STRING);
+            String out = readQuoted();
+            afterValue();
+            return out;
+        }
+
+        @Override
+        public Number readNumber() throws IOException {
+            return (Number) takePrimitive(Token.NUMBER);
+        }
+
+        @Override
+        public boolean readBoolean() throws IOException {
+            return (Boolean) takePrimitive(Token.BOOLEAN);
+        }
+
+        @Override
+        public ByteBuffer readBlob() throws IOException {
+            // Blobs are written as Base64 strings, so they are indistinguishable from strings when read
+            throw new DecodeException("Expected BLOB, found " + peek() + "!");
+        }
+
+        @Override
+        public void beginList() throws IOException {
+            begin(Token.LIST, false);
+        }
+
+        @Override
+        public void endList() throws IOException {
+            end(false);
+        }
+
+        @Override
+        public void beginMap() throws IOException {
+            begin(Token.MAP, true);
+        }
+
+        @Override
+        public String nextKey() throws IOException {
+            if(depth == 0 || !maps[depth - 1] || !expectKey) {
+                throw new DecodeException("Not expecting an object key!");
+            }
+            expect(Token.KEY);
+
+            String key = readQuoted();
+            skipWhitespace();
+            if(lastReadChar != ':') {
+                throw new DecodeException("Found junk data after key \"" + key + "\"");
+            }
+            nextReal();
+            expectKey = false;
+            return key;
+        }
+
+        @Override
+        public void endMap() throws IOException {
+            end(true);
+        }
+
+        @Override
+        public void skip() throws IOException {
+
+            if(peek() != Token.STRING) {
+                ValueReader.super.skip();
+                return;
+            }
+
+            skipString();
+            afterValue();
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+        }
+    }
+
+    /**
+     * A UTF-8 JSON document, indexed by where each of its objects and arrays start and end. Objects and arrays are
+     * returned as sections and lists which find the offsets of their values when they are created, and only decode
+     * each value when it is first accessed
+     */
+    private static class LazyDocument {
+
+        private final byte[] data;
+
+        // The offsets of the opening and closing brackets of each object or array, in the order they are opened, and
+        // the index of the first object or array opened after each one is closed
+        private int[] opens = new int[16];
+        private int[] closes = new int[16];
+        private int[] nexts = new int[16];
+        private int count;
+
+        private final int start;
+
+        LazyDocument(byte[] data) {
+            this.data = data;
+
+            int start = 0;
+            while(start < data.length && data[start] >= 0 && data[start] <= 32) {
+                start++;
+            }
+            this.start = start;
+            if(start < data.length && (data[start] == '{' || data[start] == '[')) {
+                index();
+            }
+        }
+
+        // Indexes the object or array at the start of the document. Like the eager decoder, anything after it is ignored
+        private void index() {
+
+            JSONScanner scanner = JSONScanner.get();
+            int[] stack = new int[16];
+            int depth = 0;
+            int length = data.length;
+            for(int i = start ; i < length ; i++) {
+
+                byte b = data[i];
+                if(b == '"') {
+                    // Find the closing quote, skipping escaped characters
+                    i++;
+                    while(true) {
+                        i = scanner.findStringEnd(data, i, length);
+                        if(i >= length) {
+                            throw new DecodeException("Found EOF while reading a JSON String!");
                         }
-                        break;
+                        if(data[i] == '"') break;
+                        i += data[i] == '\\' ? 2 : 1;
+                    }
+
+                } else if(b == '{' || b == '[') {
+                    if(count == opens.length) {
+                        opens = Arrays.copyOf(opens, count * 2);
+                        closes = Arrays.copyOf(closes, count * 2);
+                        nexts = Arrays.copyOf(nexts, count * 2);
+                    }
+                    if(depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    opens[count] = i;
+                    stack[depth++] = count++;
 
-                    default:
-                        throw new DecodeException("Invalid escape character " + next + "!");
+                } else if(b == '}' || b == ']') {
+                    int open = stack[--depth];
+                    if(data[opens[open]] != (b == '}' ? '{' : '[')) {
+                        throw new DecodeException("Found mismatched bracket " + (char) b + "!");
+                    }
+                    closes[open] = i;
+                    nexts[open] = count;
+                    if(depth == 0) return;
                 }
+            }
+            if(depth > 0) {
+                throw new DecodeException("Found EOF while attempting to parse JSON!");
+            }
+        }
 
-                prevIndex = index;
+        ConfigObject root() {
+            return count > 0 ? container(0) : decode(start, data.length);
+        }
 
+        private ConfigObject container(int index) {
+            try {
+                return data[opens[index]] == '{' ? section(index) : list(index);
+            } catch (IOException ex) {
+                throw new DecodeException("Unable to index JSON data!", ex);
             }
+        }
 
-            output.append(unescaped.substring(prevIndex));
+        private ConfigObject decode(int start, int end) {
+            try {
+                return new Decoder<>(ConfigContext.INSTANCE, data, start, end - start).decode();
+            } catch (IOException ex) {
+                throw new DecodeException("Unable to decode JSON data!", ex);
+            }
+        }
 
-            nextReal(reader);
-            return output.toString();
+        private ConfigObject value(int[] spans, int index) {
+            int container = spans[index * 3 + 2];
+            return container == -1 ? decode(spans[index * 3], spans[index * 3 + 1]) : container(container);
         }
 
-        private boolean hasInvalidChars(String value, String valid) {
-            for(char c : value.toCharArray()) {
-                if(valid.indexOf(c) == -1) {
-                    return true;
+        private ConfigSection section(int index) throws IOException {
+
+            Members members = new Members(index);
+            List<String> keys = new ArrayList<>();
+            Map<String, Integer> slots = new HashMap<>();
+
+            members.nextReal();
+            while(members.lastReadChar != -1) {
+
+                if(members.lastReadChar != '"') {
+                    String suffix = keys.isEmpty() ? "" : " (After key " + keys.get(keys.size() - 1) + ")";
+                    throw new DecodeException("Found unquoted key while parsing an object!" + suffix);
+                }
+                String key = members.readQuoted();
+                if(members.lastReadChar != ':') {
+                    throw new DecodeException("Found junk data after key \"" + key + "\"");
                 }
+                members.nextReal();
+
+                // Repeated keys keep their first position, but take their last value
+                Integer slot = slots.get(key);
+                if(slot == null) {
+                    slot = keys.size();
+                    slots.put(key, slot);
+                    keys.add(key);
+                }
+                members.readValue(slot);
             }
-            return false;
+
+            int[] spans = members.spans;
+            return ConfigSection.lazy(keys, i -> value(spans, i));
         }
 
+        private ConfigList list(int index) throws IOException {
+
+            Members members = new Members(index);
+            int size = 0;
+
+            members.nextReal();
+            while(members.lastReadChar != -1) {
+                members.readValue(size++);
+            }
+
+            int[] spans = members.spans;
+            return ConfigList.lazy(size, i -> value(spans, i));
+        }
+
+        /**
+         * Finds the offsets of the values directly inside an object or array
+         */
+        private class Members extends Lexer {
+
+            private final int end;
+            private int next;
+
+            // The start offset, end offset, and object or array index (or -1) of each value
+            private int[] spans = new int[12];
+
+            Members(int index) {
+                super(data, opens[index] + 1, closes[index] - opens[index] - 1);
+                this.end = closes[index];
+                this.next = index + 1;
+            }
+
+            void readValue(int slot) throws IOException {
+
+                int start = offset() - 1;
+                int container = -1;
+                if(lastReadChar == '{' || lastReadChar == '[') {
+                    container = next;
+                    next = nexts[container];
+                    seek(closes[container] + 1);
+                    nextReal();
+                } else if(lastReadChar == '"') {
+                    skipString();
+                } else if(lastReadChar == -1 || lastReadChar == ',' || lastReadChar == '}' || lastReadChar == ']') {
+                    throw new DecodeException("Found illegal character " + (lastReadChar == -1 ? "EOF" : (char) lastReadChar));
+                } else {
+                    do {
+                        lastReadChar = read();
+                    } while(lastReadChar > 32 && lastReadChar != ',');
+                    if(lastReadChar != -1 && lastReadChar <= 32) {
+                        nextReal();
+                    }
+                }
+
+                if(slot * 3 + 3 > spans.length) {
+                    spans = Arrays.copyOf(spans, Math.max(spans.length * 2, slot * 3 + 3));
+                }
+                spans[slot * 3] = start;
+                spans[slot * 3 + 1] = lastReadChar == -1 ? end : offset() - 1;
+                spans[slot * 3 + 2] = container;
+
+                // Like the eager decoder, a missing comma between values is tolerated
+                if(lastReadChar == ',' && nextReal() == -1) {
+                    throw new DecodeException("Found unexpected end of " + (data[end] == '}' ? "object" : "list") + "!");
+                }
+            }
+        }
     }
 
 }
@@ -0,0 +1,419 @@
+package org.wallentines.mdcfg.codec;
+
+import java.math.BigInteger;
+
+/**
+ * Formats and parses JSON numbers without creating intermediate Strings. Doubles are formatted using the Schubfach
+ * algorithm, which finds the shortest decimal which rounds back to the same double, in the same layout as
+ * {@link Double#toString(double)}. Doubles are parsed using the Eisel-Lemire algorithm, falling back to
+ * {@link Double#parseDouble(String)} for inputs it cannot handle
+ */
+final class JSONNumbers {
+
+    /**
+     * The maximum number of bytes written by {@link #writeLong(long, byte[], int)} or
+     * {@link #writeDouble(double, byte[], int)}
+     */
+    static final int MAX_LENGTH = 25;
+
+    // Schubfach constants for doubles
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << 52;
+    private static final int C_TINY = 3;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = 0x7FFF_FFFF_FFFF_FFFFL;
+
+    // Eisel-Lemire constants for doubles
+    private static final int POW5_MIN = -342;
+    private static final int POW5_MAX = 308;
+
+    // The 126-bit approximations of 10^-k used by Schubfach, split into their upper and lower 63 bits
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2];
+
+    // The 128-bit approximations of 5^q used by Eisel-Lemire, split into their upper and lower 64 bits
+    private static final long[] POW5 = new long[(POW5_MAX - POW5_MIN + 1) * 2];
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final long[] LONG_POW10 = new long[19];
+
+    static {
+        BigInteger mask63 = BigInteger.valueOf(MASK_63);
+        for(int k = K_MIN ; k <= K_MAX ; k++) {
+            int e = -k;
+            int r = flog2pow10(e) - 125;
+            BigInteger numerator = BigInteger.TEN.pow(Math.max(e, 0)).shiftLeft(Math.max(-r, 0));
+            BigInteger denominator = BigInteger.TEN.pow(Math.max(-e, 0)).shiftLeft(Math.max(r, 0));
+            BigInteger g = numerator.divide(denominator).add(BigInteger.ONE);
+            G[(k - K_MIN) << 1] = g.shiftRight(63).longValue();
+            G[((k - K_MIN) << 1) + 1] = g.and(mask63).longValue();
+        }
+
+        BigInteger five = BigInteger.valueOf(5);
+        for(int q = POW5_MIN ; q <= POW5_MAX ; q++) {
+            BigInteger c;
+            if(q >= 0) {
+                BigInteger power = five.pow(q);
+                int length = power.bitLength();
+                c = length <= 128 ? power.shiftLeft(128 - length) : power.shiftRight(length - 128);
+            } else {
+                BigInteger power = five.pow(-q);
+                int length = power.bitLength();
+                if(q >= -27) {
+                    c = BigInteger.ONE.shiftLeft(length + 127).divide(power).add(BigInteger.ONE);
+                } else {
+                    c = BigInteger.ONE.shiftLeft(2 * length + 128).divide(power).add(BigInteger.ONE);
+                    c = c.shiftRight(Math.max(0, c.bitLength() - 128));
+                }
+            }
+            POW5[(q - POW5_MIN) << 1] = c.shiftRight(64).longValue();
+            POW5[((q - POW5_MIN) << 1) + 1] = c.longValue();
+        }
+
+        long power = 1;
+        for(int i = 0 ; i < LONG_POW10.length ; i++) {
+            LONG_POW10[i] = power;
+            power *= 10;
+        }
+    }
+
+    private JSONNumbers() { }
+
+    // floor(q * log10(2))
+    private static int flog10pow2(int q) {
+        return (int) (q * 661_971_961_083L >> 41);
+    }
+
+    // floor(log10(3/4 * 2^q))
+    private static int flog10threeQuartersPow2(int q) {
+        return (int) (q * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    // floor(e * log2(10))
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    /**
+     * Writes the decimal representation of a long
+     * @param value The value to write
+     * @param out The array to write to. Must have at least {@link #MAX_LENGTH} bytes available
+     * @param position The index to start writing at
+     * @return The index after the last byte written
+     */
+    static int writeLong(long value, byte[] out, int position) {
+
+        if(value < 0) {
+            out[position++] = '-';
+            if(value == Long.MIN_VALUE) {
+                // The magnitude cannot be negated, so the last digit is written separately
+                position = writeLong(-(value / 10), out, position);
+                out[position++] = '8';
+                return position;
+            }
+            value = -value;
+        }
+
+        int length = 1;
+        while(length < LONG_POW10.length && value >= LONG_POW10[length]) {
+            length++;
+        }
+        int end = position + length;
+        for(int i = end - 1 ; i >= position ; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * Writes the shortest decimal representation of a finite double, formatted the same way as
+     * {@link Double#toString(double)}
+     * @param value The value to write
+     * @param out The array to write to. Must have at least {@link #MAX_LENGTH} bytes available
+     * @param position The index to start writing at
+     * @return The index after the last byte written
+     */
+    static int writeDouble(double value, byte[] out, int position) {
+
+        long bits = Double.doubleToRawLongBits(value);
+        if(bits < 0) {
+            out[position++] = '-';
+        }
+
+        long t = bits & (C_MIN - 1);
+        int bq = (int) (bits >>> 52) & 0x7FF;
+        if(bq == 0x7FF) {
+            throw new IllegalArgumentException("Unable to write non-finite double " + value + "!");
+        }
+        if(bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+
+            // Integers below 2^53 are written directly
+            if(0 < mq && mq < 53) {
+                long f = c >> mq;
+                if(f << mq == c) {
+                    return writeDecimal(f, 0, out, position);
+                }
+            }
+            return toDecimal(-mq, c, 0, out, position);
+        }
+        if(t != 0) {
+            return t < C_TINY ? toDecimal(Q_MIN, 10 * t, -1, out, position) : toDecimal(Q_MIN, t, 0, out, position);
+        }
+        return writeDecimal(0, 0, out, position);
+    }
+
+    private static int toDecimal(int q, long c, int dk, byte[] out, int position) {
+
+        int odd = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if(c != C_MIN || q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        long g1 = G[(k - K_MIN) << 1];
+        long g0 = G[((k - K_MIN) << 1) + 1];
+
+        long vb = roundToOdd(g1, g0, cb << h);
+        long vbl = roundToOdd(g1, g0, cbl << h);
+        long vbr = roundToOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if(s >= 100) {
+            // Prefer a decimal with one digit less if one is in the rounding interval
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + odd <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + odd <= vbr;
+            if(upin != wpin) {
+                return writeDecimal(upin ? sp10 : tp10, k, out, position);
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + odd <= s << 2;
+        boolean win = (t << 2) + odd <= vbr;
+        if(uin != win) {
+            return writeDecimal(uin ? s : t, k + dk, out, position);
+        }
+
+        // Both candidates are in the rounding interval, so pick the closest one, or the even one on a tie
+        long cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, out, position);
+    }
+
+    private static long roundToOdd(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    // Writes f * 10^e in the same layout as Double.toString
+    private static int writeDecimal(long f, int e, byte[] out, int position) {
+
+        if(f == 0) {
+            out[position++] = '0';
+            out[position++] = '.';
+            out[position++] = '0';
+            return position;
+        }
+        while(f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+
+        int start = position;
+        position = writeLong(f, out, position);
+        int length = position - start;
+
+        // The value is 0.[digits] * 10^exponent
+        int exponent = e + length;
+        if(0 < exponent && exponent <= 7) {
+            if(length <= exponent) {
+                for(int i = length ; i < exponent ; i++) {
+                    out[position++] = '0';
+                }
+                out[position++] = '.';
+                out[position++] = '0';
+            } else {
+                int point = start + exponent;
+                System.arraycopy(out, point, out, point + 1, position - point);
+                out[point] = '.';
+                position++;
+            }
+            return position;
+        }
+        if(-3 < exponent && exponent <= 0) {
+            int zeros = 2 - exponent;
+            System.arraycopy(out, start, out, start + zeros, length);
+            out[start] = '0';
+            out[start + 1] = '.';
+            for(int i = 2 ; i < zeros ; i++) {
+                out[start + i] = '0';
+            }
+            return position + zeros;
+        }
+
+        System.arraycopy(out, start + 1, out, start + 2, length - 1);
+        out[start + 1] = '.';
+        position++;
+        if(length == 1) {
+            out[position++] = '0';
+        }
+        out[position++] = 'E';
+        return writeLong(exponent - 1, out, position);
+    }
+
+    /**
+     * Parses a double from the given characters. Inputs which do not match
+     * {@code -?[0-9]*(\.[0-9]*)?(E-?[0-9]+)?} or which have more than 19 significant digits are passed to
+     * {@link Double#parseDouble(String)}
+     * @param text The characters to parse
+     * @param length The number of characters to parse
+     * @return The closest double to the given decimal
+     * @throws NumberFormatException If the characters could not be parsed
+     */
+    static double parseDouble(char[] text, int length) {
+
+        int index = 0;
+        boolean negative = index < length && text[index] == '-';
+        if(negative) index++;
+
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigits = false;
+        boolean fraction = false;
+        for(; index < length ; index++) {
+            char c = text[index];
+            if(c == '.') {
+                if(fraction) return fallback(text, length);
+                fraction = true;
+                continue;
+            }
+            if(c < '0' || c > '9') break;
+
+            anyDigits = true;
+            if(fraction) exponent--;
+            if(significand == 0 && c == '0') continue;
+            // Up to 19 digits fit in the significand when it is treated as unsigned
+            if(++digits > 19) return fallback(text, length);
+            significand = significand * 10 + (c - '0');
+        }
+        if(!anyDigits) return fallback(text, length);
+
+        if(index < length) {
+            if(text[index++] != 'E' || index == length) return fallback(text, length);
+
+            boolean negativeExponent = text[index] == '-';
+            if(negativeExponent && ++index == length) return fallback(text, length);
+
+            int value = 0;
+            for(; index < length ; index++) {
+                char c = text[index];
+                if(c < '0' || c > '9') return fallback(text, length);
+                if(value < 100000) value = value * 10 + (c - '0');
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if(significand == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+
+        // Both the significand and the power of ten are exact, so a single operation rounds correctly
+        if(Long.compareUnsigned(significand, 1L << 53) <= 0 && exponent >= -22 && exponent <= 22) {
+            double out = (double) significand;
+            out = exponent < 0 ? out / POW10[-exponent] : out * POW10[exponent];
+            return negative ? -out : out;
+        }
+
+        long bits = eiselLemire(significand, exponent);
+        if(bits == -1) {
+            return fallback(text, length);
+        }
+        double out = Double.longBitsToDouble(bits);
+        return negative ? -out : out;
+    }
+
+    private static double fallback(char[] text, int length) {
+        return Double.parseDouble(new String(text, 0, length));
+    }
+
+    // Returns the bits of the double closest to w * 10^q, or -1 if it could not be determined
+    private static long eiselLemire(long w, int q) {
+
+        if(q < POW5_MIN) return 0L;
+        if(q > POW5_MAX) return Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+
+        int index = (q - POW5_MIN) << 1;
+        long high = unsignedMultiplyHigh(w, POW5[index]);
+        long low = w * POW5[index];
+        if((high & 0x1FF) == 0x1FF) {
+            long next = unsignedMultiplyHigh(w, POW5[index + 1]);
+            long sum = low + next;
+            if(Long.compareUnsigned(sum, low) < 0) high++;
+            low = sum;
+        }
+        if(low == -1L && (q < -27 || q > 55)) {
+            return -1;
+        }
+
+        int upperBit = (int) (high >>> 63);
+        long mantissa = high >>> (upperBit + 9);
+        int power2 = (int) (((152170 + 65536) * (long) q) >> 16) + 63 + upperBit - lz + 1023;
+
+        if(power2 <= 0) {
+            // Subnormal
+            if(-power2 + 1 >= 64) return 0L;
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < C_MIN ? 0 : 1;
+            return (mantissa & (C_MIN - 1)) | (long) power2 << 52;
+        }
+
+        // Values exactly halfway between two doubles round to even
+        if(Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23 && (mantissa & 3) == 1) {
+            if((mantissa << (upperBit + 9)) == high) {
+                mantissa &= ~1L;
+            }
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if(mantissa >= (C_MIN << 1)) {
+            mantissa = C_MIN;
+            power2++;
+        }
+        mantissa &= ~C_MIN;
+        if(power2 >= 0x7FF) {
+            return Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        }
+        return mantissa | (long) power2 << 52;
+    }
+
+}
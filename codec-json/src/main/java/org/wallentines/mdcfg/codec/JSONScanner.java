@@ -0,0 +1,69 @@
+package org.wallentines.mdcfg.codec;
+
+/**
+ * Finds the bytes which end runs of whitespace or plain string characters in a window of UTF-8 JSON data. This
+ * implementation checks one byte at a time, and is used by default. On Java 21+ builds, setting the system property
+ * mdcfg.json.vector to true selects a VectorJSONScanner which checks many bytes at once instead, if the
+ * jdk.incubator.vector module is available at runtime. Whether it is faster depends on the hardware and the data
+ */
+class JSONScanner {
+
+    static final JSONScanner SCALAR = new JSONScanner();
+
+    /**
+     * Gets the scanner selected for this runtime
+     * @return A JSON scanner
+     */
+    static JSONScanner get() {
+        if(Boolean.getBoolean("mdcfg.json.vector")) {
+            JSONScanner vector = VectorHolder.VECTOR;
+            if(vector != null) return vector;
+        }
+        return SCALAR;
+    }
+
+    // The vector scanner is only loaded the first time it is requested
+    private static class VectorHolder {
+        private static final JSONScanner VECTOR = loadVector();
+    }
+
+    private static JSONScanner loadVector() {
+        try {
+            return (JSONScanner) Class.forName("org.wallentines.mdcfg.codec.VectorJSONScanner").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            // The class is not included in builds for older versions, and the incubator module must be added at runtime
+            return null;
+        }
+    }
+
+    /**
+     * Finds the first quote, backslash, or non-ASCII byte in the given range
+     * @param bytes The bytes to search
+     * @param from The first index to check
+     * @param to The index to stop at
+     * @return The index of the first matching byte, or {@code to} if there are none
+     */
+    int findStringEnd(byte[] bytes, int from, int to) {
+        for(int i = from ; i < to ; i++) {
+            byte b = bytes[i];
+            if(b < 0 || b == '"' || b == '\\') return i;
+        }
+        return to;
+    }
+
+    /**
+     * Finds the first byte in the given range which is not whitespace or another ASCII control character
+     * @param bytes The bytes to search
+     * @param from The first index to check
+     * @param to The index to stop at
+     * @return The index of the first matching byte, or {@code to} if there are none
+     */
+    int skipWhitespace(byte[] bytes, int from, int to) {
+        for(int i = from ; i < to ; i++) {
+            byte b = bytes[i];
+            if(b < 0 || b > 32) return i;
+        }
+        return to;
+    }
+
+}
@@ -0,0 +1,51 @@
+package org.wallentines.mdcfg.codec;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// A JSON scanner which checks a full vector of bytes at once. This file is excluded from builds for Java 17 and
+// older, so it must only contain line comments. It is only loaded reflectively by JSONScanner.
+final class VectorJSONScanner extends JSONScanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    VectorJSONScanner() {
+        // Without hardware support, the Vector API is slower than checking one byte at a time
+        if(SPECIES.length() < 16) {
+            throw new UnsupportedOperationException("Vectors of " + SPECIES.length() + " bytes are too small!");
+        }
+    }
+
+    @Override
+    int findStringEnd(byte[] bytes, int from, int to) {
+        int index = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for(; index < bound ; index += SPECIES.length()) {
+            ByteVector vector = ByteVector.fromArray(SPECIES, bytes, index);
+            VectorMask<Byte> mask = vector.lt((byte) 0)
+                    .or(vector.eq((byte) '"'))
+                    .or(vector.eq((byte) '\\'));
+            if(mask.anyTrue()) {
+                return index + mask.firstTrue();
+            }
+        }
+        return super.findStringEnd(bytes, index, to);
+    }
+
+    @Override
+    int skipWhitespace(byte[] bytes, int from, int to) {
+        int index = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for(; index < bound ; index += SPECIES.length()) {
+            ByteVector vector = ByteVector.fromArray(SPECIES, bytes, index);
+            VectorMask<Byte> mask = vector.lt((byte) 0).or(vector.compare(VectorOperators.GT, (byte) 32));
+            if(mask.anyTrue()) {
+                return index + mask.firstTrue();
+            }
+        }
+        return super.skipWhitespace(bytes, index, to);
+    }
+
+}
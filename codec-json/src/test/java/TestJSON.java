@@ -3,15 +3,28 @@ import org.junit.jupiter.api.Test;
 import org.wallentines.mdcfg.ConfigBlob;
 import org.wallentines.mdcfg.ConfigList;
 import org.wallentines.mdcfg.ConfigObject;
+import org.wallentines.mdcfg.ConfigPrimitive;
 import org.wallentines.mdcfg.ConfigSection;
 import org.wallentines.mdcfg.codec.DecodeException;
 import org.wallentines.mdcfg.codec.JSONCodec;
 import org.wallentines.mdcfg.serializer.ConfigContext;
+import org.wallentines.mdcfg.serializer.ObjectSerializer;
+import org.wallentines.mdcfg.serializer.SerializeException;
+import org.wallentines.mdcfg.serializer.Serializer;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
 
 public class TestJSON {
 
@@ -188,4 +201,248 @@ public class TestJSON {
 
     }
 
+    private static class Item {
+
+        private final String name;
+        private final Collection<String> tags;
+        private final Map<String, Integer> counts;
+        private final Item child;
+
+        private Item(String name, Collection<String> tags, Map<String, Integer> counts, Item child) {
+            this.name = name;
+            this.tags = tags;
+            this.counts = counts;
+            this.child = child;
+        }
+    }
+
+    private static final Serializer<Item> LEAF_SERIALIZER = ObjectSerializer.create(
+            Serializer.STRING.entry("name", (Item item) -> item.name),
+            Serializer.STRING.listOf().entry("tags", (Item item) -> item.tags),
+            Serializer.INT.mapOf().entry("counts", (Item item) -> item.counts),
+            (String name, Collection<String> tags, Map<String, Integer> counts) -> new Item(name, tags, counts, null)
+    );
+
+    private static final Serializer<Item> ITEM_SERIALIZER = ObjectSerializer.create(
+            Serializer.STRING.entry("name", (Item item) -> item.name),
+            Serializer.STRING.listOf().entry("tags", (Item item) -> item.tags),
+            Serializer.INT.mapOf().entry("counts", (Item item) -> item.counts),
+            LEAF_SERIALIZER.entry("child", (Item item) -> item.child).optional(),
+            (String name, Collection<String> tags, Map<String, Integer> counts, Item child) -> new Item(name, tags, counts, child)
+    );
+
+    @Test
+    public void testStreaming() {
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("b\n", 2);
+        counts.put("zeta", 3);
+        counts.put("mid", 4);
+        counts.put("a", 1);
+
+        Item item = new Item("Parent \"1\"", Arrays.asList("x", "y"), counts,
+                new Item("Child", Arrays.asList(), new LinkedHashMap<>(), null));
+
+        for(JSONCodec codec : new JSONCodec[] { JSONCodec.minified(), JSONCodec.readable(), new JSONCodec(2) }) {
+
+            ConfigObject tree = ITEM_SERIALIZER.serialize(ConfigContext.INSTANCE, item).getOrThrow();
+            String expected = codec.encodeToString(ConfigContext.INSTANCE, tree);
+            String streamed = codec.encodeToString(ConfigContext.INSTANCE, ITEM_SERIALIZER, item);
+
+            Assertions.assertEquals(expected, streamed);
+        }
+    }
+
+    @Test
+    public void testStreamingFailure() {
+
+        // The child has no name, so serializing fails after the parent's other fields have been written
+        Item item = new Item("Parent", Arrays.asList("x"), new LinkedHashMap<>(),
+                new Item(null, Arrays.asList(), new LinkedHashMap<>(), null));
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        Assertions.assertThrows(SerializeException.class, () -> JSONCodec.minified().encode(ConfigContext.INSTANCE, ITEM_SERIALIZER, item, stream));
+        Assertions.assertEquals(0, stream.size());
+    }
+
+    @Test
+    public void testStreamingRead() {
+
+        String json = "{ \"name\": \"Parent\", \"junk\": { \"a\": [1, 2.5, { \"b\": \"\\\"}\" }], \"c\": null }, " +
+                "\"tags\": [\"x\", \"y\"], \"counts\": { \"a\": 1, \"b\": 2 }, \"child\": null, \"extra\": [true] }";
+
+        Item item = JSONCodec.minified().decode(ConfigContext.INSTANCE, ITEM_SERIALIZER, json).getOrThrow();
+        Assertions.assertEquals("Parent", item.name);
+        Assertions.assertEquals(Arrays.asList("x", "y"), item.tags);
+        Assertions.assertEquals(2, item.counts.size());
+        Assertions.assertEquals(2, item.counts.get("b"));
+        Assertions.assertNull(item.child);
+
+        // Values which were streamed should match values decoded from a tree
+        Item original = new Item("Parent \"1\"", Arrays.asList("x", "y"), new LinkedHashMap<>(),
+                new Item("Child", Arrays.asList("z"), new LinkedHashMap<>(), null));
+        String encoded = JSONCodec.readable().encodeToString(ConfigContext.INSTANCE, ITEM_SERIALIZER, original);
+
+        Item read = JSONCodec.minified().decode(ConfigContext.INSTANCE, ITEM_SERIALIZER, encoded).getOrThrow();
+        Assertions.assertEquals(original.name, read.name);
+        Assertions.assertEquals(original.child.name, read.child.name);
+        Assertions.assertEquals(original.child.tags, read.child.tags);
+
+        Assertions.assertFalse(JSONCodec.minified().decode(ConfigContext.INSTANCE, ITEM_SERIALIZER, "{ \"tags\": [] }").isComplete());
+        Assertions.assertThrows(DecodeException.class, () -> JSONCodec.minified().decode(ConfigContext.INSTANCE, ITEM_SERIALIZER, "{ \"name\": \"A\", \"tags\": [1,] }"));
+    }
+
+    @Test
+    public void testCharsets() {
+
+        String json = "{ \"plain\": \"Hello\", \"accents\": \"h\u00e9llo\", \"wide\": \"\u4e2d\ud83d\ude00\", " +
+                "\"escaped\": \"\\u00e9\\n\\\"\", \"numbers\": [1, -2147483649, 123456789012345678901, 1.5, -0.25] }";
+
+        ConfigSection expected = new ConfigSection()
+                .with("plain", "Hello")
+                .with("accents", "h\u00e9llo")
+                .with("wide", "\u4e2d\ud83d\ude00")
+                .with("escaped", "\u00e9\n\"")
+                .with("numbers", new ConfigList().append(1).append(-2147483649L).append(new BigInteger("123456789012345678901")).append(1.5).append(-0.25));
+
+        for(Charset charset : new Charset[] { StandardCharsets.UTF_8, StandardCharsets.UTF_16LE }) {
+            try {
+                ConfigObject obj = JSONCodec.minified().decode(ConfigContext.INSTANCE, new ByteArrayInputStream(json.getBytes(charset)), charset);
+                Assertions.assertEquals(expected, obj);
+            } catch (IOException ex) {
+                Assertions.fail(ex);
+            }
+        }
+
+        // Truncated multi-byte characters are rejected
+        byte[] truncated = { '"', (byte) 0xC3, '"' };
+        Assertions.assertThrows(DecodeException.class, () -> JSONCodec.minified().decode(ConfigContext.INSTANCE, new ByteArrayInputStream(truncated), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEncodeEscapes() throws IOException {
+
+        ConfigSection section = new ConfigSection()
+                .with("quote\"", "a\\b\n\t\r\f\b")
+                .with("wide", "h\u00e9llo \u4e2d\ud83d\ude00")
+                .with("empty", new ConfigList())
+                .with("nested", new ConfigList().append(new ConfigSection().with("n", 1)));
+
+        Assertions.assertEquals("{\"quote\\\"\":\"a\\\\b\\n\\t\\r\\f\\b\",\"wide\":\"h\u00e9llo \u4e2d\ud83d\ude00\",\"empty\":[],\"nested\":[{\"n\":1}]}",
+                JSONCodec.minified().encodeToString(ConfigContext.INSTANCE, section));
+        Assertions.assertEquals("{\n  \"empty\": [ ],\n  \"nested\": [\n    {\n      \"n\": 1\n    }\n  ]\n}",
+                new JSONCodec(2).encodeToString(ConfigContext.INSTANCE, new ConfigSection().with("empty", new ConfigList()).with("nested", section.getList("nested"))));
+
+        // Strings longer than the output buffer, in a charset which is not encoded inline
+        StringBuilder builder = new StringBuilder();
+        for(int i = 0 ; i < 20000 ; i++) {
+            builder.append(i % 100 == 0 ? '\u00e9' : i % 37 == 0 ? '"' : (char) ('a' + i % 26));
+        }
+        ConfigSection large = new ConfigSection().with("large", builder.toString());
+        for(Charset charset : new Charset[] { StandardCharsets.UTF_8, StandardCharsets.UTF_16LE }) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JSONCodec.readable().encode(ConfigContext.INSTANCE, large, out, charset);
+            Assertions.assertEquals(large, JSONCodec.minified().decode(ConfigContext.INSTANCE, new ByteArrayInputStream(out.toByteArray()), charset));
+        }
+    }
+
+    @Test
+    public void testDoubles() {
+
+        Random random = new Random(1);
+        ConfigList list = new ConfigList();
+        double[] specials = { 0.0, -0.0, 0.1, 0.3, 1.0, 100.0, 1.0E7, 9999999.0, 0.001, 9.99E-4, 1.0E22, 1.0E23,
+                Double.MIN_VALUE, Double.MIN_NORMAL, Double.MAX_VALUE, -123456.789 };
+        for(double d : specials) {
+            list.append(d);
+        }
+        for(int i = 0 ; i < 10000 ; i++) {
+            list.append(Double.longBitsToDouble(random.nextLong() & 0x7FEF_FFFF_FFFF_FFFFL) * (i % 2 == 0 ? 1 : -1));
+            list.append(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+        }
+        list.append(Long.MIN_VALUE).append(Long.MAX_VALUE).append(Integer.MIN_VALUE).append(0);
+
+        String encoded = JSONCodec.minified().encodeToString(ConfigContext.INSTANCE, list);
+        ConfigList decoded = JSONCodec.minified().decode(ConfigContext.INSTANCE, encoded).asList();
+
+        Assertions.assertEquals(list.size(), decoded.size());
+        for(int i = 0 ; i < list.size() ; i++) {
+            Number expected = list.get(i).asNumber();
+            Number actual = decoded.get(i).asNumber();
+            if(expected instanceof Double) {
+                Assertions.assertEquals(Double.doubleToRawLongBits(expected.doubleValue()), Double.doubleToRawLongBits(actual.doubleValue()));
+            } else {
+                Assertions.assertEquals(expected.longValue(), actual.longValue());
+            }
+        }
+
+        Assertions.assertEquals("[1.0E7,1.0E-5,0.001,1234567.125,-0.0,4.9E-324]", JSONCodec.minified().encodeToString(ConfigContext.INSTANCE,
+                new ConfigList().append(1.0E7).append(1.0E-5).append(0.001).append(1234567.125).append(-0.0).append(Double.MIN_VALUE)));
+        Assertions.assertEquals(0.30000000000000004, JSONCodec.loadConfig("[0.30000000000000004]").asList().get(0).asNumber().doubleValue());
+        Assertions.assertEquals(1.5E-300, JSONCodec.loadConfig("[1.5E-300]").asList().get(0).asNumber().doubleValue());
+        Assertions.assertEquals(9739034007260646.875, JSONCodec.loadConfig("[9739034007260646.875]").asList().get(0).asNumber().doubleValue());
+    }
+
+    @Test
+    public void testVectorScan() throws IOException {
+
+        // Long strings with escapes and multi-byte characters on either side of vector boundaries
+        ConfigSection section = new ConfigSection();
+        for(int i = 0 ; i < 2000 ; i++) {
+            StringBuilder value = new StringBuilder();
+            for(int j = 0 ; j < i % 150 ; j++) {
+                value.append(j == i % 67 ? '"' : j == i % 41 ? '\u00e9' : (char) ('a' + j % 26));
+            }
+            section.set("key" + i, new ConfigList().append(value.toString()).append(i).append(new ConfigSection().with("nested", i * 0.5)));
+        }
+
+        byte[] minified = JSONCodec.minified().encodeToString(ConfigContext.INSTANCE, section).getBytes(StandardCharsets.UTF_8);
+        byte[] readable = JSONCodec.readable().encodeToString(ConfigContext.INSTANCE, section).getBytes(StandardCharsets.UTF_8);
+
+        for(byte[] data : new byte[][] { minified, readable }) {
+            for(String vector : new String[] { "true", "false" }) {
+                System.setProperty("mdcfg.json.vector", vector);
+                try {
+                    Assertions.assertEquals(section, JSONCodec.minified().decode(ConfigContext.INSTANCE, new ByteArrayInputStream(data), StandardCharsets.UTF_8));
+                } finally {
+                    System.clearProperty("mdcfg.json.vector");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLazy() throws IOException {
+
+        String json = "{\"String\":\"Hello, World\",\"List\":[1,2.5,{\"a\":true}],\"Section\":{\"Hello\":\"World\",\"Empty\":[]},\"String\":\"Again\"}";
+        byte[] data = json.getBytes(StandardCharsets.UTF_8);
+
+        ConfigObject eager = JSONCodec.loadConfig(new ByteArrayInputStream(data));
+        ConfigObject lazy = JSONCodec.loadConfigLazy(new ByteArrayInputStream(data));
+        Assertions.assertEquals(eager, lazy);
+        Assertions.assertEquals("Again", lazy.asSection().getString("String"));
+
+        // Errors in parts of the document which are never read are only reported when they are accessed
+        ConfigSection broken = JSONCodec.loadConfigLazy("{\"good\":1,\"bad\":[tru]}".getBytes(StandardCharsets.UTF_8)).asSection();
+        Assertions.assertEquals(1, broken.getInt("good"));
+        Assertions.assertThrows(DecodeException.class, () -> broken.getList("bad").get(0));
+
+        Assertions.assertThrows(DecodeException.class, () -> JSONCodec.loadConfigLazy("{\"a\":[1}".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(ConfigPrimitive.of(12), JSONCodec.loadConfigLazy("12".getBytes(StandardCharsets.UTF_8)));
+
+        // Lazily decoded lists can be deserialized in parallel
+        StringBuilder numbers = new StringBuilder("[");
+        for(int i = 0 ; i < 10000 ; i++) {
+            if(i > 0) numbers.append(",");
+            numbers.append(i);
+        }
+        ConfigObject lazyNumbers = JSONCodec.loadConfigLazy(numbers.append("]").toString().getBytes(StandardCharsets.UTF_8));
+        Collection<Integer> parallel = Serializer.INT.listOf().parallel(100).deserialize(ConfigContext.INSTANCE, lazyNumbers).getOrThrow();
+        int expected = 0;
+        for(int i : parallel) {
+            Assertions.assertEquals(expected++, i);
+        }
+        Assertions.assertEquals(10000, expected);
+    }
+
 }
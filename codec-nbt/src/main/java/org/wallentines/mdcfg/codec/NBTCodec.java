@@ -10,6 +10,8 @@ import java.util.*;
 
 public class NBTCodec implements Codec {
 
+    private static final int MAX_SIZE_HINT = 65536;
+
     private final boolean expectRootName;
 
     public NBTCodec(boolean expectRootName) {
@@ -126,9 +128,8 @@ public class NBTCodec implements Codec {
                     break;
                 }
                 case COMPOUND: {
-                    for (String key : ctx.getOrderedKeys(t)) {
+                    ctx.forEachEntry(t, (key, value) -> {
 
-                        T value = ctx.get(key, t);
                         TagType tt = NBTUtil.getTagType(ctx, value);
                         if(tt == null) {
                             throw new EncodeException("Unable to determine NBT list type of" + t + "!");
@@ -137,7 +138,7 @@ public class NBTCodec implements Codec {
                         writer.writeByte(tt.getValue());
                         writer.writeUTF(key);
                         encodeValue(value);
-                    }
+                    });
                     writer.writeByte(TagType.END.getValue());
                     break;
                 }
@@ -187,40 +188,32 @@ public class NBTCodec implements Codec {
                 case END -> throw new DecodeException("Found unexpected end tag!");
                 case BYTE -> ctx.toNumber(reader.readByte());
                 case SHORT -> ctx.toNumber(reader.readShort());
-                case INT -> ctx.toNumber(reader.readInt());
-                case LONG -> ctx.toNumber(reader.readLong());
+                case INT -> ctx.toInt(reader.readInt());
+                case LONG -> ctx.toLong(reader.readLong());
                 case FLOAT -> ctx.toNumber(reader.readFloat());
-                case DOUBLE -> ctx.toNumber(reader.readDouble());
+                case DOUBLE -> ctx.toDouble(reader.readDouble());
                 case STRING -> ctx.toString(reader.readUTF());
                 case BYTE_ARRAY -> {
 
                     int length = reader.readInt();
 
-                    ByteBuffer buffer = ByteBuffer.allocate(length);
-                    int remaining = length;
-                    byte[] copyBuffer = new byte[1024];
-
+                    byte[] blob = new byte[length];
                     try {
-                        while (remaining > 0) {
-                            int read = Math.min(remaining, copyBuffer.length);
-                            reader.readFully(copyBuffer, 0, read);
-                            remaining -= read;
-                            buffer.put(copyBuffer, 0, read);
-                        }
+                        reader.readFully(blob);
                     } catch (EOFException ex) {
                         throw new DecodeException("Unexpected EOF encountered while reading a blob!", ex);
                     }
 
                     listType = TagType.BYTE;
-                    yield ctx.toBlob(buffer);
+                    yield ctx.toBlob(ByteBuffer.wrap(blob));
                 }
                 case LIST -> {
-                    List<T> list = new ArrayList<>();
                     listType = TagType.byValue(reader.readByte());
                     if(listType == null) {
                         throw new DecodeException("Found unknown tag while reading a list!");
                     }
                     int length = reader.readInt();
+                    List<T> list = new ArrayList<>(sizeHint(length));
                     for(int i = 0 ; i < length ; i++) {
                         list.add(decodeValue(listType));
                     }
@@ -237,20 +230,20 @@ public class NBTCodec implements Codec {
                     yield ctx.toMap(map);
                 }
                 case INT_ARRAY -> {
-                    List<T> list = new ArrayList<>();
                     int length = reader.readInt();
+                    List<T> list = new ArrayList<>(sizeHint(length));
                     for(int i = 0 ; i < length ; i++) {
-                        list.add(ctx.toNumber(reader.readInt()));
+                        list.add(ctx.toInt(reader.readInt()));
                     }
                     listType = TagType.INT;
                     yield ctx.toList(list);
                 }
                 case LONG_ARRAY -> {
 
-                    List<T> list = new ArrayList<>();
                     int length = reader.readInt();
+                    List<T> list = new ArrayList<>(sizeHint(length));
                     for(int i = 0 ; i < length ; i++) {
-                        list.add(ctx.toNumber(reader.readLong()));
+                        list.add(ctx.toLong(reader.readLong()));
                     }
                     listType = TagType.LONG;
                     yield ctx.toList(list);
@@ -268,6 +261,11 @@ public class NBTCodec implements Codec {
         }
 
 
+        // Lengths are read from the stream, so a corrupt length should not be able to allocate huge lists up front
+        private static int sizeHint(int length) {
+            return Math.max(0, Math.min(length, MAX_SIZE_HINT));
+        }
+
         private TagType readTagType(DataInput input) throws IOException {
             int tagValue = input.readByte();
             TagType type = TagType.byValue(tagValue);
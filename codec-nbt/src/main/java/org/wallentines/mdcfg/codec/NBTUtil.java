@@ -45,7 +45,9 @@ public class NBTUtil {
     }
     
     public static void setTagType(ConfigObject obj, TagType tagType) {
-        obj.setMetaProperty("nbt.tag_type", tagType.encode());
+        if(obj.supportsMeta()) {
+            obj.setMetaProperty("nbt.tag_type", tagType.encode());
+        }
     }
     
     public static TagType getTagType(ConfigObject obj) {
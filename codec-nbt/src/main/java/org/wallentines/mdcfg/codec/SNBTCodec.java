@@ -212,16 +212,15 @@ public class SNBTCodec implements Codec {
                 case COMPOUND: {
 
                     stream.write('{');
-                    int i = 0;
-                    for (String key : context.getOrderedKeys(input)) {
-                        if (i++ > 0) {
+                    int[] count = new int[1];
+                    context.forEachEntry(input, (key, value) -> {
+                        if (count[0]++ > 0) {
                             stream.write(',');
                         }
                         encodeKey(key);
                         stream.write(':');
-                        encodeValue(context.get(key, input));
-
-                    }
+                        encodeValue(value);
+                    });
                     stream.write('}');
                 }
             }
@@ -297,7 +296,7 @@ public class SNBTCodec implements Codec {
             }
             T out = decodeElement();
 
-            if(expectRootName) {
+            if(expectRootName && context.supportsMeta(out)) {
                 context.setMetaProperty(out, "nbt.root_name", rootName);
             }
             return out;
@@ -2,9 +2,12 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.wallentines.mdcfg.ConfigObject;
 import org.wallentines.mdcfg.ConfigPrimitive;
+import org.wallentines.mdcfg.ConfigSection;
 import org.wallentines.mdcfg.codec.DecodeException;
 import org.wallentines.mdcfg.codec.EncodeException;
 import org.wallentines.mdcfg.codec.NBTCodec;
+import org.wallentines.mdcfg.codec.NBTUtil;
+import org.wallentines.mdcfg.codec.TagType;
 import org.wallentines.mdcfg.serializer.ConfigContext;
 import org.wallentines.mdcfg.serializer.Serializer;
 
@@ -120,4 +123,19 @@ public class TestNBT {
 
     }
 
+    @Test
+    public void testSharedTagType() {
+
+        // Shared primitives cannot hold a tag type, so their type is inferred when encoding
+        ConfigPrimitive shared = ConfigPrimitive.of(12);
+        NBTUtil.setTagType(shared, TagType.LONG);
+        Assertions.assertNull(NBTUtil.getTagType(shared));
+
+        ConfigSection section = new ConfigSection();
+        section.set("value", 12);
+        NBTUtil.setTagType(section.get("value"), TagType.LONG);
+        Assertions.assertEquals(TagType.LONG, NBTUtil.getTagType(section.get("value")));
+
+    }
+
 }
@@ -148,6 +148,19 @@ public class NbtContext implements SerializeContext<Tag> {
         return object;
     }
 
+    @Override
+    public Tag add(Tag value, Tag object) {
+
+        if(object == null || object.asList().isEmpty()) return nullValue();
+        object.asList().orElseThrow().add(value);
+        return object;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public boolean supportsMeta(Tag object) {
         return false;